@@ -0,0 +1,57 @@
+package com.fizzed.blaze.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Generates the (deterministic) data benchmarks are run against, in a few shapes that stress different paths of the
+ * line and stream handling code.
+ */
+public class BenchmarkData {
+
+    public enum Shape {
+        // e.g. typical "ls" or compiler output
+        SHORT_LINES,
+        // e.g. minified json or a long classpath
+        LONG_LINES,
+        // random bytes w/ the occasional newline by chance
+        BINARY
+    }
+
+    static public byte[] generate(Shape shape, int size) {
+        final Random random = new Random(size * 31L + shape.ordinal());
+        final byte[] data = new byte[size];
+
+        switch (shape) {
+            case SHORT_LINES:
+                fillLines(random, data, 10, 80);
+                break;
+            case LONG_LINES:
+                fillLines(random, data, 4096, 65536);
+                break;
+            case BINARY:
+                random.nextBytes(data);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported shape " + shape);
+        }
+
+        return data;
+    }
+
+    static private void fillLines(Random random, byte[] data, int minLength, int maxLength) {
+        final byte[] chars = "abcdefghijklmnopqrstuvwxyz ABCDEFGHIJKLMNOPQRSTUVWXYZ 0123456789 /.-_"
+            .getBytes(StandardCharsets.US_ASCII);
+
+        int i = 0;
+        while (i < data.length) {
+            final int length = minLength + random.nextInt(maxLength - minLength + 1);
+            final int end = Math.min(data.length - 1, i + length);
+            for (; i < end; i++) {
+                data[i] = chars[random.nextInt(chars.length)];
+            }
+            data[i++] = '\n';
+        }
+    }
+
+}
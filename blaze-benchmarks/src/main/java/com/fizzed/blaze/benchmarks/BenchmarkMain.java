@@ -0,0 +1,45 @@
+package com.fizzed.blaze.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Same as the standard JMH main, but unless told otherwise (e.g. -rf csv -rff results.csv) the results are also
+ * written as JSON to jmh-result.json so they can be diffed between versions of blaze to catch regressions.
+ */
+public class BenchmarkMain {
+
+    static public final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    static public void main(String[] args) throws Exception {
+        final CommandLineOptions cmdOptions = new CommandLineOptions(args);
+
+        if (cmdOptions.shouldHelp()) {
+            cmdOptions.showHelp();
+            return;
+        }
+
+        final ChainedOptionsBuilder options = new OptionsBuilder()
+            .parent(cmdOptions);
+
+        if (!cmdOptions.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmdOptions.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+
+        final Runner runner = new Runner(options.build());
+
+        if (cmdOptions.shouldList()) {
+            runner.list();
+            return;
+        }
+
+        runner.run();
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.fizzed.blaze.benchmarks;
+
+import com.fizzed.blaze.util.BytePipe;
+import com.fizzed.blaze.util.SpscBytePipe;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of moving data from a writer thread to a reader thread (e.g. between actions in a pipeline).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BytePipeBenchmark {
+
+    static private final long TRANSFER_SIZE = 16L * 1024L * 1024L;
+
+    @Param({ "BYTE_PIPE", "SPSC_BYTE_PIPE" })
+    public String implementation;
+
+    @Param({ "16384", "65536" })
+    public int capacity;
+
+    @Param({ "512", "8192", "65536" })
+    public int chunkSize;
+
+    private byte[] chunk;
+
+    @Setup
+    public void setup() {
+        this.chunk = BenchmarkData.generate(BenchmarkData.Shape.BINARY, this.chunkSize);
+    }
+
+    @Benchmark
+    public long transfer() throws Exception {
+        final InputStream input;
+        final OutputStream output;
+        if ("BYTE_PIPE".equals(this.implementation)) {
+            final BytePipe pipe = new BytePipe(this.capacity);
+            input = pipe.getInputStream();
+            output = pipe.getOutputStream();
+        } else {
+            final SpscBytePipe pipe = new SpscBytePipe(this.capacity);
+            input = pipe.getInputStream();
+            output = pipe.getOutputStream();
+        }
+
+        final Thread writer = new Thread(() -> {
+            try {
+                for (long written = 0; written < TRANSFER_SIZE; written += this.chunk.length) {
+                    output.write(this.chunk, 0, this.chunk.length);
+                }
+                output.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        writer.start();
+
+        final byte[] buffer = new byte[this.chunkSize];
+        long read = 0;
+        int n;
+        while ((n = input.read(buffer, 0, buffer.length)) >= 0) {
+            read += n;
+        }
+
+        writer.join();
+        return read;
+    }
+
+}
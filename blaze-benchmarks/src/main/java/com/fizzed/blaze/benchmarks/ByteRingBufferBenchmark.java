@@ -0,0 +1,46 @@
+package com.fizzed.blaze.benchmarks;
+
+import com.fizzed.blaze.util.ByteRingBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of putting and getting chunks thru a ring buffer (single threaded, so just the copying and wrapping).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ByteRingBufferBenchmark {
+
+    @Param({ "4096", "65536" })
+    public int bufferSize;
+
+    @Param({ "64", "1000", "4096" })
+    public int chunkSize;
+
+    private ByteRingBuffer ringBuffer;
+    private byte[] chunk;
+    private byte[] buffer;
+
+    @Setup
+    public void setup() {
+        this.ringBuffer = new ByteRingBuffer(this.bufferSize);
+        this.chunk = BenchmarkData.generate(BenchmarkData.Shape.BINARY, this.chunkSize);
+        this.buffer = new byte[this.chunkSize];
+        // start half full so puts and gets wrap around at various positions
+        while (this.ringBuffer.getUsed() < this.bufferSize / 2) {
+            this.ringBuffer.put(this.chunk, 0, Math.min(this.chunkSize, this.bufferSize / 2 - this.ringBuffer.getUsed()));
+        }
+    }
+
+    @Benchmark
+    public int putThenGet() {
+        final int put = this.ringBuffer.put(this.chunk, 0, this.chunk.length);
+        return put + this.ringBuffer.get(this.buffer, 0, put);
+    }
+
+}
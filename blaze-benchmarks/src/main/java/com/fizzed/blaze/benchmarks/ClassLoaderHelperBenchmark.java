@@ -0,0 +1,62 @@
+package com.fizzed.blaze.benchmarks;
+
+import com.fizzed.blaze.core.BlazeClassLoader;
+import com.fizzed.blaze.internal.ClassLoaderHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to add a jar to a classloader already holding many (e.g. resolving a script's dependencies), both when it is
+ * new and when it is a duplicate (where all existing entries are checked).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ClassLoaderHelperBenchmark {
+
+    @Param({ "10", "100", "500" })
+    public int existingJars;
+
+    private URL[] existing;
+    private BlazeClassLoader classLoader;
+    private File duplicateJar;
+    private File newJar;
+
+    @Setup
+    public void setup() throws IOException {
+        final File dir = new File(System.getProperty("java.io.tmpdir"), "blaze-benchmark-jars");
+        this.existing = new URL[this.existingJars];
+        for (int i = 0; i < this.existingJars; i++) {
+            this.existing[i] = new File(dir, "dependency-" + i + ".jar").toURI().toURL();
+        }
+        this.classLoader = new BlazeClassLoader(this.existing, ClassLoaderHelperBenchmark.class.getClassLoader());
+        this.duplicateJar = new File(dir, "dependency-" + (this.existingJars - 1) + ".jar");
+        this.newJar = new File(dir, "dependency-new.jar");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.classLoader.close();
+    }
+
+    @Benchmark
+    public boolean addDuplicate() {
+        return ClassLoaderHelper.addClassPath(this.classLoader, this.duplicateJar);
+    }
+
+    @Benchmark
+    public boolean addNew() throws IOException {
+        // includes creating the classloader, since adding mutates it
+        try (BlazeClassLoader cl = new BlazeClassLoader(this.existing, ClassLoaderHelperBenchmark.class.getClassLoader())) {
+            return ClassLoaderHelper.addClassPath(cl, this.newJar);
+        }
+    }
+
+}
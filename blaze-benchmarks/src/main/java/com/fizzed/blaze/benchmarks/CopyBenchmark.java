@@ -0,0 +1,73 @@
+package com.fizzed.blaze.benchmarks;
+
+import com.fizzed.blaze.util.IoHelper;
+import com.fizzed.blaze.util.Streamables;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of copying a file (e.g. downloads, archive extraction) and a stream (e.g. piping) by size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CopyBenchmark {
+
+    @Param({ "65536", "16777216" })
+    public int size;
+
+    @Param({ "8192", "65536" })
+    public int bufferSize;
+
+    private byte[] data;
+    private Path dir;
+    private Path source;
+    private Path target;
+
+    @Setup
+    public void setup() throws IOException {
+        this.data = BenchmarkData.generate(BenchmarkData.Shape.BINARY, this.size);
+        this.dir = Files.createTempDirectory("blaze-benchmark-copy");
+        this.source = this.dir.resolve("source.bin");
+        this.target = this.dir.resolve("target.bin");
+        Files.write(this.source, this.data);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.source);
+        Files.deleteIfExists(this.target);
+        Files.deleteIfExists(this.dir);
+    }
+
+    @Benchmark
+    public void streamablesCopy() throws IOException {
+        Streamables.copy(
+            Streamables.input(new ByteArrayInputStream(this.data)),
+            Streamables.output(NullOutputStream.INSTANCE),
+            this.bufferSize);
+    }
+
+    @Benchmark
+    public void ioHelperCopyFileToStream() throws IOException {
+        IoHelper.copy(this.source, NullOutputStream.INSTANCE, false, false);
+    }
+
+    @Benchmark
+    public void ioHelperCopyFileToFile() throws IOException {
+        try (OutputStream output = Files.newOutputStream(this.target)) {
+            IoHelper.copy(this.source, output, false, false);
+        }
+    }
+
+}
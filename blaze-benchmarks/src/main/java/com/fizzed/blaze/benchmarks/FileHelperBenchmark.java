@@ -0,0 +1,44 @@
+package com.fizzed.blaze.benchmarks;
+
+import com.fizzed.blaze.internal.FileHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of hashing a file (e.g. a script to check if its compiled classes are stale).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FileHelperBenchmark {
+
+    @Param({ "4096", "1048576", "33554432" })
+    public int size;
+
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        this.file = Files.createTempFile("blaze-benchmark-md5", ".bin");
+        Files.write(this.file, BenchmarkData.generate(BenchmarkData.Shape.BINARY, this.size));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(this.file);
+    }
+
+    @Benchmark
+    public String md5hash() throws IOException, NoSuchAlgorithmException {
+        return FileHelper.md5hash(this.file);
+    }
+
+}
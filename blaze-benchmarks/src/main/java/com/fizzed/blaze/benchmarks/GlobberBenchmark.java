@@ -0,0 +1,66 @@
+package com.fizzed.blaze.benchmarks;
+
+import com.fizzed.blaze.util.Globber;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time to scan a tree of files (e.g. a project with nested source dirs) with typical globs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GlobberBenchmark {
+
+    @Param({ "100", "5000" })
+    public int fileCount;
+
+    @Param({ "*.txt", "**/*.java", "src/main/**" })
+    public String glob;
+
+    private Path root;
+
+    @Setup
+    public void setup() throws IOException {
+        this.root = Files.createTempDirectory("blaze-benchmark-globber");
+
+        // spread files across a few levels of dirs (10 files per dir) w/ a mix of extensions
+        final String[] extensions = { ".java", ".txt", ".class", ".md" };
+        for (int i = 0; i < this.fileCount; i++) {
+            final int dirIndex = i / 10;
+            final Path dir = this.root
+                .resolve(dirIndex % 2 == 0 ? "src/main" : "target/classes")
+                .resolve("pkg" + (dirIndex % 7))
+                .resolve("sub" + dirIndex);
+            Files.createDirectories(dir);
+            Files.createFile(dir.resolve("file" + i + extensions[i % extensions.length]));
+            if (i % 50 == 0) {
+                Files.createFile(this.root.resolve("root" + i + extensions[(i / 50) % extensions.length]));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(this.root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public List<Path> scan() throws IOException {
+        return Globber.globber(this.root, this.glob)
+            .scan();
+    }
+
+}
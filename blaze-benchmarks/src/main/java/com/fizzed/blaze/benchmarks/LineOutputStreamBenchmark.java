@@ -0,0 +1,63 @@
+package com.fizzed.blaze.benchmarks;
+
+import com.fizzed.blaze.util.LineOutputStream;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of splitting output into lines (e.g. for Exec.runLines or logging output), by the shape of the output,
+ * the size of the writes it arrives in, and how the lines are processed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LineOutputStreamBenchmark {
+
+    static private final int DATA_SIZE = 4 * 1024 * 1024;
+
+    @Param({ "SHORT_LINES", "LONG_LINES", "BINARY" })
+    public BenchmarkData.Shape shape;
+
+    @Param({ "512", "8192" })
+    public int writeSize;
+
+    @Param({ "STRING", "BYTES", "CHARS" })
+    public String processor;
+
+    private byte[] data;
+    private LineOutputStream<?> lineOutput;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.data = BenchmarkData.generate(this.shape, DATA_SIZE);
+        switch (this.processor) {
+            case "STRING":
+                this.lineOutput = new LineOutputStream<LineOutputStream.Processor>(blackhole::consume);
+                break;
+            case "BYTES":
+                this.lineOutput = new LineOutputStream<LineOutputStream.ByteProcessor>(
+                    (bytes, offset, length) -> blackhole.consume(length));
+                break;
+            case "CHARS":
+                this.lineOutput = new LineOutputStream<LineOutputStream.CharSequenceProcessor>(
+                    (CharSequence line) -> blackhole.consume(line.length()));
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported processor " + this.processor);
+        }
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        for (int offset = 0; offset < this.data.length; offset += this.writeSize) {
+            this.lineOutput.write(this.data, offset, Math.min(this.writeSize, this.data.length - offset));
+        }
+    }
+
+}
@@ -21,6 +21,7 @@ import com.fizzed.blaze.util.Globber;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.Objects;
+import java.util.regex.Pattern;
 
 public class Systems {
     
@@ -447,6 +448,114 @@ public class Systems {
         return rm(files);
     }
 
+    /**
+     * Prepares an action to watch the files matched by a globber for changes, delivering debounced batches of
+     * created, modified and deleted files.
+     *
+     * <pre>
+     * import static com.fizzed.blaze.Systems.watch;
+     * import static com.fizzed.blaze.util.Globber.globber;
+     *
+     * // ...
+     *
+     * try (FileWatcher watcher = watch(globber("src/**&#47;*.java")).run()) {
+     *     List&lt;FileChange&gt; changes;
+     *     while (!(changes = watcher.take()).isEmpty()) {
+     *         // rebuild...
+     *     }
+     * }
+     * </pre>
+     *
+     * @param globber The globber of the files to watch
+     * @return A new Watch action bound to current context
+     */
+    static public Watch watch(Globber globber) {
+        return new Watch(Contexts.currentContext())
+            .globber(globber);
+    }
+
+    /**
+     * Prepares an action to search files (or directories, recursively) for
+     * lines matching a regex, in parallel.
+     *
+     * <pre>
+     * import static com.fizzed.blaze.Systems.grep;
+     * import static com.fizzed.blaze.util.Globber.globber;
+     *
+     * // ...
+     *
+     * List&lt;Grep.Match&gt; matches = grep(Pattern.compile("TODO"))
+     *     .paths(globber("src/**&#47;*.java"))
+     *     .run();
+     * </pre>
+     *
+     * @param pattern The regex to find in each line
+     * @return A new Grep action bound to current context
+     */
+    static public Grep grep(Pattern pattern) {
+        return new Grep(Contexts.currentContext())
+            .pattern(pattern);
+    }
+
+    /**
+     * Prepares an action to search files (or directories, recursively) for
+     * lines matching a regex, in parallel.
+     *
+     * @param pattern The regex to find in each line
+     * @return A new Grep action bound to current context
+     * @see #grep(Pattern)
+     */
+    static public Grep grep(String pattern) {
+        return new Grep(Contexts.currentContext())
+            .pattern(pattern);
+    }
+
+    /**
+     * Prepares an action to hash the files matched by a globber
+     * concurrently, e.g. to produce a manifest (in the same format as a
+     * sha256sum) of release artifacts. Files in the manifest are written
+     * relative to the root of the globber.
+     *
+     * <pre>
+     * import static com.fizzed.blaze.Systems.checksum;
+     * import static com.fizzed.blaze.util.Globber.globber;
+     *
+     * // ...
+     *
+     * Map&lt;Path,String&gt; digests = checksum(globber("target/release/*.jar"))
+     *     .manifest(Paths.get("target/release/SHA256SUMS"))
+     *     .run();
+     * </pre>
+     *
+     * @param globber The globber of the files to hash
+     * @return A new Checksum action bound to current context
+     */
+    static public Checksum checksum(Globber globber) {
+        return new Checksum(Contexts.currentContext())
+            .paths(globber)
+            .relativeTo(globber.getRoot());
+    }
+
+    /**
+     * Prepares an action to hash files (or directories, recursively) or,
+     * w/ verify(), to verify the files of a manifest.
+     *
+     * <pre>
+     * import static com.fizzed.blaze.Systems.checksum;
+     *
+     * // ...
+     *
+     * checksum()
+     *     .verify(Paths.get("target/release/SHA256SUMS"))
+     *     .run();
+     * </pre>
+     *
+     * @return A new Checksum action bound to current context
+     */
+    static public Checksum checksum() {
+        return new Checksum(Contexts.currentContext());
+    }
+
     static public Pipeline pipeline() {
         return new Pipeline(Contexts.currentContext());
     }
@@ -460,5 +569,30 @@ public class Systems {
         return new Tail(Contexts.currentContext())
             .count(count);
     }
+
+    /**
+     * Prepares an action to transform lines as they stream through a
+     * pipeline (e.g. in place of a sed, grep -v or awk).
+     *
+     * <pre>
+     * import static com.fizzed.blaze.Systems.exec;
+     * import static com.fizzed.blaze.Systems.lineTransform;
+     * import static com.fizzed.blaze.Systems.pipeline;
+     *
+     * // ...
+     *
+     * pipeline()
+     *     .add(exec("ls", "-la"))
+     *     .add(lineTransform()
+     *         .filter(line -&gt; !line.startsWith("total"))
+     *         .map(String::toUpperCase))
+     *     .run();
+     * </pre>
+     *
+     * @return A new LineTransform action bound to current context
+     */
+    static public LineTransform lineTransform() {
+        return new LineTransform(Contexts.currentContext());
+    }
     
 }
@@ -0,0 +1,19 @@
+package com.fizzed.blaze.core;
+
+/**
+ * Thrown when an exec did not finish within its timeout (and was terminated).
+ */
+public class ExecTimeoutException extends BlazeException {
+
+    final private long timeoutMillis;
+
+    public ExecTimeoutException(String msg, long timeoutMillis) {
+        super(msg + " (timeout = " + timeoutMillis + " ms)");
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+}
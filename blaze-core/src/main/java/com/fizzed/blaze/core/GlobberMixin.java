@@ -57,6 +57,16 @@ public interface GlobberMixin<T> {
         return (T)this;
     }
     
+    default public T respectGitignore() {
+        getGlobber().respectGitignore();
+        return (T)this;
+    }
+    
+    default public T respectGitignore(boolean respectGitignore) {
+        getGlobber().respectGitignore(respectGitignore);
+        return (T)this;
+    }
+    
     default public T include(String glob) {
         getGlobber().include(glob);
         return (T)this;
@@ -17,18 +17,20 @@ package com.fizzed.blaze.internal;
 
 import com.fizzed.blaze.core.FileNotFoundException;
 import com.fizzed.blaze.core.BlazeException;
+import com.fizzed.blaze.util.FileFingerprints;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.stream.Stream;
@@ -103,18 +105,7 @@ public class FileHelper {
     }
     
     static public byte[] md5(Path path) throws IOException, NoSuchAlgorithmException {
-        byte[] buf = new byte[1024];
-        MessageDigest complete = MessageDigest.getInstance("MD5");
-        int read;
-        try (InputStream is = Files.newInputStream(path)) {
-            do {
-                read = is.read(buf);
-                if (read > 0) {
-                    complete.update(buf, 0, read);
-                }
-            } while (read != -1);
-        }
-        return complete.digest();
+        return FileFingerprints.digest(path, FileFingerprints.Algorithm.MD5);
     }
     
     static public String md5hash(Path path) throws IOException, NoSuchAlgorithmException {
@@ -122,6 +113,47 @@ public class FileHelper {
         return Base64.getUrlEncoder().encodeToString(md5).trim();
     }
     
+    /**
+     * Compares the content of two files, stopping at the first difference.
+     *
+     * @param a the first file
+     * @param b the second file
+     * @return true if the files are the same size and have identical content
+     * @throws IOException if either file could not be read
+     */
+    static public boolean contentEquals(Path a, Path b) throws IOException {
+        try (FileChannel ca = FileChannel.open(a); FileChannel cb = FileChannel.open(b)) {
+            if (ca.size() != cb.size()) {
+                return false;
+            }
+            final ByteBuffer bufferA = ByteBuffer.allocate(65536);
+            final ByteBuffer bufferB = ByteBuffer.allocate(65536);
+            while (true) {
+                ((Buffer)bufferA).clear();
+                ((Buffer)bufferB).clear();
+                final boolean eofA = readFully(ca, bufferA);
+                final boolean eofB = readFully(cb, bufferB);
+                ((Buffer)bufferA).flip();
+                ((Buffer)bufferB).flip();
+                if (!bufferA.equals(bufferB)) {
+                    return false;
+                }
+                if (eofA || eofB) {
+                    return eofA == eofB;
+                }
+            }
+        }
+    }
+
+    static private boolean readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
     static public void writeHashFileFor(Path path, String hash) throws IOException {
         Path hashPath = concatToFileName(path, ".hash");
         
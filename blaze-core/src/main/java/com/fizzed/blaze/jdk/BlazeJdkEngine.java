@@ -24,11 +24,11 @@ import com.fizzed.blaze.internal.ClassLoaderHelper;
 import static com.fizzed.blaze.internal.ClassLoaderHelper.currentThreadContextClassLoader;
 import com.fizzed.blaze.internal.ConfigHelper;
 import com.fizzed.blaze.internal.FileHelper;
+import com.fizzed.blaze.util.FileFingerprints;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Path;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -81,13 +81,20 @@ public class BlazeJdkEngine extends AbstractEngine<BlazeJdkScript> {
             
             expectedClassFile = classesDir.resolve(className + ".class");
             
-            // to check if we need to recompile we use an md5 hash of the source file
-            scriptHash = FileHelper.md5hash(context.scriptFile());
+            // to check if we need to recompile we use a fingerprint of the source file (remembered in the blaze
+            // cache, so the script is only read again if it changed)
+            final FileFingerprints fingerprints = FileFingerprints.of(context, FileFingerprints.Algorithm.SHA256);
+            scriptHash = fingerprints.fingerprint(context.scriptFile());
+            try {
+                fingerprints.save();
+            } catch (IOException e) {
+                log.debug("Unable to save file fingerprints: {}", e.getMessage());
+            }
             
             if (FileHelper.verifyHashFileFor(expectedClassFile, scriptHash)) {
                 compile = false;
             }
-        } catch (NoSuchAlgorithmException | IOException e) {
+        } catch (IOException e) {
             throw new BlazeException("Unable to get or create path to compile classes", e);
         }
         
@@ -1,32 +1,36 @@
 package com.fizzed.blaze.local;
 
+import com.fizzed.blaze.core.ExecTimeoutException;
 import com.fizzed.blaze.core.ExecutableNotFoundException;
 import com.fizzed.blaze.Context;
 import com.fizzed.blaze.core.BlazeException;
 import java.io.File;
+import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import com.fizzed.blaze.core.UnexpectedExitValueException;
-import com.fizzed.blaze.internal.IntRangeHelper;
 import com.fizzed.blaze.util.*;
-import org.zeroturnaround.exec.InvalidExitValueException;
-import org.zeroturnaround.exec.ProcessExecutor;
 import com.fizzed.blaze.system.Exec;
 import com.fizzed.blaze.system.Which;
 
 import java.io.InputStream;
-import org.zeroturnaround.exec.ProcessResult;
-import org.zeroturnaround.exec.StartedProcess;
+import org.apache.commons.io.output.NullOutputStream;
 import org.zeroturnaround.exec.stream.PumpStreamHandler;
 
 public class LocalExec extends Exec {
     
     final protected Which which;
+    private volatile Process process;
+    private volatile boolean terminated;
+    private volatile boolean timedOut;
+    private volatile boolean brokenPipe;
     
     public LocalExec(Context context) {
         super(context);
@@ -58,6 +62,24 @@ public class LocalExec extends Exec {
     
     @Override
     protected Exec.Result doRun() throws BlazeException {
+        final CompletableFuture<Exec.Result> future = this.doRunAsync();
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            // the process should not outlive whoever was waiting on it
+            this.terminate();
+            Thread.currentThread().interrupt();
+            throw new BlazeException("Unable to cleanly execute process", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BlazeException) {
+                throw (BlazeException)e.getCause();
+            }
+            throw new BlazeException("Unable to cleanly execute process", e.getCause());
+        }
+    }
+
+    @Override
+    protected CompletableFuture<Exec.Result> doRunAsync() throws BlazeException {
         Path exeFile = this.which.run();
         
         if (exeFile == null) {
@@ -65,26 +87,21 @@ public class LocalExec extends Exec {
         }
         
 
-        final ProcessExecutor executor = new ProcessExecutor();
+        final ProcessBuilder processBuilder = new ProcessBuilder();
 
         
         if (!this.environment.isEmpty()) {
-            this.environment.forEach(executor::environment);
+            this.environment.forEach((name, value) -> {
+                if (value != null) {
+                    processBuilder.environment().put(name, value);
+                } else {
+                    processBuilder.environment().remove(name);
+                }
+            });
         }
         
         if (this.workingDirectory != null) {
-            executor.directory(this.workingDirectory.toFile());
-        }
-        
-        if (this.exitValues != null && !this.exitValues.isEmpty()) {
-            executor.exitValues(IntRangeHelper.toExpandedArray(this.exitValues));
-        } else {
-            // we should ignore the exit values entirely
-            executor.exitValueAny();
-        }
-        
-        if (this.timeoutMillis > 0) {
-            executor.timeout(timeoutMillis, TimeUnit.MILLISECONDS);
+            processBuilder.directory(this.workingDirectory.toFile());
         }
 
         
@@ -124,10 +141,12 @@ public class LocalExec extends Exec {
         
         // use a custom streampumper so we can more accuratly handle inputstream
         final InputStream is = (this.pipeInput != null ? this.pipeInput.stream() : null);
-        final OutputStream os = (this.pipeOutput != null ? this.pipeOutput.stream() : null);
-        final OutputStream es = (this.pipeErrorToOutput ? os : (this.pipeError != null ? this.pipeError.stream() : null));
+        final OutputStream os = (this.pipeOutput != null ? this.terminateOnBrokenPipe(this.pipeOutput.stream()) : null);
+        final OutputStream es = (this.pipeErrorToOutput ? os : (this.pipeError != null ? this.terminateOnBrokenPipe(this.pipeError.stream()) : null));
         
-        PumpStreamHandler streams = new PumpStreamHandler(os, es, is) {
+        // a disabled output/error still needs to be drained so the process never blocks writing to it
+        final PumpStreamHandler streams = new PumpStreamHandler(
+                os != null ? os : NullOutputStream.INSTANCE, es != null ? es : NullOutputStream.INSTANCE, is) {
             @Override
             protected Thread createSystemInPump(InputStream is, OutputStream os) {
                 InputStreamPumper pumper = new InputStreamPumper(is, os);
@@ -166,51 +185,157 @@ public class LocalExec extends Exec {
             log.verbose("Exec [{}]{}{}", cmd, workingDir, env);
         }
 
-        executor
-            .command(finalCommand)
-            .streams(streams);
+        processBuilder.command(finalCommand);
 
+        final Process startedProcess;
         try {
-            final StartedProcess startedProcess = executor.start();
+            startedProcess = processBuilder.start();
+        } catch (IOException e) {
+            // close all the output streams (nothing will ever be written to them)
+            Streamables.closeQuietly(os);
+            Streamables.closeQuietly(es);
+            throw new BlazeException("Unable to cleanly execute process", e);
+        }
 
-            // register process for reaping (cleaning up...)
-            ProcessReaper.INSTANCE.register(startedProcess.getProcess());
-            try {
-                ProcessResult processResult = startedProcess.getFuture().get();
+        // register process for reaping (cleaning up...)
+        ProcessReaper.INSTANCE.register(startedProcess);
+        final ProcessUsageMonitor usageMonitor = this.recordUsage ? ProcessUsageMonitor.start(startedProcess) : null;
+
+        // termination may have been requested before the process even started
+        this.process = startedProcess;
+        if (this.terminated) {
+            this.terminate();
+        }
+
+        streams.setProcessInputStream(startedProcess.getOutputStream());
+        streams.setProcessOutputStream(startedProcess.getInputStream());
+        streams.setProcessErrorStream(startedProcess.getErrorStream());
+        streams.start();
 
-                return new Exec.Result(this, processResult.getExitValue());
-            } finally {
-                ProcessReaper.INSTANCE.unregister(startedProcess.getProcess());
+        // terminating may block for a bit, so the shared scheduler only hands it off
+        final ScheduledFuture<?> timeoutFuture = this.timeoutMillis > 0
+            ? SharedExecutors.scheduler().schedule(() -> SharedExecutors.executor().execute(this::timeout), this.timeoutMillis, TimeUnit.MILLISECONDS)
+            : null;
+
+        // no thread of ours waits for the process to exit (on java 9+)
+        return ProcessHelper.get().onExit(startedProcess)
+            .handleAsync((p, t) -> this.finish(startedProcess, t, streams, os, es, timeoutFuture, usageMonitor, exeFile), SharedExecutors.executor());
+    }
+
+    private Exec.Result finish(Process startedProcess, Throwable failure, PumpStreamHandler streams, OutputStream os,
+                               OutputStream es, ScheduledFuture<?> timeoutFuture, ProcessUsageMonitor usageMonitor, Path exeFile) {
+        try {
+            if (timeoutFuture != null) {
+                timeoutFuture.cancel(false);
             }
-        } catch (Throwable t) {
-            if (t instanceof ExecutionException) {
-                ExecutionException ee = (ExecutionException)t;
-                if (ee.getCause() instanceof InvalidExitValueException) {
-                    // this is actually what we want to process
-                    t = ee.getCause();
-                }
+
+            // waits for the remaining output to be pumped (and stops pumping input)
+            streams.stop();
+
+            final ProcessUsage usage = this.stopUsageMonitor(usageMonitor, exeFile);
+
+            if (failure != null) {
+                throw new BlazeException("Unable to cleanly execute process", failure);
             }
 
-            if (t instanceof InvalidExitValueException) {
-                InvalidExitValueException ievae = (InvalidExitValueException)t;
+            if (this.timedOut) {
+                throw new ExecTimeoutException("Process did not finish in time (and was terminated)", this.timeoutMillis);
+            }
 
-                // this can happen IF we're in the process of being shutdown and we actually don't want to throw an exception
-                if (ProcessReaper.INSTANCE.isShuttingDown()) {
-                    log.trace("Shutting down, ignoring invalid exit code on exec()");
-                    return new Exec.Result(this, ievae.getExitValue());
-                }
+            final int exitValue = startedProcess.exitValue();
 
-                throw new UnexpectedExitValueException("Process exited with unexpected value", this.exitValues, ievae.getExitValue());
+            // this can happen IF we're in the process of being shutdown and we actually don't want to throw an exception
+            if (ProcessReaper.INSTANCE.isShuttingDown()) {
+                log.trace("Shutting down, ignoring exit code on exec()");
+            } else if (this.brokenPipe) {
+                // much like a process killed by a SIGPIPE in a shell pipeline
+                log.trace("Output no longer read, ignoring exit code on exec()");
+            } else {
+                UnexpectedExitValueException.checkExitValue(this.exitValues, exitValue);
             }
 
-            throw new BlazeException("Unable to cleanly execute process", t);
+            return new Exec.Result(this, exitValue, usage);
         } finally {
+            Streamables.closeQuietly(startedProcess.getOutputStream());
+            Streamables.closeQuietly(startedProcess.getInputStream());
+            Streamables.closeQuietly(startedProcess.getErrorStream());
+            ProcessReaper.INSTANCE.unregister(startedProcess);
+            this.process = null;
             // close all the output streams (input stream closed above)
             Streamables.close(os);
             Streamables.close(es);
         }
     }
-    
+
+    /**
+     * Once the output of the process is no longer read (e.g. a head in a pipeline has all the lines it wants), the
+     * process is terminated (much like a SIGPIPE) and anything else it writes is discarded, rather than it being left
+     * blocked writing to it.
+     */
+    private OutputStream terminateOnBrokenPipe(OutputStream output) {
+        return new WrappedOutputStream(output) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (brokenPipe) {
+                    return;
+                }
+                try {
+                    super.write(b, off, len);
+                } catch (BrokenPipeException e) {
+                    brokenPipe();
+                }
+            }
+
+            @Override
+            public void write(byte[] b) throws IOException {
+                this.write(b, 0, b.length);
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                this.write(new byte[] { (byte)b }, 0, 1);
+            }
+        };
+    }
+
+    private void brokenPipe() {
+        if (!this.brokenPipe) {
+            this.brokenPipe = true;
+            log.debug("Output of process is no longer read (will terminate it)");
+            // terminating may block for a bit, so don't hold up the pumper
+            SharedExecutors.executor().execute(this::terminate);
+        }
+    }
+
+    private void timeout() {
+        this.timedOut = true;
+        log.debug("Process did not finish within {} ms (will terminate it)", this.timeoutMillis);
+        this.terminate();
+    }
+
+    private ProcessUsage stopUsageMonitor(ProcessUsageMonitor usageMonitor, Path exeFile) {
+        if (usageMonitor == null) {
+            return null;
+        }
+        final ProcessUsage usage = usageMonitor.stop();
+        log.verbose("Exec [{}] used {}", exeFile.getFileName(), usage);
+        return usage;
+    }
+
+    @Override
+    protected void terminate() {
+        this.terminated = true;
+        final Process p = this.process;
+        if (p != null && p.isAlive()) {
+            log.debug("Terminating process (and its descendants)");
+            try {
+                ProcessHelper.get().destroyWithDescendants(p, 5000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     static public class Result extends com.fizzed.blaze.core.Result<LocalExec,Integer,Result> {
         
         Result(LocalExec action, Integer value) {
@@ -0,0 +1,127 @@
+package com.fizzed.blaze.system;
+
+import com.fizzed.blaze.internal.ConfigHelper.OperatingSystem;
+import com.fizzed.blaze.util.SharedExecutors;
+import com.fizzed.blaze.util.VerboseLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Removes directories in the background by first atomically renaming them to a hidden sibling "tombstone" (so the
+ * original path is free immediately) and then deleting the tombstone asynchronously. If the JVM exits before a
+ * deletion finishes, the rest is handed off to the operating system (rm -rf or rd /s /q) so exit is not delayed,
+ * or waited on if that is not possible.
+ */
+class BackgroundRemoval {
+    static private final Logger log = LoggerFactory.getLogger(BackgroundRemoval.class);
+
+    static public final BackgroundRemoval INSTANCE = new BackgroundRemoval();
+
+    private final Set<Path> pending;
+    private final AtomicBoolean shutdownHookAdded;
+    private volatile boolean shuttingDown;
+
+    private BackgroundRemoval() {
+        this.pending = ConcurrentHashMap.newKeySet();
+        this.shutdownHookAdded = new AtomicBoolean();
+    }
+
+    /**
+     * Renames the directory to a tombstone and starts deleting it in the background.
+     *
+     * @param dir the directory to remove
+     * @param parallelism the number of threads to delete with
+     * @param verboseLogger the logger of the remove
+     * @return a future completed once the tombstone is deleted
+     * @throws IOException if the directory could not be atomically renamed (e.g. not supported by the filesystem)
+     */
+    public CompletableFuture<Void> submit(Path dir, int parallelism, VerboseLogger verboseLogger) throws IOException {
+        final Path tombstone = dir.resolveSibling("." + dir.getFileName() + ".blaze-removing-"
+            + UUID.randomUUID().toString().substring(0, 8));
+
+        Files.move(dir, tombstone, StandardCopyOption.ATOMIC_MOVE);
+
+        this.pending.add(tombstone);
+        if (!this.shutdownHookAdded.get() && this.shutdownHookAdded.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::onShutdown, "blaze-background-removal"));
+        }
+
+        verboseLogger.debug("Renamed {} to {} (removing in background)", dir, tombstone);
+
+        return CompletableFuture.runAsync(() -> {
+            try {
+                new TreeRemover(verboseLogger, parallelism).remove(tombstone);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                this.pending.remove(tombstone);
+            }
+        }, SharedExecutors.executor())
+        .whenComplete((v, e) -> {
+            if (e != null && !this.shuttingDown) {
+                log.warn("Unable to remove {} in background (will need removed manually)", tombstone, e);
+            }
+        });
+    }
+
+    private void onShutdown() {
+        this.shuttingDown = true;
+
+        final List<Path> tombstones = new ArrayList<>(this.pending);
+        if (tombstones.isEmpty()) {
+            return;
+        }
+
+        log.debug("Handing off removal of {} dir(s) to the OS since we're exiting", tombstones.size());
+
+        for (Path tombstone : tombstones) {
+            final List<String> command = new ArrayList<>();
+            if (OperatingSystem.windows()) {
+                command.add("cmd");
+                command.add("/c");
+                command.add("rd");
+                command.add("/s");
+                command.add("/q");
+            } else {
+                command.add("rm");
+                command.add("-rf");
+            }
+            command.add(tombstone.toAbsolutePath().toString());
+
+            try {
+                // the process outlives us (and is intentionally not reaped)
+                new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(new File(OperatingSystem.windows() ? "NUL" : "/dev/null")))
+                    .start();
+                this.pending.remove(tombstone);
+            } catch (IOException e) {
+                log.debug("Unable to hand off removal of {} (will wait for it instead)", tombstone, e);
+            }
+        }
+
+        // anything that could not be handed off we'll wait on (deletion threads keep running during shutdown)
+        while (!this.pending.isEmpty()) {
+            try {
+                Thread.sleep(50L);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,364 @@
+package com.fizzed.blaze.system;
+
+import com.fizzed.blaze.Context;
+import com.fizzed.blaze.core.Action;
+import com.fizzed.blaze.core.BlazeException;
+import com.fizzed.blaze.core.FileNotFoundException;
+import com.fizzed.blaze.core.PathsMixin;
+import com.fizzed.blaze.core.VerbosityMixin;
+import com.fizzed.blaze.util.FileFingerprints;
+import com.fizzed.blaze.util.FileFingerprints.Algorithm;
+import com.fizzed.blaze.util.ObjectHelper;
+import com.fizzed.blaze.util.Timer;
+import com.fizzed.blaze.util.VerboseLogger;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * checksum - hashes files (directories recursively) concurrently, producing a map of each file to its hex digest and
+ * optionally a manifest in the same format as sha256sum (and friends), e.g. to publish w/ release artifacts. Can also
+ * verify the files of such a manifest (like a sha256sum -c).
+ *
+ * <pre>
+ * // create a manifest
+ * checksum(globber("target/release/*.tar.gz"))
+ *     .manifest(Paths.get("target/release/SHA256SUMS"))
+ *     .run();
+ *
+ * // verify it (fails if any file is missing or different)
+ * checksum()
+ *     .verify(Paths.get("target/release/SHA256SUMS"))
+ *     .run();
+ * </pre>
+ */
+public class Checksum extends Action<Checksum.Result,Map<Path,String>> implements PathsMixin<Checksum>, VerbosityMixin<Checksum> {
+
+    static public class Result extends com.fizzed.blaze.core.Result<Checksum,Map<Path,String>,Result> {
+
+        Result(Checksum action, Map<Path,String> value) {
+            super(action, value);
+        }
+
+    }
+
+    /**
+     * The hex digest of a file or the IOException it could not be read w/.
+     */
+    static private class Digest {
+
+        private final Path file;
+        private final String hex;
+        private final IOException error;
+
+        public Digest(Path file, String hex, IOException error) {
+            this.file = file;
+            this.hex = hex;
+            this.error = error;
+        }
+
+    }
+
+    private final VerboseLogger log;
+    private final List<Path> paths;
+    private Algorithm algorithm;
+    private int parallelism;
+    private Path relativeTo;
+    private Path manifest;
+    private Path verify;
+
+    public Checksum(Context context) {
+        super(context);
+        this.log = new VerboseLogger(this);
+        this.paths = new ArrayList<>();
+        this.algorithm = Algorithm.SHA256;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public VerboseLogger getVerboseLogger() {
+        return this.log;
+    }
+
+    @Override
+    public List<Path> getPaths() {
+        return this.paths;
+    }
+
+    /**
+     * The algorithm to hash w/ (SHA256 by default). When verifying, it must be the algorithm of the manifest.
+     *
+     * @param algorithm the algorithm
+     * @return this checksum
+     */
+    public Checksum algorithm(Algorithm algorithm) {
+        ObjectHelper.requireNonNull(algorithm, "algorithm cannot be null");
+        this.algorithm = algorithm;
+        return this;
+    }
+
+    /**
+     * Hashes files concurrently w/ the number of threads (the number of processors by default).
+     *
+     * @param parallelism the number of threads to hash with (1 disables)
+     * @return this checksum
+     */
+    public Checksum parallel(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * The directory the files in a manifest are relative to. When writing a manifest, the files are written relative
+     * to it (or as they are if not set). When verifying, the files are resolved against it (or the directory of the
+     * manifest if not set).
+     *
+     * @param relativeTo the directory
+     * @return this checksum
+     */
+    public Checksum relativeTo(Path relativeTo) {
+        this.relativeTo = relativeTo;
+        return this;
+    }
+
+    /**
+     * Writes a manifest of the files and their digests (a line of "digest  file" per file, the same format as a
+     * sha256sum, including how it escapes a file w/ a backslash or newline).
+     *
+     * @param manifest the manifest file to write
+     * @return this checksum
+     */
+    public Checksum manifest(Path manifest) {
+        this.manifest = manifest;
+        return this;
+    }
+
+    /**
+     * Verifies the files of a manifest (in the same format as a sha256sum) rather than hashing the paths. Fails if
+     * any file is missing or its digest is different.
+     *
+     * @param manifest the manifest file to verify
+     * @return this checksum
+     */
+    public Checksum verify(Path manifest) {
+        this.verify = manifest;
+        return this;
+    }
+
+    @Override
+    protected Result doRun() throws BlazeException {
+        final Timer timer = new Timer();
+
+        if (this.verify != null) {
+            return new Result(this, this.verifyManifest(timer));
+        }
+
+        final Set<Path> files = new LinkedHashSet<>();
+        for (Path path : this.paths) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> walk = Files.walk(path)) {
+                    walk.filter(Files::isRegularFile).sorted().forEach(files::add);
+                } catch (IOException | UncheckedIOException e) {
+                    throw new BlazeException("Unable to list " + path, e);
+                }
+            } else if (Files.exists(path)) {
+                files.add(path);
+            } else {
+                throw new FileNotFoundException("Checksum file " + path + " not found");
+            }
+        }
+
+        final Map<Path,String> digests = new LinkedHashMap<>();
+        for (Digest digest : this.digest(new ArrayList<>(files))) {
+            if (digest.error != null) {
+                throw new BlazeException("Unable to checksum " + digest.file, digest.error);
+            }
+            digests.put(digest.file, digest.hex);
+        }
+
+        if (this.manifest != null) {
+            this.writeManifest(digests);
+        }
+
+        log.verbose("Checksummed {} file(s) w/ {} (in {})", digests.size(), this.algorithm, timer);
+
+        return new Result(this, digests);
+    }
+
+    private void writeManifest(Map<Path,String> digests) {
+        try (BufferedWriter writer = Files.newBufferedWriter(this.manifest, StandardCharsets.UTF_8)) {
+            for (Map.Entry<Path,String> entry : digests.entrySet()) {
+                Path file = entry.getKey();
+                if (this.relativeTo != null) {
+                    file = this.relativeTo.toAbsolutePath().normalize().relativize(file.toAbsolutePath().normalize());
+                }
+                // the same on every platform
+                final String name = file.toString().replace(file.getFileSystem().getSeparator(), "/");
+                // names that would break the line are escaped and the line flagged w/ a leading "\" (as sha256sum does)
+                final String escaped = escape(name);
+                writer.write((!escaped.equals(name) ? "\\" : "") + entry.getValue() + "  " + escaped + "\n");
+            }
+        } catch (IOException e) {
+            throw new BlazeException("Unable to write checksum manifest " + this.manifest, e);
+        }
+    }
+
+    private Map<Path,String> verifyManifest(Timer timer) {
+        final Path dir = this.relativeTo != null
+            ? this.relativeTo : this.verify.toAbsolutePath().getParent();
+
+        final Map<Path,String> expected = new LinkedHashMap<>();
+        try {
+            for (String line : Files.readAllLines(this.verify, StandardCharsets.UTF_8)) {
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                // "digest  file" (or "digest *file" if hashed in binary mode, which is the same to us), where a
+                // leading "\" means the file is escaped
+                final boolean escaped = line.startsWith("\\");
+                final int start = escaped ? 1 : 0;
+                final int space = line.indexOf(' ', start);
+                if (space <= start || space + 2 > line.length()) {
+                    throw new BlazeException("Invalid checksum manifest " + this.verify + " line: " + line);
+                }
+                String name = line.substring(space + 2);
+                if (escaped) {
+                    name = this.unescape(name, line);
+                }
+                expected.put(dir.resolve(name), line.substring(start, space).toLowerCase());
+            }
+        } catch (IOException e) {
+            throw new BlazeException("Unable to read checksum manifest " + this.verify, e);
+        }
+
+        final Map<Path,String> digests = new LinkedHashMap<>();
+        final List<String> failures = new ArrayList<>();
+        for (Digest digest : this.digest(new ArrayList<>(expected.keySet()))) {
+            if (digest.error instanceof NoSuchFileException) {
+                failures.add(digest.file + " (missing)");
+            } else if (digest.error != null) {
+                throw new BlazeException("Unable to checksum " + digest.file, digest.error);
+            } else {
+                digests.put(digest.file, digest.hex);
+                if (!digest.hex.equals(expected.get(digest.file))) {
+                    failures.add(digest.file.toString());
+                }
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            throw new BlazeException("Checksum verification failed for " + failures.size() + " of " + expected.size()
+                + " file(s): " + failures.stream().limit(10).collect(Collectors.joining(", "))
+                + (failures.size() > 10 ? ", ..." : ""));
+        }
+
+        log.verbose("Verified {} file(s) w/ {} (in {})", digests.size(), this.algorithm, timer);
+
+        return digests;
+    }
+
+    /**
+     * Escapes a name the same as sha256sum, i.e. a backslash as "\\", a newline as "\n" and a carriage return as
+     * "\r".
+     *
+     * @return the escaped name (the same if nothing needed escaping)
+     */
+    static private String escape(String name) {
+        if (name.indexOf('\\') < 0 && name.indexOf('\n') < 0 && name.indexOf('\r') < 0) {
+            return name;
+        }
+        return name.replace("\\", "\\\\").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private String unescape(String name, String line) {
+        final StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            final char c = name.charAt(i);
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            final char next = i + 1 < name.length() ? name.charAt(++i) : 0;
+            switch (next) {
+                case '\\':
+                    sb.append('\\');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                default:
+                    throw new BlazeException("Invalid checksum manifest " + this.verify + " line: " + line);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Hashes the files (concurrently) returning each one's hex digest, or the IOException it could not be read w/.
+     */
+    private List<Digest> digest(List<Path> files) {
+        final List<Callable<Digest>> tasks = new ArrayList<>(files.size());
+        for (Path file : files) {
+            tasks.add(() -> {
+                try {
+                    final byte[] digest = FileFingerprints.digest(file, this.algorithm);
+                    return new Digest(file, FileFingerprints.toHex(digest), null);
+                } catch (IOException e) {
+                    return new Digest(file, null, e);
+                }
+            });
+        }
+
+        final List<Digest> digests = new ArrayList<>(files.size());
+
+        if (this.parallelism <= 1 || files.size() <= 1) {
+            for (Callable<Digest> task : tasks) {
+                try {
+                    digests.add(task.call());
+                } catch (Exception e) {
+                    throw new BlazeException("Unable to checksum", e);
+                }
+            }
+            return digests;
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(Math.min(this.parallelism, files.size()));
+        try {
+            for (Future<Digest> future : pool.invokeAll(tasks)) {
+                digests.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            throw new BlazeException("Unable to checksum", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BlazeException("Interrupted while checksumming", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        return digests;
+    }
+
+}
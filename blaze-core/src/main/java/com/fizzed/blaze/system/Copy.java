@@ -22,6 +22,8 @@ import com.fizzed.blaze.core.DirectoryNotEmptyException;
 import com.fizzed.blaze.core.FileNotFoundException;
 import com.fizzed.blaze.core.Verbosity;
 import com.fizzed.blaze.core.VerbosityMixin;
+import com.fizzed.blaze.internal.ConfigHelper.OperatingSystem;
+import com.fizzed.blaze.internal.FileHelper;
 import com.fizzed.blaze.util.*;
 import com.fizzed.blaze.util.Timer;
 
@@ -29,17 +31,47 @@ import java.io.*;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 
 import static com.fizzed.blaze.internal.FileHelper.isNotEmptyDir;
 
 public class Copy extends Action<Copy.Result,Void> implements VerbosityMixin<Copy> {
 
+    /**
+     * How the content of files is copied.
+     */
+    public enum Strategy {
+        /**
+         * Copies the content of files (the default).
+         */
+        COPY,
+        /**
+         * Hardlinks files, so the target is the very same file as its source. Only possible on the same filesystem,
+         * otherwise the file is copied. Only use if neither will be modified in place!
+         */
+        LINK,
+        /**
+         * Clones files copy-on-write (e.g. btrfs, xfs, zfs, apfs) so only metadata is written, falling back to a
+         * copy if the filesystem does not support it. Small files are always copied since cloning them is slower.
+         */
+        REFLINK
+    }
+
+    // cloning a file is done by "cp", which is slower than simply copying a small file
+    static private final long REFLINK_MIN_SIZE = 1024L * 1024L;
+    static private final File NULL_FILE = new File(OperatingSystem.windows() ? "NUL" : "/dev/null");
+
     static public class Result extends com.fizzed.blaze.core.Result<Copy,Void,Result> {
 
         private int dirsCreated;
         private int filesCopied;
         private int filesOverwritten;
+        private int filesSkipped;
 
         Result(Copy action, Void value) {
             super(action, value);
@@ -57,6 +89,15 @@ public class Copy extends Action<Copy.Result,Void> implements VerbosityMixin<Cop
             return filesOverwritten;
         }
 
+        /**
+         * Gets the number of existing target files left as-is since they were unchanged (see {@link Copy#update()}).
+         *
+         * @return the number of files skipped
+         */
+        public int getFilesSkipped() {
+            return filesSkipped;
+        }
+
     }
 
     private final VerboseLogger log;
@@ -64,6 +105,12 @@ public class Copy extends Action<Copy.Result,Void> implements VerbosityMixin<Cop
     private Path target;
     private boolean force;
     private boolean recursive;
+    private boolean update;
+    private boolean checksum;
+    private int parallelism;
+    private Strategy strategy;
+    private boolean respectGitignore;
+    private volatile boolean reflinkSupported;
     private Verbosity verbosity;
 
     public Copy(Context context) {
@@ -72,6 +119,9 @@ public class Copy extends Action<Copy.Result,Void> implements VerbosityMixin<Cop
         this.sources = new ArrayList<>();
         this.force = false;
         this.recursive = false;
+        this.parallelism = 1;
+        this.strategy = Strategy.COPY;
+        this.reflinkSupported = !OperatingSystem.windows();
     }
 
     public VerboseLogger getVerboseLogger() {
@@ -153,6 +203,93 @@ public class Copy extends Action<Copy.Result,Void> implements VerbosityMixin<Cop
         return this;
     }
 
+    public Copy update() {
+        return this.update(true);
+    }
+
+    /**
+     * Copies only files that changed (like "cp -u" or rsync's quick check), which is much faster when copying a tree
+     * over a previous copy of it. An existing target file is left as-is if its size and last modified time are the
+     * same as the source, otherwise it is overwritten (force is not required). Copied files keep the last modified
+     * time of their source so the next comparison is exact.
+     *
+     * @param update true to only copy changed files
+     * @return this copy
+     */
+    public Copy update(boolean update) {
+        this.update = update;
+        return this;
+    }
+
+    public Copy checksum() {
+        return this.checksum(true);
+    }
+
+    /**
+     * In update mode, compares the content of existing target files of the same size as their source (rather than
+     * their last modified time), like rsync's --checksum. Slower, but reliable even if timestamps are not. Both files are
+     * read and hashed every time (see {@link FileFingerprints#digest(Path, FileFingerprints.Algorithm)}), since a
+     * fingerprint remembered by size and last modified time would trust the very timestamps this does not.
+     *
+     * @param checksum true to compare content
+     * @return this copy
+     */
+    public Copy checksum(boolean checksum) {
+        this.checksum = checksum;
+        return this;
+    }
+
+    /**
+     * Sets how the content of files is copied (e.g. hardlinked or cloned rather than copied, which makes duplicating
+     * a large tree only cost metadata operations). Both fall back to a regular copy if not possible.
+     *
+     * @param strategy the strategy
+     * @return this copy
+     */
+    public Copy strategy(Strategy strategy) {
+        ObjectHelper.requireNonNull(strategy, "strategy cannot be null");
+        this.strategy = strategy;
+        return this;
+    }
+
+    public Copy respectGitignore() {
+        return this.respectGitignore(true);
+    }
+
+    /**
+     * When copying directory trees, skips whatever git would ignore (e.g. build output), as defined by the .gitignore
+     * files in the tree and those of its parents up to the root of its git repository. Ignored directories are never
+     * descended into, and .git directories are always skipped. See {@link GitIgnore}.
+     *
+     * @param respectGitignore true to skip what git would ignore
+     * @return this copy
+     */
+    public Copy respectGitignore(boolean respectGitignore) {
+        this.respectGitignore = respectGitignore;
+        return this;
+    }
+
+    public Copy parallel() {
+        return this.parallel(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Copies directory trees with up to this many threads, walking the tree with fork/join so that directories are
+     * listed and files are copied concurrently.  Useful for large trees (e.g. node_modules) on fast storage.  The
+     * overwrite/force rules and result counters are the same as a sequential copy, though the order in which files
+     * are copied (and logged) is not.
+     *
+     * @param parallelism the max number of threads (1 copies sequentially, which is the default)
+     * @return this copy
+     */
+    public Copy parallel(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
     @Override
     protected Copy.Result doRun() throws BlazeException {
         if (this.sources.isEmpty() && !this.force) {
@@ -193,7 +330,7 @@ public class Copy extends Action<Copy.Result,Void> implements VerbosityMixin<Cop
                         if (Files.isDirectory(this.target)) {
                             // target exists, but is a directory, we can simply copy the source dir to it
                             Path relativeTarget = this.target.resolve(source.getFileName());
-                            copyDirectory(source, relativeTarget, result);
+                            copyTree(source, relativeTarget, result);
                         } else {
                             // target exists, but is a file!
                             throw new BlazeException("Cannot copy source directory " + source + " to an existing file " + this.target);
@@ -201,7 +338,7 @@ public class Copy extends Action<Copy.Result,Void> implements VerbosityMixin<Cop
                     } else {
                         // build a new relative target we will perform the copy to
                         log.debug(" mkdir {}", this.target);
-                        copyDirectory(source, this.target, result);
+                        copyTree(source, this.target, result);
                     }
                 } else {
                     // source is a file
@@ -211,18 +348,18 @@ public class Copy extends Action<Copy.Result,Void> implements VerbosityMixin<Cop
 
                         if (Files.exists(t)) {
                             // is it the same file?
-                            if (Files.isSameFile(source, t)) {
+                            // (a hardlink from a previous copy is the same file, but at a different path)
+                            if (Files.isSameFile(source, t) && (this.strategy != Strategy.LINK || isSamePath(source, t))) {
                                 throw new BlazeException("Copy source " + source + " and target " + t + " are the same file");
                             }
-                            if (!force) {
-                                throw new BlazeException("Copy target " + t + " already exists (and force is disabled)");
+                            if (overwriteFile(source, t)) {
+                                result.filesOverwritten++;
+                            } else {
+                                result.filesSkipped++;
                             }
-                            log.debug(" overwrite {} -> {}", source, t);
-                            Files.copy(source, t, StandardCopyOption.REPLACE_EXISTING);
-                            result.filesOverwritten++;
                         } else {
                             log.debug(" copy {} -> {}", source, t);
-                            Files.copy(source, t, StandardCopyOption.REPLACE_EXISTING);
+                            copyFile(source, t, StandardCopyOption.REPLACE_EXISTING);
                             result.filesCopied++;
                         }
                     } else {
@@ -232,17 +369,16 @@ public class Copy extends Action<Copy.Result,Void> implements VerbosityMixin<Cop
                             if (source.toAbsolutePath().equals(this.target.toAbsolutePath())) {
                                 throw new BlazeException("Copy source " + source + " and target " + this.target + " are the same file");
                             }
-                            // we know its not the same file, but is it forced?
-                            if (!this.force) {
-                                throw new BlazeException("Copy target " + this.target + " already exists (and force is disabled)");
+                            // we know its not the same file, but is it forced (or updated)?
+                            if (overwriteFile(source, this.target)) {
+                                result.filesOverwritten++;
+                            } else {
+                                result.filesSkipped++;
                             }
-                            log.debug(" overwrite {} -> {}", source, this.target);
-                            Files.copy(source, this.target, StandardCopyOption.REPLACE_EXISTING);
-                            result.filesOverwritten++;
                         } else {
                             // already logged this at top of loop
                             //log.debug("Copying {} -> {}", source, this.target);
-                            Files.copy(source, this.target, StandardCopyOption.REPLACE_EXISTING);
+                            copyFile(source, this.target, StandardCopyOption.REPLACE_EXISTING);
                             result.filesCopied++;
                         }
                     }
@@ -252,15 +388,177 @@ public class Copy extends Action<Copy.Result,Void> implements VerbosityMixin<Cop
             throw new BlazeException("Unable to copy", e);
         }
 
-        log.debug("Copied {} files, overwrote {} files, created {} dirs (in {})", result.filesCopied, result.filesOverwritten, result.dirsCreated, timer);
+        log.debug("Copied {} files, overwrote {} files, skipped {} files, created {} dirs (in {})",
+            result.filesCopied, result.filesOverwritten, result.filesSkipped, result.dirsCreated, timer);
+
+        return result;
+    }
+
+    private void verifyOverwriteAllowed(Path target) {
+        if (!this.force && !this.update) {
+            throw new BlazeException("Copy target " + target + " already exists (and force is disabled)");
+        }
+    }
+
+    /**
+     * Copies a file over an existing target, unless in update mode and it's unchanged.
+     *
+     * @return true if overwritten or false if skipped
+     */
+    private boolean overwriteFile(Path source, Path target) throws IOException {
+        this.verifyOverwriteAllowed(target);
+
+        if (this.update && this.unchanged(source, target)) {
+            log.debug(" skip {} (unchanged)", target);
+            return false;
+        }
+
+        log.debug(" overwrite {} -> {}", source, target);
+        this.copyFile(source, target, StandardCopyOption.REPLACE_EXISTING);
+        return true;
+    }
+
+    private void copyFile(Path source, Path target, CopyOption... options) throws IOException {
+        final boolean replace = Arrays.asList(options).contains(StandardCopyOption.REPLACE_EXISTING);
+
+        if (this.strategy == Strategy.LINK && this.link(source, target, replace)) {
+            // a hardlink is the same file as its source (so it already has the same mtime)
+            return;
+        }
+
+        if (this.strategy != Strategy.REFLINK || !this.reflink(source, target, replace)) {
+            Files.copy(source, target, options);
+        }
+
+        if (this.update) {
+            // so the next quick check of this file is exact
+            Files.setLastModifiedTime(target, Files.getLastModifiedTime(source));
+        }
+    }
+
+    private boolean link(Path source, Path target, boolean replace) throws IOException {
+        // a copy follows links, but a hardlink would be to the symlink itself
+        if (Files.isSymbolicLink(source)) {
+            return false;
+        }
+
+        if (replace) {
+            Files.deleteIfExists(target);
+        }
+
+        try {
+            Files.createLink(target, source);
+            log.trace(" link {} -> {}", source, target);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            throw e;
+        } catch (IOException | UnsupportedOperationException e) {
+            // e.g. a different filesystem or one w/o hardlinks
+            log.trace("Unable to link {} -> {} (will copy instead): {}", source, target, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean reflink(Path source, Path target, boolean replace) throws IOException {
+        if (!this.reflinkSupported || Files.size(source) < REFLINK_MIN_SIZE) {
+            return false;
+        }
+
+        final boolean existed = Files.exists(target, LinkOption.NOFOLLOW_LINKS);
+        if (existed && !replace) {
+            throw new FileAlreadyExistsException(target.toString());
+        }
+
+        // there is no api for cloning a file, but "cp" knows how
+        final List<String> command = new ArrayList<>();
+        command.add("cp");
+        command.add(OperatingSystem.mac() ? "-c" : "--reflink=always");
+        command.add(source.toAbsolutePath().toString());
+        command.add(target.toAbsolutePath().toString());
+
+        int exitValue;
+        try {
+            final Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(NULL_FILE))
+                .start();
+            exitValue = process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while cloning " + source);
+        } catch (IOException e) {
+            // e.g. no "cp" on the path
+            exitValue = -1;
+        }
+
+        if (exitValue == 0) {
+            log.trace(" reflink {} -> {}", source, target);
+            return true;
+        }
+
+        // most likely the filesystem does not support it (so don't bother trying again)
+        log.debug("Unable to reflink {} -> {} (will copy instead from now on)", source, target);
+        this.reflinkSupported = false;
+        if (!existed) {
+            // in case cp left something behind
+            Files.deleteIfExists(target);
+        }
+        return false;
+    }
+
+    static private boolean isSamePath(Path a, Path b) {
+        return a.toAbsolutePath().normalize().equals(b.toAbsolutePath().normalize());
+    }
+
+    private boolean unchanged(Path source, Path target) throws IOException {
+        // follows links (just like the copy itself would)
+        final BasicFileAttributes sourceAttrs = Files.readAttributes(source, BasicFileAttributes.class);
+        final BasicFileAttributes targetAttrs = Files.readAttributes(target, BasicFileAttributes.class);
+
+        if (!targetAttrs.isRegularFile() || sourceAttrs.size() != targetAttrs.size()) {
+            return false;
+        }
+
+        if (this.checksum) {
+            if (!Arrays.equals(FileFingerprints.digest(source, FileFingerprints.Algorithm.XXH64),
+                    FileFingerprints.digest(target, FileFingerprints.Algorithm.XXH64))) {
+                return false;
+            }
+            if (!sourceAttrs.lastModifiedTime().equals(targetAttrs.lastModifiedTime())) {
+                Files.setLastModifiedTime(target, sourceAttrs.lastModifiedTime());
+            }
+            return true;
+        }
+
+        // millis since that's the finest granularity every filesystem we'd copy between supports
+        return sourceAttrs.lastModifiedTime().toMillis() == targetAttrs.lastModifiedTime().toMillis();
+    }
 
-        return new Copy.Result(this, null);
+    private void copyTree(Path sourceDir, Path targetDir, Result result) throws IOException {
+        if (this.parallelism > 1) {
+            copyDirectoryParallel(sourceDir, targetDir, result);
+        } else {
+            copyDirectory(sourceDir, targetDir, result);
+        }
     }
 
     private void copyDirectory(Path sourceDir, Path targetDir, Result result) throws IOException {
+        // the gitignore rules of each directory being walked (if respected)
+        final Deque<GitIgnore> ignores = new ArrayDeque<>();
+
         Files.walkFileTree(sourceDir, new SimpleFileVisitor<Path>() {
             @Override
             public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                if (respectGitignore) {
+                    if (ignores.isEmpty()) {
+                        ignores.push(GitIgnore.of(dir));
+                    } else if (ignores.peek().isIgnored(dir.getFileName().toString(), true)) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    } else {
+                        ignores.push(ignores.peek().child(dir));
+                    }
+                }
+
 //                log.trace("preVisitDirectory: dir={}", dir);
                 Path relativeDir = sourceDir.relativize(dir);
 //                log.trace("preVisitDirectory: relativeDir={}", relativeDir);
@@ -268,9 +566,7 @@ public class Copy extends Action<Copy.Result,Void> implements VerbosityMixin<Cop
                 Path resolved = targetDir.resolve(relativeDir);
 //                log.trace("preVisitDirectory: resolved={}", resolved);
                 if (Files.exists(resolved)) {
-                    if (!Copy.this.force) {
-                        throw new BlazeException("Copy target " + resolved + " already exists (and force is disabled)");
-                    }
+                    verifyOverwriteAllowed(resolved);
                 } else {
                     log.debug(" mkdir {}", resolved);
                     Files.createDirectories(resolved);
@@ -283,26 +579,37 @@ public class Copy extends Action<Copy.Result,Void> implements VerbosityMixin<Cop
             @Override
             public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
 //                log.trace("visitFile: file={}", file);
+                if (respectGitignore && ignores.peek().isIgnored(file.getFileName().toString(), attrs.isDirectory())) {
+                    return FileVisitResult.CONTINUE;
+                }
+
                 Path relativeFile = sourceDir.relativize(file);
 //                log.trace("visitFile: relativeFile={}", relativeFile);
                 Path resolved = targetDir.resolve(relativeFile);
 //                log.trace("visitFile: resolved={}", resolved);
                 if (Files.exists(resolved)) {
-                    if (!Copy.this.force) {
-                        throw new BlazeException("Copy target " + resolved + " already exists (and force is disabled)");
+                    if (overwriteFile(file, resolved)) {
+                        result.filesOverwritten++;
+                    } else {
+                        result.filesSkipped++;
                     }
-                    log.debug(" overwrite {} -> {}", file, resolved);
-                    Files.copy(file, resolved, StandardCopyOption.REPLACE_EXISTING);
-                    result.filesOverwritten++;
                 } else {
                     log.debug(" copy {} -> {}", file, resolved);
-                    Files.copy(file, resolved, StandardCopyOption.REPLACE_EXISTING);
+                    copyFile(file, resolved, StandardCopyOption.REPLACE_EXISTING);
                     result.filesCopied++;
                 }
 
                 return FileVisitResult.CONTINUE;
             }
 
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                if (respectGitignore) {
+                    ignores.pop();
+                }
+                return super.postVisitDirectory(dir, e);
+            }
+
             @Override
             public FileVisitResult visitFileFailed(Path file, IOException e) {
                 log.error("Failed while copying directory", e);
@@ -310,4 +617,185 @@ public class Copy extends Action<Copy.Result,Void> implements VerbosityMixin<Cop
             }
         });
     }
-}
\ No newline at end of file
+
+    private void copyDirectoryParallel(Path sourceDir, Path targetDir, Result result) throws IOException {
+        final ParallelCopier copier = new ParallelCopier(sourceDir, targetDir);
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            pool.invoke(copier.new DirectoryTask(sourceDir, true, this.respectGitignore ? GitIgnore.of(sourceDir) : null));
+            // rethrown here (rather than by fork/join) so its the exact exception a sequential copy would throw
+            final Exception failure = copier.failure.get();
+            if (failure instanceof IOException) {
+                throw (IOException)failure;
+            } else if (failure != null) {
+                throw (RuntimeException)failure;
+            }
+        } finally {
+            pool.shutdown();
+            // whatever was done before any failure still counts
+            result.dirsCreated += copier.dirsCreated.get();
+            result.filesCopied += copier.filesCopied.get();
+            result.filesOverwritten += copier.filesOverwritten.get();
+            result.filesSkipped += copier.filesSkipped.get();
+        }
+    }
+
+    /**
+     * Same rules as copyDirectory(), but each directory (and file) is a fork/join task.  Targets are optimistically
+     * created w/o checking if they exist first (saving a stat per file in the common case of a fresh copy).
+     */
+    private class ParallelCopier {
+
+        private final Path sourceDir;
+        private final Path targetDir;
+        private final AtomicInteger dirsCreated = new AtomicInteger();
+        private final AtomicInteger filesCopied = new AtomicInteger();
+        private final AtomicInteger filesOverwritten = new AtomicInteger();
+        private final AtomicInteger filesSkipped = new AtomicInteger();
+        // same as FileVisitResult.TERMINATE in a sequential copy
+        private final AtomicBoolean terminated = new AtomicBoolean();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+        public ParallelCopier(Path sourceDir, Path targetDir) {
+            this.sourceDir = sourceDir;
+            this.targetDir = targetDir;
+        }
+
+        private Path resolve(Path source) {
+            return this.targetDir.resolve(this.sourceDir.relativize(source));
+        }
+
+        private void failed(IOException e) {
+            if (this.terminated.compareAndSet(false, true)) {
+                log.error("Failed while copying directory", e);
+            }
+        }
+
+        private void thrown(Exception e) {
+            // only the first is rethrown, and no more work is started
+            this.failure.compareAndSet(null, e);
+            this.terminated.set(true);
+        }
+
+        private void createDirectory(Path dir, boolean root) throws IOException {
+            final Path resolved = this.resolve(dir);
+            try {
+                if (root) {
+                    // its parents may not exist yet (but everything below it will have its parent created first)
+                    if (Files.exists(resolved)) {
+                        throw new FileAlreadyExistsException(resolved.toString());
+                    }
+                    Files.createDirectories(resolved);
+                } else {
+                    Files.createDirectory(resolved);
+                }
+                log.debug(" mkdir {}", resolved);
+                this.dirsCreated.incrementAndGet();
+            } catch (FileAlreadyExistsException e) {
+                // e.g. a dangling symlink does not "exist", so creating the dir still fails as it would have
+                if (!Files.exists(resolved)) {
+                    throw e;
+                }
+                verifyOverwriteAllowed(resolved);
+            }
+        }
+
+        private void copyFile(Path file) throws IOException {
+            final Path resolved = this.resolve(file);
+            try {
+                Copy.this.copyFile(file, resolved);
+                log.debug(" copy {} -> {}", file, resolved);
+                this.filesCopied.incrementAndGet();
+            } catch (FileAlreadyExistsException e) {
+                if (!Files.exists(resolved)) {
+                    // e.g. a dangling symlink is replaced as a new copy
+                    log.debug(" copy {} -> {}", file, resolved);
+                    Copy.this.copyFile(file, resolved, StandardCopyOption.REPLACE_EXISTING);
+                    this.filesCopied.incrementAndGet();
+                    return;
+                }
+                if (overwriteFile(file, resolved)) {
+                    this.filesOverwritten.incrementAndGet();
+                } else {
+                    this.filesSkipped.incrementAndGet();
+                }
+            }
+        }
+
+        private class DirectoryTask extends RecursiveAction {
+
+            private final Path dir;
+            private final boolean root;
+            // the gitignore rules of the dir (if respected)
+            private final GitIgnore ignore;
+
+            public DirectoryTask(Path dir, boolean root, GitIgnore ignore) {
+                this.dir = dir;
+                this.root = root;
+                this.ignore = ignore;
+            }
+
+            @Override
+            protected void compute() {
+                if (terminated.get()) {
+                    return;
+                }
+                try {
+                    createDirectory(this.dir, this.root);
+
+                    final List<RecursiveAction> tasks = new ArrayList<>();
+                    try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.dir)) {
+                        for (Path entry : entries) {
+                            // just like walking a file tree, symlinks are not followed (so are copied like a file)
+                            final BasicFileAttributes attrs;
+                            try {
+                                attrs = Files.readAttributes(entry, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                            } catch (IOException e) {
+                                failed(e);
+                                return;
+                            }
+                            if (this.ignore != null && this.ignore.isIgnored(entry.getFileName().toString(), attrs.isDirectory())) {
+                                continue;
+                            }
+                            if (attrs.isDirectory()) {
+                                tasks.add(new DirectoryTask(entry, false, this.ignore != null ? this.ignore.child(entry) : null));
+                            } else {
+                                tasks.add(new FileTask(entry));
+                            }
+                        }
+                    } catch (IOException e) {
+                        failed(e);
+                        return;
+                    }
+
+                    invokeAll(tasks);
+                } catch (IOException | RuntimeException e) {
+                    thrown(e);
+                }
+            }
+        }
+
+        private class FileTask extends RecursiveAction {
+
+            private final Path file;
+
+            public FileTask(Path file) {
+                this.file = file;
+            }
+
+            @Override
+            protected void compute() {
+                if (terminated.get()) {
+                    return;
+                }
+                try {
+                    copyFile(this.file);
+                } catch (IOException | RuntimeException e) {
+                    thrown(e);
+                }
+            }
+        }
+
+    }
+
+}
@@ -5,10 +5,14 @@ import com.fizzed.blaze.core.*;
 import com.fizzed.blaze.util.*;
 
 import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static com.fizzed.blaze.util.IntRange.intRange;
 import static java.util.Arrays.asList;
@@ -16,9 +20,27 @@ import static java.util.Arrays.asList;
 abstract public class Exec extends Action<Exec.Result,Integer> implements VerbosityMixin<Exec>, PathsMixin<Exec>, PipeErrorMixin<Exec> {
 
     static public class Result extends com.fizzed.blaze.core.Result<Exec,Integer,Result> {
+
+        private final ProcessUsage usage;
+
         public Result(Exec action, Integer value) {
+            this(action, value, null);
+        }
+
+        public Result(Exec action, Integer value, ProcessUsage usage) {
             super(action, value);
+            this.usage = usage;
         }
+
+        /**
+         * Gets the resources used by the process (wall time, cpu times, peak memory) if recorded.
+         *
+         * @return the usage or null if not recorded (see {@link Exec#recordUsage()}) or not supported by the exec
+         */
+        public ProcessUsage getUsage() {
+            return usage;
+        }
+
     }
 
     protected final VerboseLogger log;
@@ -35,6 +57,7 @@ abstract public class Exec extends Action<Exec.Result,Integer> implements Verbos
     protected long timeoutMillis = -1L;
     protected boolean sudo;
     protected boolean shell;
+    protected boolean recordUsage;
 
     public Exec(Context context) {
         super(context);
@@ -165,6 +188,22 @@ abstract public class Exec extends Action<Exec.Result,Integer> implements Verbos
         return this;
     }
 
+    public Exec recordUsage() {
+        return this.recordUsage(true);
+    }
+
+    /**
+     * Records the resources used by the process (wall time, user/system cpu time and peak memory), which are then
+     * available on {@link Result#getUsage()} and logged at verbose level. Only supported by local execs.
+     *
+     * @param recordUsage true to record the usage
+     * @return this exec
+     */
+    public Exec recordUsage(boolean recordUsage) {
+        this.recordUsage = recordUsage;
+        return this;
+    }
+
     @Override
     public StreamableInput getPipeInput() {
         return this.pipeInput;
@@ -255,4 +294,106 @@ abstract public class Exec extends Action<Exec.Result,Integer> implements Verbos
         return captureOutput;
     }
 
+    /**
+     * Executes the command while capturing its output, but only keeps up to memoryThreshold bytes in memory and
+     * spills the rest to a temp file.  Use {@link CaptureOutput#asInputStream()} or {@link CaptureOutput#lines()} to
+     * stream large outputs and close the capture when done to delete its temp file.
+     *
+     * @param includeStdOut a boolean indicating whether the standard output will also receive a copy of the captured output
+     * @param memoryThreshold the max number of bytes of output to keep in memory
+     * @return the captured output of the executed command encapsulated in a {@link CaptureOutput} instance
+     * @throws BlazeException if an error occurs while executing the command
+     */
+    public CaptureOutput runCaptureOutput(boolean includeStdOut, int memoryThreshold) throws BlazeException {
+        final CaptureOutput captureOutput = Streamables.captureOutput(includeStdOut, memoryThreshold);
+        this.pipeOutput(captureOutput);
+
+        this.run();
+
+        return captureOutput;
+    }
+
+    /**
+     * Executes the command and lazily streams its output as lines of UTF-8 text. See {@link #runLines(Charset, int)}.
+     *
+     * @return a lazily consumed stream of output lines that MUST be closed (e.g. try-with-resources)
+     * @throws BlazeException if an error occurs while executing the command
+     */
+    public Stream<String> runLines() throws BlazeException {
+        return this.runLines(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Executes the command and lazily streams its output as lines of text. See {@link #runLines(Charset, int)}.
+     *
+     * @param charset the charset used to decode the output into lines
+     * @return a lazily consumed stream of output lines that MUST be closed (e.g. try-with-resources)
+     * @throws BlazeException if an error occurs while executing the command
+     */
+    public Stream<String> runLines(Charset charset) throws BlazeException {
+        return this.runLines(charset, 65536);
+    }
+
+    /**
+     * Executes the command in the background and lazily streams its output as lines of text.  Any pipeOutput
+     * previously configured is replaced. The output flows thru a bounded buffer, so a process producing output faster
+     * than it is consumed will simply block (rather than the JVM running out of memory).  Once all lines are consumed
+     * the exit value is verified, and an exception is thrown if it was unexpected.  Closing the stream before all
+     * lines are consumed terminates the process.
+     *
+     * <pre>
+     * try (Stream&lt;String&gt; lines = exec("git", "log", "--oneline").runLines()) {
+     *     lines.filter(l -&gt; l.contains("fix")).forEach(l -&gt; log.info("{}", l));
+     * }
+     * </pre>
+     *
+     * @param charset the charset used to decode the output into lines
+     * @param bufferSize the maximum number of bytes of output buffered before the process is blocked
+     * @return a lazily consumed stream of output lines that MUST be closed (e.g. try-with-resources)
+     * @throws BlazeException if an error occurs while executing the command
+     */
+    public Stream<String> runLines(Charset charset, int bufferSize) throws BlazeException {
+        Objects.requireNonNull(charset, "charset cannot be null");
+
+        return new ExecLines(this, charset, bufferSize)
+            .start()
+            .stream();
+    }
+
+    /**
+     * Starts the command and returns without waiting for it to finish. The returned future is completed once the
+     * process exits (and its output has been drained), or exceptionally if it exited with an unexpected value or
+     * timed out. Local execs do not block a thread per process while waiting, so many processes can be launched and
+     * then awaited together (e.g. with {@link CompletableFuture#allOf(CompletableFuture[])}).
+     *
+     * @return a future of the result
+     * @throws BlazeException if the command could not be started
+     */
+    public CompletableFuture<Exec.Result> runAsync() throws BlazeException {
+        if (this.used) {
+            throw new BlazeException("Can only run once");
+        }
+        this.used = true;
+        return this.doRunAsync();
+    }
+
+    /**
+     * Starts the command asynchronously. By default, this simply runs the blocking {@link #doRun()} on a shared
+     * executor, but implementations able to be notified when a process exits should override it.
+     *
+     * @return a future of the result
+     * @throws BlazeException if the command could not be started
+     */
+    protected CompletableFuture<Exec.Result> doRunAsync() throws BlazeException {
+        return CompletableFuture.supplyAsync(this::doRun, SharedExecutors.executor());
+    }
+
+    /**
+     * Requests that a running exec be terminated, such as when a consumer of its output is no longer interested in
+     * it.  Implementations that can terminate what they are running should override this.  The default does nothing.
+     */
+    protected void terminate() {
+        // do nothing by default
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,142 @@
+package com.fizzed.blaze.system;
+
+import com.fizzed.blaze.core.BlazeException;
+import com.fizzed.blaze.core.WrappedBlazeException;
+import com.fizzed.blaze.util.SpscBytePipe;
+import com.fizzed.blaze.util.Streamables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Runs an exec in a background thread with its output connected to a bounded pipe, which is then lazily consumed as
+ * lines of text.  Since the pipe is bounded, a process producing output faster than it is consumed will block on its
+ * writes rather than being buffered in memory.  Closing before the output is exhausted terminates the process.
+ */
+class ExecLines implements Iterator<String>, Closeable {
+    static private final Logger log = LoggerFactory.getLogger(ExecLines.class);
+
+    private final Exec exec;
+    private final SpscBytePipe pipe;
+    private final BufferedReader reader;
+    private final Thread thread;
+    private volatile Throwable failure;
+    private volatile boolean closed;
+    private String nextLine;
+    private boolean exhausted;
+
+    ExecLines(Exec exec, Charset charset, int bufferSize) {
+        this.exec = exec;
+        this.pipe = new SpscBytePipe(bufferSize);
+        this.reader = new BufferedReader(new InputStreamReader(this.pipe.getInputStream(), charset));
+        this.exec.pipeOutput(Streamables.output(this.pipe.getOutputStream(), "<lines>"));
+        this.thread = new Thread(this::execute, "blaze-exec-lines");
+        this.thread.setDaemon(true);
+    }
+
+    ExecLines start() {
+        this.thread.start();
+        return this;
+    }
+
+    Stream<String> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(this::close);
+    }
+
+    private void execute() {
+        try {
+            this.exec.runResult();
+        } catch (Throwable t) {
+            this.failure = t;
+        } finally {
+            // most execs close their output when done, but an EOF for the reader is critical
+            Streamables.closeQuietly(this.pipe.getOutputStream());
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.nextLine != null) {
+            return true;
+        }
+        if (this.exhausted || this.closed) {
+            return false;
+        }
+
+        try {
+            this.nextLine = this.reader.readLine();
+        } catch (IOException e) {
+            throw new WrappedBlazeException(e);
+        }
+
+        if (this.nextLine == null) {
+            this.exhausted = true;
+            // the exec must be done (e.g. to know if its exit value was acceptable)
+            this.awaitExec();
+            final Throwable t = this.failure;
+            if (t != null) {
+                if (t instanceof BlazeException) {
+                    throw (BlazeException)t;
+                }
+                throw new BlazeException("Unable to cleanly execute process", t);
+            }
+            return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public String next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final String line = this.nextLine;
+        this.nextLine = null;
+        return line;
+    }
+
+    private void awaitExec() {
+        try {
+            this.thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WrappedBlazeException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+
+        if (this.thread.isAlive()) {
+            log.debug("Lines closed before exec finished, will terminate it");
+            // terminate first, then close the pipe so any blocked writer is released
+            this.exec.terminate();
+            Streamables.closeQuietly(this.reader);
+            this.awaitExec();
+            // whatever failure happened is a result of us terminating it
+            if (this.failure != null) {
+                log.trace("Ignoring exec failure after early close", this.failure);
+            }
+        } else {
+            Streamables.closeQuietly(this.reader);
+        }
+    }
+
+}
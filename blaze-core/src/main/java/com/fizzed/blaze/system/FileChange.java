@@ -0,0 +1,55 @@
+package com.fizzed.blaze.system;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * A change to a file (or directory) delivered by a {@link FileWatcher}.
+ */
+public class FileChange {
+
+    public enum Type {
+        CREATED,
+        MODIFIED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Path path;
+
+    public FileChange(Type type, Path path) {
+        this.type = Objects.requireNonNull(type, "type cannot be null");
+        this.path = Objects.requireNonNull(path, "path cannot be null");
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final FileChange other = (FileChange)o;
+        return this.type == other.type && this.path.equals(other.path);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, path);
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + path;
+    }
+
+}
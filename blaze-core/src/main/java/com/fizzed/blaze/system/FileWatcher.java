@@ -0,0 +1,423 @@
+package com.fizzed.blaze.system;
+
+import com.fizzed.blaze.util.GitIgnore;
+import com.fizzed.blaze.util.Globber;
+import com.fizzed.blaze.util.VerboseLogger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A subscription to the changes of the files matched by a globber (see {@link Watch}). Every directory the globber
+ * would descend into is watched (subtrees it would prune, or that git ignores if respected, are never watched) and
+ * new directories are watched as they are created. Events are debounced: they are held until nothing changed for the
+ * debounce period (or at most 10 times as long while changes keep coming), then coalesced so each path appears once
+ * per batch (e.g. a file created then modified is only CREATED, created then deleted is dropped). If the operating
+ * system drops events, the tree is rescanned and the differences delivered instead.
+ *
+ * Batches are either delivered to a listener (on the watcher's thread) or queued to be taken with {@link #take()} or
+ * {@link #poll(long, TimeUnit)}. Must be closed to stop watching.
+ */
+public class FileWatcher implements Closeable {
+
+    static private final WatchEvent.Kind<?>[] KINDS = new WatchEvent.Kind<?>[] {
+        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE };
+    // on mac the jdk polls for changes (every 10 secs by default), so ask for it as often as possible
+    static private final WatchEvent.Modifier[] MODIFIERS = sensitivityModifiers();
+
+    private final VerboseLogger log;
+    private final Globber globber;
+    private final Path root;
+    private final long debounceMillis;
+    private final Consumer<List<FileChange>> listener;
+    private final WatchService watchService;
+    private final Map<WatchKey,Path> keys;
+    private final Map<Path,WatchKey> dirs;
+    // the gitignore rules of each watched directory (if respected)
+    private final Map<Path,GitIgnore> ignores;
+    // the last modified time of each matched path (to know what a deleted directory contained, or diff a rescan)
+    private Map<Path,Long> known;
+    private final LinkedHashMap<Path,FileChange.Type> pending;
+    private long firstPendingAt;
+    private long lastPendingAt;
+    private final BlockingQueue<List<FileChange>> batches;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    FileWatcher(Globber globber, long debounceMillis, Consumer<List<FileChange>> listener, VerboseLogger log) throws IOException {
+        this.log = log;
+        this.globber = globber;
+        this.root = globber.getRoot();
+        this.debounceMillis = debounceMillis;
+        this.listener = listener;
+        this.watchService = this.root.getFileSystem().newWatchService();
+        this.keys = new HashMap<>();
+        this.dirs = new HashMap<>();
+        this.ignores = new HashMap<>();
+        this.known = new HashMap<>();
+        this.pending = new LinkedHashMap<>();
+        this.batches = new LinkedBlockingQueue<>();
+        this.thread = new Thread(this::loop, "blaze-file-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    FileWatcher start() throws IOException {
+        try {
+            // registered before returning, so any change made afterward is seen
+            this.walk(this.root, this.known);
+            log.verbose("Watching {} dir(s) of {}", this.dirs.size(), this.root);
+        } catch (IOException e) {
+            this.close();
+            throw e;
+        }
+        this.thread.start();
+        return this;
+    }
+
+    /**
+     * Takes the next batch of changes, waiting until there is one.
+     *
+     * @return the changes or an empty list if closed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public List<FileChange> take() throws InterruptedException {
+        return this.poll(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Takes the next batch of changes, waiting up to the timeout for one.
+     *
+     * @param timeout the max time to wait
+     * @param unit the unit of the timeout
+     * @return the changes, null if the timeout elapsed, or an empty list if closed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public List<FileChange> poll(long timeout, TimeUnit unit) throws InterruptedException {
+        if (this.closed && this.batches.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<FileChange> batch = this.batches.poll(timeout, unit);
+        if (batch != null && batch.isEmpty()) {
+            // let any other taker know its closed too
+            this.batches.offer(batch);
+        }
+        return batch;
+    }
+
+    public boolean isClosed() {
+        return this.closed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        this.watchService.close();
+        this.batches.offer(Collections.emptyList());
+    }
+
+    private void loop() {
+        try {
+            while (!this.closed) {
+                WatchKey key;
+                if (this.pending.isEmpty()) {
+                    key = this.watchService.take();
+                } else {
+                    key = this.watchService.poll(Math.max(0L, this.flushAt() - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                }
+
+                boolean overflowed = false;
+                while (key != null) {
+                    overflowed |= this.process(key);
+                    key = this.watchService.poll();
+                }
+
+                if (overflowed) {
+                    log.debug("File watcher overflowed (will rescan {})", this.root);
+                    this.rescan();
+                }
+
+                if (!this.pending.isEmpty() && System.currentTimeMillis() >= this.flushAt()) {
+                    this.flush();
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // closed
+        } catch (IOException | RuntimeException e) {
+            log.error("File watcher of {} failed (will stop watching)", this.root, e);
+        } finally {
+            try {
+                this.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    // returns true if events were lost
+    private boolean process(WatchKey key) throws IOException {
+        final Path dir = this.keys.get(key);
+        if (dir == null) {
+            key.cancel();
+            return false;
+        }
+
+        boolean overflowed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                overflowed = true;
+                continue;
+            }
+
+            final Path path = dir.resolve((Path)event.context());
+
+            if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                this.deleted(path);
+                continue;
+            }
+
+            final BasicFileAttributes attrs = readAttributes(path);
+            if (attrs == null || this.ignored(path, attrs.isDirectory())) {
+                // already deleted again (which is its own event)
+                continue;
+            }
+
+            if (attrs.isDirectory() && !this.dirs.containsKey(path) && this.globber.descendsInto(path)) {
+                // anything created in it before it was watched would never have an event
+                final Map<Path,Long> found = new HashMap<>();
+                this.walk(path, found);
+                for (Map.Entry<Path,Long> entry : found.entrySet()) {
+                    if (this.known.put(entry.getKey(), entry.getValue()) == null) {
+                        this.changed(entry.getKey(), FileChange.Type.CREATED);
+                    }
+                }
+            }
+
+            if (this.globber.matches(path, attrs.isDirectory())) {
+                final boolean existed = this.known.put(path, attrs.lastModifiedTime().toMillis()) != null;
+                this.changed(path, event.kind() == StandardWatchEventKinds.ENTRY_CREATE && !existed
+                    ? FileChange.Type.CREATED : FileChange.Type.MODIFIED);
+            }
+        }
+
+        if (!key.reset()) {
+            // no longer accessible (e.g. deleted)
+            this.deleted(dir);
+        }
+
+        return overflowed;
+    }
+
+    private void deleted(Path path) {
+        if (this.known.remove(path) != null) {
+            this.changed(path, FileChange.Type.DELETED);
+        }
+
+        if (!this.dirs.containsKey(path)) {
+            return;
+        }
+
+        // a watched directory, so everything beneath it is gone too
+        for (Iterator<Map.Entry<Path,WatchKey>> it = this.dirs.entrySet().iterator(); it.hasNext(); ) {
+            final Map.Entry<Path,WatchKey> entry = it.next();
+            if (entry.getKey().startsWith(path)) {
+                entry.getValue().cancel();
+                this.keys.remove(entry.getValue());
+                this.ignores.remove(entry.getKey());
+                it.remove();
+            }
+        }
+        for (Iterator<Path> it = this.known.keySet().iterator(); it.hasNext(); ) {
+            final Path p = it.next();
+            if (p.startsWith(path)) {
+                it.remove();
+                this.changed(p, FileChange.Type.DELETED);
+            }
+        }
+    }
+
+    private void rescan() throws IOException {
+        // forget dirs that are gone (walking re-registers the rest, which returns the same keys)
+        for (Iterator<Map.Entry<Path,WatchKey>> it = this.dirs.entrySet().iterator(); it.hasNext(); ) {
+            final Map.Entry<Path,WatchKey> entry = it.next();
+            if (!entry.getValue().isValid() || !Files.isDirectory(entry.getKey(), LinkOption.NOFOLLOW_LINKS)) {
+                entry.getValue().cancel();
+                this.keys.remove(entry.getValue());
+                this.ignores.remove(entry.getKey());
+                it.remove();
+            }
+        }
+
+        final Map<Path,Long> found = new HashMap<>();
+        this.walk(this.root, found);
+
+        for (Map.Entry<Path,Long> entry : found.entrySet()) {
+            final Long lastModified = this.known.remove(entry.getKey());
+            if (lastModified == null) {
+                this.changed(entry.getKey(), FileChange.Type.CREATED);
+            } else if (!lastModified.equals(entry.getValue())) {
+                this.changed(entry.getKey(), FileChange.Type.MODIFIED);
+            }
+        }
+        for (Path path : this.known.keySet()) {
+            this.changed(path, FileChange.Type.DELETED);
+        }
+
+        this.known = found;
+    }
+
+    // watches the dir and every dir beneath it that could match, collecting the paths that match
+    private void walk(Path top, Map<Path,Long> found) throws IOException {
+        final Deque<Path> stack = new ArrayDeque<>();
+        stack.push(top);
+
+        while (!stack.isEmpty()) {
+            final Path dir = stack.pop();
+
+            if (!this.dirs.containsKey(dir)) {
+                final WatchKey key;
+                try {
+                    key = dir.register(this.watchService, KINDS, MODIFIERS);
+                } catch (IOException e) {
+                    // e.g. deleted already or not readable, so it can't be watched
+                    log.debug("Unable to watch {}: {}", dir, e.getMessage());
+                    continue;
+                }
+                this.keys.put(key, dir);
+                this.dirs.put(dir, key);
+            }
+
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+                for (Path path : entries) {
+                    final BasicFileAttributes attrs = readAttributes(path);
+                    if (attrs == null || this.ignored(path, attrs.isDirectory())) {
+                        continue;
+                    }
+                    if (attrs.isDirectory() && this.globber.descendsInto(path)) {
+                        stack.push(path);
+                    }
+                    if (this.globber.matches(path, attrs.isDirectory())) {
+                        found.put(path, attrs.lastModifiedTime().toMillis());
+                    }
+                }
+            } catch (IOException e) {
+                log.debug("Unable to list {}: {}", dir, e.getMessage());
+            }
+        }
+    }
+
+    private boolean ignored(Path path, boolean directory) throws IOException {
+        if (!this.globber.isRespectGitignore()) {
+            return false;
+        }
+        return this.ignoreOf(path.getParent()).isIgnored(path.getFileName().toString(), directory);
+    }
+
+    private GitIgnore ignoreOf(Path dir) throws IOException {
+        GitIgnore ignore = this.ignores.get(dir);
+        if (ignore == null) {
+            ignore = dir.equals(this.root) ? GitIgnore.of(dir) : this.ignoreOf(dir.getParent()).child(dir);
+            this.ignores.put(dir, ignore);
+        }
+        return ignore;
+    }
+
+    // once quiet for the debounce period, but never held longer than 10 of them
+    private long flushAt() {
+        return Math.min(this.lastPendingAt + this.debounceMillis, this.firstPendingAt + this.debounceMillis * 10);
+    }
+
+    private void changed(Path path, FileChange.Type type) {
+        final long now = System.currentTimeMillis();
+        if (this.pending.isEmpty()) {
+            this.firstPendingAt = now;
+        }
+        this.lastPendingAt = now;
+
+        final FileChange.Type coalesced = coalesce(this.pending.get(path), type);
+        if (coalesced == null) {
+            this.pending.remove(path);
+        } else {
+            this.pending.put(path, coalesced);
+        }
+    }
+
+    static FileChange.Type coalesce(FileChange.Type existing, FileChange.Type type) {
+        if (existing == null) {
+            return type;
+        }
+        switch (existing) {
+            case CREATED:
+                // never existed as far as the batch is concerned
+                return type == FileChange.Type.DELETED ? null : FileChange.Type.CREATED;
+            case DELETED:
+                // replaced
+                return type == FileChange.Type.DELETED ? FileChange.Type.DELETED : FileChange.Type.MODIFIED;
+            default:
+                return type == FileChange.Type.DELETED ? FileChange.Type.DELETED : FileChange.Type.MODIFIED;
+        }
+    }
+
+    private void flush() {
+        final List<FileChange> batch = new ArrayList<>(this.pending.size());
+        for (Map.Entry<Path,FileChange.Type> entry : this.pending.entrySet()) {
+            batch.add(new FileChange(entry.getValue(), entry.getKey().normalize()));
+        }
+        this.pending.clear();
+
+        log.debug("File watcher delivering {} change(s)", batch.size());
+
+        if (this.listener == null) {
+            this.batches.offer(batch);
+            return;
+        }
+        try {
+            this.listener.accept(batch);
+        } catch (RuntimeException e) {
+            log.warn("File watcher listener failed", e);
+        }
+    }
+
+    static private BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static private WatchEvent.Modifier[] sensitivityModifiers() {
+        try {
+            final Class<?> type = Class.forName("com.sun.nio.file.SensitivityWatchEventModifier");
+            return new WatchEvent.Modifier[] { (WatchEvent.Modifier)type.getField("HIGH").get(null) };
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return new WatchEvent.Modifier[0];
+        }
+    }
+
+}
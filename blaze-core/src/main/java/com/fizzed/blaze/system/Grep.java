@@ -0,0 +1,625 @@
+package com.fizzed.blaze.system;
+
+import com.fizzed.blaze.Context;
+import com.fizzed.blaze.core.Action;
+import com.fizzed.blaze.core.BlazeException;
+import com.fizzed.blaze.core.PathsMixin;
+import com.fizzed.blaze.core.VerbosityMixin;
+import com.fizzed.blaze.util.ObjectHelper;
+import com.fizzed.blaze.util.SharedExecutors;
+import com.fizzed.blaze.util.VerboseLogger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * grep - search files for lines matching a regex (anywhere in the line, like grep). Directories are searched
+ * recursively and binary files (w/ a NUL byte near their beginning) are skipped. Files are searched concurrently
+ * (see {@link #parallel(int)}), large ones via memory-mapping, and if the regex requires a literal (e.g. "TODO" of
+ * "TODO:\s+\w+") lines are only decoded and matched where that literal is found. Matches are always in the order of
+ * the files, then lines.
+ *
+ * @author joelauer
+ */
+public class Grep extends Action<Grep.Result,List<Grep.Match>> implements PathsMixin<Grep>, VerbosityMixin<Grep> {
+
+    // files at least this large are memory-mapped (mapping is not worth it for small files)
+    static private final long MAP_MIN_SIZE = 1024L * 1024L;
+    static private final long MAP_CHUNK_SIZE = 256L * 1024L * 1024L;
+    // how much of the beginning of a file is checked for a NUL byte
+    static private final int BINARY_CHECK_SIZE = 8192;
+
+    /**
+     * A line of a file that matched.
+     */
+    static public class Match {
+
+        private final Path file;
+        private final long lineNumber;
+        private final String line;
+
+        public Match(Path file, long lineNumber, String line) {
+            this.file = file;
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        /**
+         * @return the line number (starting at 1)
+         */
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        /**
+         * @return the line (w/o its terminator)
+         */
+        public String getLine() {
+            return line;
+        }
+
+        @Override
+        public String toString() {
+            return file + ":" + lineNumber + ":" + line;
+        }
+
+    }
+
+    static public class Result extends com.fizzed.blaze.core.Result<Grep,List<Match>,Result> {
+
+        Result(Grep action, List<Match> value) {
+            super(action, value);
+        }
+
+    }
+
+    private final VerboseLogger log;
+    private final List<Path> paths;
+    private Pattern pattern;
+    private Charset charset;
+    private int parallelism;
+
+    public Grep(Context context) {
+        super(context);
+        this.log = new VerboseLogger(this);
+        this.paths = new ArrayList<>();
+        this.charset = StandardCharsets.UTF_8;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public VerboseLogger getVerboseLogger() {
+        return this.log;
+    }
+
+    @Override
+    public List<Path> getPaths() {
+        return this.paths;
+    }
+
+    public Grep pattern(String pattern) {
+        ObjectHelper.requireNonNull(pattern, "pattern cannot be null");
+        return this.pattern(Pattern.compile(pattern));
+    }
+
+    public Grep pattern(Pattern pattern) {
+        ObjectHelper.requireNonNull(pattern, "pattern cannot be null");
+        this.pattern = pattern;
+        return this;
+    }
+
+    public Grep charset(Charset charset) {
+        ObjectHelper.requireNonNull(charset, "charset cannot be null");
+        this.charset = charset;
+        return this;
+    }
+
+    /**
+     * Searches files concurrently with the number of threads (the number of processors by default).
+     *
+     * @param parallelism the number of threads to search with (1 disables)
+     * @return this grep
+     */
+    public Grep parallel(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    @Override
+    protected Result doRun() throws BlazeException {
+        try (Stream<Match> matches = this.stream()) {
+            return new Result(this, matches.collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Lazily streams the matches as files are searched (only as many files are searched ahead of what is consumed as
+     * there are threads), so short-circuiting operations (e.g. findFirst, limit, anyMatch) stop the search.
+     *
+     * <pre>
+     * try (Stream&lt;Grep.Match&gt; matches = grep("TODO").paths(globber("src/**&#47;*.java")).stream()) {
+     *     matches.forEach(m -&gt; log.info("{}", m));
+     * }
+     * </pre>
+     *
+     * @return a lazily consumed stream of matches that MUST be closed (e.g. try-with-resources)
+     * @throws BlazeException if a file could not be searched
+     */
+    public Stream<Match> stream() throws BlazeException {
+        if (this.pattern == null) {
+            throw new BlazeException("Grep requires a pattern");
+        }
+        if (this.used) {
+            throw new BlazeException("Can only run once");
+        }
+        this.used = true;
+
+        final List<Path> files = new ArrayList<>();
+        for (Path path : this.paths) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> walk = Files.walk(path)) {
+                    walk.filter(Files::isRegularFile).sorted().forEach(files::add);
+                } catch (IOException | UncheckedIOException e) {
+                    throw new BlazeException("Unable to list " + path, e);
+                }
+            } else {
+                files.add(path);
+            }
+        }
+
+        log.verbose("Searching {} file(s) for {}", files.size(), this.pattern);
+
+        final Searcher searcher = new Searcher(this.pattern, this.charset);
+        final SearchIterator iterator = new SearchIterator(files.iterator(), searcher);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(iterator::close);
+    }
+
+    /**
+     * Iterates the matches of each file in order, while searching up to parallelism files ahead.
+     */
+    private class SearchIterator implements Iterator<Match>, Closeable {
+
+        private final Iterator<Path> files;
+        private final Searcher searcher;
+        private final Deque<Future<List<Match>>> searching;
+        private Iterator<Match> matches;
+        private volatile boolean closed;
+
+        public SearchIterator(Iterator<Path> files, Searcher searcher) {
+            this.files = files;
+            this.searcher = searcher;
+            this.searching = new ArrayDeque<>();
+            this.matches = Collections.emptyIterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!this.matches.hasNext()) {
+                if (this.closed) {
+                    return false;
+                }
+                if (parallelism <= 1) {
+                    if (!this.files.hasNext()) {
+                        return false;
+                    }
+                    this.matches = this.search(this.files.next()).iterator();
+                    continue;
+                }
+                while (this.searching.size() < parallelism && this.files.hasNext()) {
+                    final Path file = this.files.next();
+                    this.searching.add(SharedExecutors.executor().submit(() -> this.search(file)));
+                }
+                if (this.searching.isEmpty()) {
+                    return false;
+                }
+                this.matches = this.await(this.searching.remove()).iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public Match next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return this.matches.next();
+        }
+
+        private List<Match> search(Path file) {
+            if (this.closed) {
+                return Collections.emptyList();
+            }
+            try {
+                return this.searcher.search(file);
+            } catch (IOException e) {
+                throw new BlazeException("Unable to grep " + file, e);
+            }
+        }
+
+        private List<Match> await(Future<List<Match>> future) {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                this.close();
+                if (e.getCause() instanceof BlazeException) {
+                    throw (BlazeException)e.getCause();
+                }
+                throw new BlazeException("Unable to grep", e.getCause());
+            } catch (InterruptedException e) {
+                this.close();
+                Thread.currentThread().interrupt();
+                throw new BlazeException("Interrupted while grepping", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            this.closed = true;
+            for (Future<List<Match>> future : this.searching) {
+                future.cancel(false);
+            }
+            this.searching.clear();
+        }
+
+    }
+
+    /**
+     * Searches one file at a time (safe to use concurrently, since each search has its own decoder and matcher).
+     */
+    static class Searcher {
+
+        private final Pattern pattern;
+        private final Charset charset;
+        // a literal (as bytes) every matching line must contain (or null if there isn't one)
+        private final byte[] literal;
+
+        public Searcher(Pattern pattern, Charset charset) {
+            this.pattern = pattern;
+            this.charset = charset;
+            final String literal = requiredLiteral(pattern);
+            this.literal = literal != null && asciiCompatible(charset) ? literal.getBytes(StandardCharsets.US_ASCII) : null;
+        }
+
+        public List<Match> search(Path file) throws IOException {
+            final FileSearch search = new FileSearch(file);
+
+            try (FileChannel channel = FileChannel.open(file)) {
+                final long size = channel.size();
+                if (size == 0) {
+                    return search.matches;
+                }
+
+                if (size < MAP_MIN_SIZE) {
+                    final ByteBuffer buffer = ByteBuffer.allocate((int)size);
+                    while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                        // keep reading
+                    }
+                    ((Buffer)buffer).flip();
+                    if (isBinary(buffer)) {
+                        return search.matches;
+                    }
+                    search.scan(buffer, buffer.limit());
+                    return search.matches;
+                }
+
+                long position = 0;
+                while (position < size) {
+                    final long length = Math.min(MAP_CHUNK_SIZE, size - position);
+                    final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                    if (position == 0 && isBinary(buffer)) {
+                        return search.matches;
+                    }
+                    int end = (int)length;
+                    if (position + length < size) {
+                        // only whole lines, the rest is mapped w/ the next chunk
+                        final int lastNewline = lastIndexOf(buffer, (byte)'\n', end);
+                        if (lastNewline >= 0) {
+                            end = lastNewline + 1;
+                        }
+                    }
+                    search.scan(buffer, end);
+                    position += end;
+                }
+            }
+
+            return search.matches;
+        }
+
+        /**
+         * The state of searching a file.
+         */
+        private class FileSearch {
+
+            private final Path file;
+            private final List<Match> matches;
+            private final Matcher matcher;
+            private final CharsetDecoder decoder;
+            private CharBuffer chars;
+            // the number of lines before the current chunk
+            private long lines;
+
+            public FileSearch(Path file) {
+                this.file = file;
+                this.matches = new ArrayList<>();
+                this.matcher = pattern.matcher("");
+                this.decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            }
+
+            // scans whole lines [0, end) of the buffer
+            public void scan(ByteBuffer buffer, int end) {
+                // newlines are only counted (up to a line being matched) as needed
+                int counted = 0;
+                int from = 0;
+                while (from < end) {
+                    final int lineStart;
+                    final int lineEnd;
+                    if (literal != null) {
+                        final int found = indexOf(buffer, literal, from, end);
+                        if (found < 0) {
+                            break;
+                        }
+                        lineStart = lastIndexOf(buffer, (byte)'\n', found) + 1;
+                        final int newline = indexOf(buffer, (byte)'\n', found + literal.length, end);
+                        lineEnd = newline >= 0 ? newline : end;
+                        this.lines += countNewlines(buffer, counted, lineStart);
+                        counted = lineStart;
+                    } else {
+                        lineStart = from;
+                        final int newline = indexOf(buffer, (byte)'\n', from, end);
+                        lineEnd = newline >= 0 ? newline : end;
+                    }
+
+                    if (this.matches(buffer, lineStart, lineEnd)) {
+                        this.matches.add(new Match(this.file, this.lines + 1, this.chars.toString()));
+                    }
+
+                    if (literal == null) {
+                        this.lines++;
+                    } else if (lineEnd < end) {
+                        // the newline of this line
+                        this.lines++;
+                        counted = lineEnd + 1;
+                    } else {
+                        counted = lineEnd;
+                    }
+                    from = lineEnd + 1;
+                }
+
+                if (literal != null) {
+                    this.lines += countNewlines(buffer, counted, end);
+                }
+            }
+
+            private boolean matches(ByteBuffer buffer, int start, int end) {
+                // w/o the carriage return of a crlf
+                if (end > start && buffer.get(end - 1) == '\r') {
+                    end--;
+                }
+
+                final ByteBuffer bytes = buffer.duplicate();
+                ((Buffer)bytes).limit(end).position(start);
+
+                final int maxChars = (int)Math.ceil((end - start) * (double)this.decoder.maxCharsPerByte());
+                if (this.chars == null || this.chars.capacity() < maxChars) {
+                    this.chars = CharBuffer.allocate(Math.max(maxChars, 256));
+                }
+                ((Buffer)this.chars).clear();
+                this.decoder.reset();
+                this.decoder.decode(bytes, this.chars, true);
+                this.decoder.flush(this.chars);
+                ((Buffer)this.chars).flip();
+
+                return this.matcher.reset(this.chars).find();
+            }
+
+        }
+
+    }
+
+    /**
+     * Finds a literal that every match of a regex must contain (the longest run of plain characters that are not
+     * optional), or null if there isn't one (or the regex is too complex to be sure, e.g. w/ alternations or flags).
+     *
+     * @param pattern the regex
+     * @return the literal or null
+     */
+    static String requiredLiteral(Pattern pattern) {
+        final String regex = pattern.pattern();
+
+        if ((pattern.flags() & Pattern.LITERAL) != 0) {
+            return isAscii(regex) && !regex.isEmpty() ? regex : null;
+        }
+        if ((pattern.flags() & (Pattern.CASE_INSENSITIVE | Pattern.COMMENTS | Pattern.CANON_EQ)) != 0
+                || regex.indexOf('|') >= 0 || regex.contains("(?") || regex.contains("\\Q")) {
+            return null;
+        }
+
+        String longest = "";
+        final StringBuilder run = new StringBuilder();
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            boolean literal;
+            if (c == '\\') {
+                if (i + 1 >= regex.length()) {
+                    return null;
+                }
+                c = regex.charAt(i + 1);
+                if ("xuc0".indexOf(c) >= 0) {
+                    // e.g. \x41 (the digits that follow are not literals)
+                    return null;
+                }
+                // an escaped punctuation char is itself (but e.g. \d or \1 is not)
+                literal = !Character.isLetterOrDigit(c);
+                i += 2;
+            } else if (c == '[' || c == '(' || c == '{') {
+                // a class, group (which may be optional) or quantifier is skipped
+                i = skipBracketed(regex, i);
+                if (i < 0) {
+                    return null;
+                }
+                literal = false;
+            } else {
+                literal = ".)]}*+?^$".indexOf(c) < 0;
+                i++;
+            }
+            literal = literal && c < 128 && c != '\n' && c != '\r';
+
+            // a char that is optional or repeated zero or more times isn't required
+            final char next = i < regex.length() ? regex.charAt(i) : 0;
+            if (literal && (next == '?' || next == '*' || next == '{')) {
+                literal = false;
+            }
+
+            if (literal) {
+                run.append(c);
+                // a repeated char is required, but whatever follows it is not next to it
+                if (next == '+') {
+                    literal = false;
+                }
+            }
+            if (!literal) {
+                if (run.length() > longest.length()) {
+                    longest = run.toString();
+                }
+                run.setLength(0);
+            }
+        }
+        if (run.length() > longest.length()) {
+            longest = run.toString();
+        }
+
+        return longest.isEmpty() ? null : longest;
+    }
+
+    // the index after the closing bracket of the one at the index (or -1 if it's not closed)
+    static private int skipBracketed(String regex, int i) {
+        final char open = regex.charAt(i);
+        final char close = open == '[' ? ']' : (open == '(' ? ')' : '}');
+        int depth = 0;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (open == '[' && c == ']' && (regex.charAt(i - 1) == '[' || (regex.charAt(i - 1) == '^' && regex.charAt(i - 2) == '['))) {
+                // a bracket first in a class is itself (e.g. []a] or [^]a])
+                i++;
+                continue;
+            }
+            if (c == open) {
+                depth++;
+            } else if (c == close && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    static private boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // whether ascii chars are encoded as the same single bytes (so a literal can be searched for as bytes)
+    static private boolean asciiCompatible(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)
+            || charset.equals(StandardCharsets.ISO_8859_1);
+    }
+
+    static private boolean isBinary(ByteBuffer buffer) {
+        final int end = Math.min(buffer.limit(), BINARY_CHECK_SIZE);
+        return indexOf(buffer, (byte)0, 0, end) >= 0;
+    }
+
+    static private int indexOf(ByteBuffer buffer, byte b, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static private int indexOf(ByteBuffer buffer, byte[] bytes, int from, int end) {
+        final byte first = bytes[0];
+        final int last = end - bytes.length;
+        for (int i = from; i <= last; i++) {
+            if (buffer.get(i) != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < bytes.length && buffer.get(i + j) == bytes[j]) {
+                j++;
+            }
+            if (j == bytes.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // the last index of the byte before the index (or -1)
+    static private int lastIndexOf(ByteBuffer buffer, byte b, int before) {
+        for (int i = before - 1; i >= 0; i--) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static private long countNewlines(ByteBuffer buffer, int from, int end) {
+        long count = 0;
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == '\n') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
@@ -29,6 +29,7 @@ public class Head extends LineAction<Head,Head.Result,Deque<String>> implements
     
     @Override
     protected Result doRun() throws BlazeException {
+        // stops reading (and closes the input) as soon as it has its lines, so upstream stops too
         Deque<String> processedLines = LineAction.processLines(this.charset, this, (lines) -> {
             return lineOutput((line) -> {
                 if (lines.size() < this.count) {
@@ -36,7 +37,7 @@ public class Head extends LineAction<Head,Head.Result,Deque<String>> implements
                 }
                 // discard rest...
             });
-        });
+        }, (lines) -> lines.size() >= this.count);
         return new Result(this, processedLines);
     }
     
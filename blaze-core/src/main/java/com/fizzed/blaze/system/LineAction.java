@@ -20,15 +20,18 @@ import com.fizzed.blaze.core.Action;
 import com.fizzed.blaze.core.BlazeException;
 import com.fizzed.blaze.core.PipeMixin;
 import com.fizzed.blaze.core.WrappedBlazeException;
+import com.fizzed.blaze.util.BrokenPipeException;
 import com.fizzed.blaze.util.ObjectHelper;
 import com.fizzed.blaze.util.StreamableInput;
 import com.fizzed.blaze.util.StreamableOutput;
 import com.fizzed.blaze.util.Streamables;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.function.Predicate;
 import org.apache.commons.io.Charsets;
 
 abstract public class LineAction<A extends LineAction, R extends com.fizzed.blaze.core.Result<?,V,R>,V> extends Action<R,V> implements PipeMixin<A> {
@@ -81,6 +84,21 @@ abstract public class LineAction<A extends LineAction, R extends com.fizzed.blaz
     }
 
     static public Deque<String> processLines(final Charset charset, final PipeMixin pipable, final LineOutputSupplier lineOuputSupplier) throws BlazeException {
+        return processLines(charset, pipable, lineOuputSupplier, null);
+    }
+
+    /**
+     * Processes the lines of the pipe input, then writes the processed lines to the pipe output (if any).
+     *
+     * @param charset the charset of the pipe output
+     * @param pipable the action w/ the pipe input and output
+     * @param lineOuputSupplier creates the output the lines are processed by
+     * @param done if not null, checked w/ the lines processed so far as the input is read so it can stop once nothing
+     *      more is needed (e.g. a head w/ all its lines). The input is then closed w/o reading the rest, which stops whatever is writing to it.
+     * @return the processed lines
+     * @throws BlazeException if the input could not be read or output written
+     */
+    static public Deque<String> processLines(final Charset charset, final PipeMixin pipable, final LineOutputSupplier lineOuputSupplier, final Predicate<Deque<String>> done) throws BlazeException {
         ObjectHelper.requireNonNull(pipable.getPipeInput(), "pipeInput is required");
 
         final Deque<String> lines = new ArrayDeque<>();
@@ -88,12 +106,22 @@ abstract public class LineAction<A extends LineAction, R extends com.fizzed.blaz
         final StreamableOutput lineOutput = lineOuputSupplier.create(lines);
         
         try {
-            Streamables.copy(pipable.getPipeInput(), lineOutput);
+            if (done == null) {
+                Streamables.copy(pipable.getPipeInput(), lineOutput);
+            } else {
+                final InputStream input = pipable.getPipeInput().stream();
+                final OutputStream output = lineOutput.stream();
+                final byte[] buffer = new byte[8192];
+                int n;
+                while (!done.test(lines) && (n = input.read(buffer)) >= 0) {
+                    output.write(buffer, 0, n);
+                }
+            }
         } catch (IOException e) {
             throw new WrappedBlazeException(e);
         }
         
-        Streamables.close(pipable.getPipeInput());
+        Streamables.closeStream(pipable.getPipeInput());
         Streamables.close(lineOutput);
         
         if (pipable.getPipeOutput() != null) {
@@ -103,10 +131,12 @@ abstract public class LineAction<A extends LineAction, R extends com.fizzed.blaz
                     String s = line + "\r\n";
                     os.write(s.getBytes(charset));
                 }
+            } catch (BrokenPipeException e) {
+                // whatever reads the output doesn't want anymore (e.g. a head)
             } catch (IOException e) {
                 throw new WrappedBlazeException(e);
             } finally {
-                Streamables.closeQuietly(pipable.getPipeOutput());
+                Streamables.closeStreamQuietly(pipable.getPipeOutput());
             }
         }
         
@@ -0,0 +1,224 @@
+package com.fizzed.blaze.system;
+
+import com.fizzed.blaze.Context;
+import com.fizzed.blaze.core.Action;
+import com.fizzed.blaze.core.BlazeException;
+import com.fizzed.blaze.core.PipeMixin;
+import com.fizzed.blaze.core.WrappedBlazeException;
+import com.fizzed.blaze.util.BrokenPipeException;
+import com.fizzed.blaze.util.LineOutputStream;
+import com.fizzed.blaze.util.ObjectHelper;
+import com.fizzed.blaze.util.StreamableInput;
+import com.fizzed.blaze.util.StreamableOutput;
+import com.fizzed.blaze.util.Streamables;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Transforms lines as they stream from its input to its output (like a sed, grep -v or awk), so it can sit between
+ * the execs of a pipeline. Each line goes through the filter, map and flatMap stages in the order they were added and
+ * is written out right away, so only the line being transformed is held in memory. Lines are written w/ a '\n' (see
+ * {@link #lineSeparator(String)}).
+ *
+ * <pre>
+ * pipeline()
+ *     .add(exec("git", "log", "--oneline"))
+ *     .add(lineTransform()
+ *         .filter(line -&gt; !line.contains("Merge"))
+ *         .map(line -&gt; line.substring(8)))
+ *     .add(exec("sort"))
+ *     .run();
+ * </pre>
+ *
+ * The result is the number of lines that made it through every stage.
+ */
+public class LineTransform extends Action<LineTransform.Result,Long> implements PipeMixin<LineTransform> {
+
+    /**
+     * A stage of the transform, passing on zero or more lines for each line.
+     */
+    private interface Stage {
+        void apply(String line, Consumer<String> next);
+    }
+
+    static public class Result extends com.fizzed.blaze.core.Result<LineTransform,Long,Result> {
+
+        Result(LineTransform action, Long value) {
+            super(action, value);
+        }
+
+    }
+
+    private final List<Stage> stages;
+    private Charset charset;
+    private String lineSeparator;
+    private StreamableInput pipeInput;
+    private StreamableOutput pipeOutput;
+
+    public LineTransform(Context context) {
+        super(context);
+        this.stages = new ArrayList<>();
+        this.charset = StandardCharsets.UTF_8;
+        this.lineSeparator = "\n";
+    }
+
+    public LineTransform charset(Charset charset) {
+        ObjectHelper.requireNonNull(charset, "charset cannot be null");
+        this.charset = charset;
+        return this;
+    }
+
+    public LineTransform lineSeparator(String lineSeparator) {
+        ObjectHelper.requireNonNull(lineSeparator, "lineSeparator cannot be null");
+        this.lineSeparator = lineSeparator;
+        return this;
+    }
+
+    @Override
+    public StreamableInput getPipeInput() {
+        return this.pipeInput;
+    }
+
+    @Override
+    public LineTransform pipeInput(StreamableInput pipeInput) {
+        this.pipeInput = pipeInput;
+        return this;
+    }
+
+    @Override
+    public StreamableOutput getPipeOutput() {
+        return this.pipeOutput;
+    }
+
+    @Override
+    public LineTransform pipeOutput(StreamableOutput pipeOutput) {
+        this.pipeOutput = pipeOutput;
+        return this;
+    }
+
+    /**
+     * Keeps only the lines matching the predicate.
+     *
+     * @param predicate the predicate
+     * @return this transform
+     */
+    public LineTransform filter(Predicate<String> predicate) {
+        ObjectHelper.requireNonNull(predicate, "predicate cannot be null");
+        this.stages.add((line, next) -> {
+            if (predicate.test(line)) {
+                next.accept(line);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Replaces each line (a null drops it).
+     *
+     * @param mapper the mapper
+     * @return this transform
+     */
+    public LineTransform map(Function<String,String> mapper) {
+        ObjectHelper.requireNonNull(mapper, "mapper cannot be null");
+        this.stages.add((line, next) -> {
+            final String mapped = mapper.apply(line);
+            if (mapped != null) {
+                next.accept(mapped);
+            }
+        });
+        return this;
+    }
+
+    /**
+     * Replaces each line w/ zero or more lines (a null drops it).
+     *
+     * @param mapper the mapper
+     * @return this transform
+     */
+    public LineTransform flatMap(Function<String,Stream<String>> mapper) {
+        ObjectHelper.requireNonNull(mapper, "mapper cannot be null");
+        this.stages.add((line, next) -> {
+            try (Stream<String> mapped = mapper.apply(line)) {
+                if (mapped != null) {
+                    mapped.forEachOrdered(next);
+                }
+            }
+        });
+        return this;
+    }
+
+    @Override
+    protected Result doRun() throws BlazeException {
+        ObjectHelper.requireNonNull(this.pipeInput, "pipeInput is required");
+
+        final OutputStream output = this.pipeOutput != null ? new BufferedOutputStream(this.pipeOutput.stream()) : null;
+        final long[] written = new long[1];
+
+        // the stages chained from the last (which writes the line) to the first
+        Consumer<String> chain = (line) -> {
+            written[0]++;
+            if (output != null) {
+                try {
+                    output.write((line + this.lineSeparator).getBytes(this.charset));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        for (int i = this.stages.size() - 1; i >= 0; i--) {
+            final Stage stage = this.stages.get(i);
+            final Consumer<String> next = chain;
+            chain = (line) -> stage.apply(line, next);
+        }
+
+        final LineOutputStream<LineOutputStream.Processor> lineOutput = new LineOutputStream<>(chain::accept, this.charset);
+
+        try {
+            final InputStream input = this.pipeInput.stream();
+            final byte[] buffer = new byte[8192];
+            int n;
+            while ((n = input.read(buffer)) >= 0) {
+                lineOutput.write(buffer, 0, n);
+                // whatever was transformed is passed on before waiting for more input
+                if (output != null) {
+                    output.flush();
+                }
+            }
+            lineOutput.close();
+            if (output != null) {
+                output.flush();
+            }
+        } catch (UncheckedIOException e) {
+            this.failed(e.getCause());
+        } catch (IOException e) {
+            this.failed(e);
+        } finally {
+            // if the output is broken, closing the input stops whatever is writing to it too
+            Streamables.closeStreamQuietly(this.pipeInput);
+            Streamables.closeStreamQuietly(this.pipeOutput);
+        }
+
+        return new Result(this, written[0]);
+    }
+
+    private void failed(IOException e) {
+        if (e instanceof BrokenPipeException) {
+            // whatever reads the output doesn't want anymore (e.g. a head)
+            return;
+        }
+        throw new WrappedBlazeException(e);
+    }
+
+}
@@ -20,7 +20,7 @@ import com.fizzed.blaze.core.Action;
 import com.fizzed.blaze.core.BlazeException;
 import com.fizzed.blaze.core.PipeMixin;
 import com.fizzed.blaze.core.WrappedBlazeException;
-import com.fizzed.blaze.util.BytePipe;
+import com.fizzed.blaze.util.SpscBytePipe;
 import com.fizzed.blaze.util.StreamableInput;
 import com.fizzed.blaze.util.StreamableOutput;
 import com.fizzed.blaze.util.Streamables;
@@ -39,10 +39,26 @@ public class Pipeline extends Action<Pipeline.Result,Void> implements PipeMixin<
     private StreamableInput pipeInput;
     private StreamableOutput pipeOutput;
     private final List<PipeMixin> pipables;
+    private int pipeCapacity;
     
     public Pipeline(Context context) {
         super(context);
         this.pipables = new ArrayList<>();
+        this.pipeCapacity = SpscBytePipe.DEFAULT_CAPACITY;
+    }
+
+    /**
+     * Sets the capacity (in bytes) of the pipes connecting actions added after this call.
+     *
+     * @param pipeCapacity the capacity of the pipe buffer
+     * @return this pipeline
+     */
+    public Pipeline pipeCapacity(int pipeCapacity) {
+        if (pipeCapacity <= 0) {
+            throw new IllegalArgumentException("pipeCapacity must be > 0");
+        }
+        this.pipeCapacity = pipeCapacity;
+        return this;
     }
     
     @Override
@@ -78,7 +94,7 @@ public class Pipeline extends Action<Pipeline.Result,Void> implements PipeMixin<
             // connect output to input
             log.debug("Connecting {} output -> {} input", lastPipable.getClass(), pipable.getClass());
                 
-            BytePipe pipe = new BytePipe();
+            SpscBytePipe pipe = new SpscBytePipe(this.pipeCapacity);
             lastPipable.pipeOutput(Streamables.output(pipe.getOutputStream(), "<pipe>"));
             pipable.pipeInput(Streamables.input(pipe.getInputStream(), "<pipe>"));
         }
@@ -116,8 +132,8 @@ public class Pipeline extends Action<Pipeline.Result,Void> implements PipeMixin<
                 
                 // closing input and output after action is done is critical
                 // for pipeline to continue processing correctly and EOF's triggered
-                Streamables.closeQuietly(pipable.getPipeInput());
-                Streamables.closeQuietly(pipable.getPipeOutput());
+                Streamables.closeStreamQuietly(pipable.getPipeInput());
+                Streamables.closeStreamQuietly(pipable.getPipeOutput());
             }));
         });
         
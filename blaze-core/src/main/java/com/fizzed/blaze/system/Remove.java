@@ -19,13 +19,12 @@ import com.fizzed.blaze.Context;
 import com.fizzed.blaze.core.*;
 
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import com.fizzed.blaze.util.VerboseLogger;
 
@@ -42,6 +41,8 @@ public class Remove extends Action<Remove.Result,Void> implements PathsMixin<Rem
     final private List<Path> paths;
     private boolean force;
     private boolean recursive;
+    private int parallelism;
+    private boolean background;
     
     public Remove(Context context) {
         super(context);
@@ -49,6 +50,8 @@ public class Remove extends Action<Remove.Result,Void> implements PathsMixin<Rem
         this.paths = new ArrayList<>();
         this.force = false;
         this.recursive = false;
+        this.parallelism = 1;
+        this.background = false;
     }
 
     @Override
@@ -81,8 +84,48 @@ public class Remove extends Action<Remove.Result,Void> implements PathsMixin<Rem
         return this;
     }
 
+    public Remove parallel() {
+        return this.parallel(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Removes directories (when recursive) concurrently with the number of threads. Each directory is its own task
+     * and files are deleted in batches, which can be significantly faster for very large trees on filesystems
+     * (e.g. SSDs, network filesystems) where deletes are not serialized anyway.
+     *
+     * @param parallelism the number of threads to remove with (1 disables)
+     * @return this remove
+     */
+    public Remove parallel(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public Remove background() {
+        return this.background(true);
+    }
+
+    /**
+     * Removes directories (when recursive) in the background. Each directory is first atomically renamed to a hidden
+     * sibling (e.g. .build.blaze-removing-1a2b3c4d) so its path is free to be re-used as soon as this returns, then
+     * deleted asynchronously. See {@link Result#getBackgroundFuture()} to wait on it. If the JVM exits before the
+     * deletion finishes, the rest of it is handed off to the operating system. If the rename is not possible (e.g. the
+     * filesystem does not support it) the directory is simply removed before this returns.
+     *
+     * @param background true to remove in the background
+     * @return this remove
+     */
+    public Remove background(boolean background) {
+        this.background = background;
+        return this;
+    }
+
     @Override
     protected Result doRun() throws BlazeException {
+        final List<CompletableFuture<Void>> backgroundFutures = new ArrayList<>();
         try {
             for (Path path : paths) {
                 log.verbose("Deleting {}", path);
@@ -99,41 +142,50 @@ public class Remove extends Action<Remove.Result,Void> implements PathsMixin<Rem
                         throw new DirectoryNotEmptyException("Directory " + path + " is not empty (and recursive is disabled)");
                     }
 
+                    Files.delete(path);
+                } else if (!Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                    // a file or symlink (which is never followed)
+                    log.debug(" rm {}", path);
                     Files.delete(path);
                 } else {
-                    Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
-                        @Override
-                        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-                            log.debug(" rm {}", file);
-                            Files.delete(file);
-                            return FileVisitResult.CONTINUE;
+                    if (this.background) {
+                        try {
+                            backgroundFutures.add(BackgroundRemoval.INSTANCE.submit(path, this.parallelism, log));
+                            continue;
+                        } catch (IOException e) {
+                            log.debug("Unable to rename {} for background removal (will remove now): {}", path, e.getMessage());
                         }
+                    }
 
-                        @Override
-                        public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
-                            if (e == null) {
-                                log.debug(" rmdir {}", dir);
-                                Files.delete(dir);
-                                return FileVisitResult.CONTINUE;
-                            } else {
-                                // directory iteration failed
-                                throw e;
-                            }
-                        }
-                    });
+                    new TreeRemover(log, this.parallelism).remove(path);
                 }
             }
         } catch (IOException e) {
             throw new BlazeException("Unable to remove", e);
         }
-        
-        return new Result(this, null);
+
+        final CompletableFuture<Void> backgroundFuture = CompletableFuture.allOf(
+            backgroundFutures.toArray(new CompletableFuture<?>[0]));
+
+        return new Result(this, null, backgroundFuture);
     }
 
     static public class Result extends com.fizzed.blaze.core.Result<Remove,Void,Result> {
+
+        private final CompletableFuture<Void> backgroundFuture;
         
-        Result(Remove action, Void value) {
+        Result(Remove action, Void value, CompletableFuture<Void> backgroundFuture) {
             super(action, value);
+            this.backgroundFuture = backgroundFuture;
+        }
+
+        /**
+         * Gets a future completed once all directories being removed in the background are removed.
+         *
+         * @return the future (already completed if nothing is being removed in the background)
+         */
+        public CompletableFuture<Void> getBackgroundFuture() {
+            return backgroundFuture;
         }
         
     }
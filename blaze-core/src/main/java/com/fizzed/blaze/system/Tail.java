@@ -17,17 +17,29 @@ package com.fizzed.blaze.system;
 
 import com.fizzed.blaze.Context;
 import com.fizzed.blaze.core.BlazeException;
+import com.fizzed.blaze.util.IoHelper;
+import com.fizzed.blaze.util.ObjectHelper;
+import com.fizzed.blaze.util.Streamables;
 import static com.fizzed.blaze.util.Streamables.lineOutput;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.util.Deque;
+import java.util.stream.Stream;
 
 public class Tail extends LineAction<Tail,Tail.Result,Deque<String>> {
     
+    static private final int BLOCK_SIZE = 65536;
+    
     public Tail(Context context) {
         super(context);
     }
     
     @Override
     protected Result doRun() throws BlazeException {
+        this.seekLastLines();
         Deque<String> processedLines = LineAction.processLines(this.charset, this, (lines) -> {
             return lineOutput((line) -> {
                 if (lines.size() >= this.count) {
@@ -39,6 +51,121 @@ public class Tail extends LineAction<Tail,Tail.Result,Deque<String>> {
         return new Tail.Result(this, processedLines);
     }
     
+    /**
+     * Follows the input file (like a tail -f), lazily streaming its last lines and then each line as it is appended,
+     * until the stream is closed. A truncated file is followed from its beginning again, and a replaced file (e.g. a
+     * rotated log) is followed once the rest of the old one is read.
+     * 
+     * <pre>
+     * try (Stream&lt;String&gt; lines = tail(10).pipeInput(Paths.get("app.log")).follow()) {
+     *     lines.filter(l -&gt; l.contains("ERROR")).forEach(l -&gt; log.info("{}", l));
+     * }
+     * </pre>
+     * 
+     * @return a lazily consumed stream of lines that MUST be closed (e.g. try-with-resources)
+     * @throws BlazeException if the input is not a file or could not be read
+     */
+    public Stream<String> follow() throws BlazeException {
+        ObjectHelper.requireNonNull(this.pipeInput, "pipeInput is required");
+        if (this.used) {
+            throw new BlazeException("Can only run once");
+        }
+        this.used = true;
+        
+        final Path path = this.pipeInput.path();
+        if (path == null) {
+            throw new BlazeException("Tail can only follow a file (pipeInput must be a path or file)");
+        }
+        Streamables.closeStream(this.pipeInput);
+        
+        try {
+            final long position;
+            try (FileChannel channel = FileChannel.open(path)) {
+                position = lastLinesPosition(channel, 0L, channel.size(), this.count);
+            }
+            return new TailFollower(path, this.charset, position).stream();
+        } catch (IOException e) {
+            throw new BlazeException("Unable to follow " + path, e);
+        }
+    }
+    
+    /**
+     * If the input is a file, skips everything before its last lines (w/o reading it), so only they are read rather
+     * than the whole file.
+     */
+    private void seekLastLines() {
+        if (this.pipeInput == null) {
+            return;
+        }
+        final FileChannel channel = IoHelper.fileChannel(this.pipeInput.stream());
+        if (channel == null) {
+            return;
+        }
+        try {
+            final long position = channel.position();
+            final long size = channel.size();
+            // e.g. a pipe or special file w/o a size, so just read it
+            if (size > position) {
+                channel.position(lastLinesPosition(channel, position, size, this.count));
+            }
+        } catch (IOException e) {
+            // not seekable, so just read it
+        }
+    }
+    
+    /**
+     * Finds where the last lines of a file start by reading it backwards in blocks. Lines end w/ the same terminators
+     * as a {@link com.fizzed.blaze.util.LineOutputStream} ('\n', '\r' or '\r\n'), and a file that does not end
+     * w/ a terminator has a last line anyway.
+     * 
+     * @param channel the channel of the file
+     * @param from the position to search back to
+     * @param size the size of the file
+     * @param count the number of lines
+     * @return the position of the first of the last lines (or from if the file has fewer lines)
+     * @throws IOException if the file could not be read
+     */
+    static long lastLinesPosition(FileChannel channel, long from, long size, int count) throws IOException {
+        if (count <= 0) {
+            return size;
+        }
+        
+        final ByteBuffer buffer = ByteBuffer.allocate((int)Math.min(BLOCK_SIZE, Math.max(size - from, 1L)));
+        final byte[] bytes = buffer.array();
+        int found = 0;
+        // the byte after the one being checked (to know if a '\r' is part of a '\r\n')
+        byte next = 0;
+        long end = size;
+        
+        while (end > from) {
+            final long start = Math.max(from, end - bytes.length);
+            ((Buffer)buffer).clear();
+            ((Buffer)buffer).limit((int)(end - start));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, start + buffer.position()) < 0) {
+                    // truncated while reading, so just read it all
+                    return from;
+                }
+            }
+            
+            for (int i = (int)(end - start) - 1; i >= 0; i--) {
+                final byte b = bytes[i];
+                final long position = start + i;
+                // a terminator at the very end only ends the last line
+                if ((b == '\n' || (b == '\r' && next != '\n')) && position != size - 1) {
+                    if (++found == count) {
+                        return position + 1;
+                    }
+                }
+                next = b;
+            }
+            
+            end = start;
+        }
+        
+        return from;
+    }
+    
     static public class Result extends com.fizzed.blaze.core.Result<Tail,Deque<String>,Result> {
         
         Result(Tail action, Deque<String> value) {
@@ -0,0 +1,194 @@
+package com.fizzed.blaze.system;
+
+import com.fizzed.blaze.core.WrappedBlazeException;
+import com.fizzed.blaze.util.LineOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Follows a file (like a tail -f), yielding each line as it is appended. Waits for changes w/ a watch service on the
+ * file's directory, but also checks at least once a second (since events can be missed or, on some platforms, are
+ * polled anyway). If the file is truncated it's read again from the beginning, and if it's replaced (e.g. a log
+ * rotated by renaming it) the rest of the old file is read before following the new one from its beginning.
+ */
+class TailFollower implements Iterator<String>, Closeable {
+    static private final Logger log = LoggerFactory.getLogger(TailFollower.class);
+
+    static private final long CHECK_MILLIS = 1000L;
+
+    private final Path path;
+    private final Charset charset;
+    private final ByteBuffer buffer;
+    private final Deque<String> lines;
+    private LineOutputStream<LineOutputStream.Processor> lineOutput;
+    private FileChannel channel;
+    private Object fileKey;
+    private WatchService watchService;
+    private volatile boolean closed;
+
+    TailFollower(Path path, Charset charset, long position) throws IOException {
+        this.path = path;
+        this.charset = charset;
+        this.buffer = ByteBuffer.allocate(65536);
+        this.lines = new ArrayDeque<>();
+        this.open(position);
+        try {
+            final Path dir = path.toAbsolutePath().getParent();
+            this.watchService = dir.getFileSystem().newWatchService();
+            dir.register(this.watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException | UnsupportedOperationException e) {
+            // still checks periodically
+            log.debug("Unable to watch {} (will only check it periodically): {}", path, e.getMessage());
+            this.watchService = null;
+        }
+    }
+
+    Stream<String> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(this::close);
+    }
+
+    private void open(long position) throws IOException {
+        this.channel = FileChannel.open(this.path);
+        this.channel.position(position);
+        this.fileKey = Files.readAttributes(this.path, BasicFileAttributes.class).fileKey();
+        this.lineOutput = new LineOutputStream<>(this.lines::add, this.charset);
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (this.lines.isEmpty()) {
+                if (this.closed) {
+                    return false;
+                }
+                if (this.read() > 0) {
+                    continue;
+                }
+                if (this.reopened()) {
+                    continue;
+                }
+                this.await();
+            }
+            return true;
+        } catch (ClosedWatchServiceException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.close();
+            return false;
+        } catch (IOException e) {
+            if (this.closed) {
+                return false;
+            }
+            throw new WrappedBlazeException(e);
+        }
+    }
+
+    @Override
+    public String next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return this.lines.remove();
+    }
+
+    // reads whatever was appended (w/ only complete lines yielded), returning the number of bytes read
+    private int read() throws IOException {
+        ((Buffer)this.buffer).clear();
+        final int n = this.channel.read(this.buffer);
+        if (n > 0) {
+            this.lineOutput.write(this.buffer.array(), 0, n);
+        }
+        return Math.max(n, 0);
+    }
+
+    // whether the file was truncated or replaced (and is now read from its beginning)
+    private boolean reopened() throws IOException {
+        final BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(this.path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            // e.g. between a log being rotated and the new one created
+            return false;
+        }
+
+        if (attrs.fileKey() != null && !Objects.equals(attrs.fileKey(), this.fileKey)) {
+            log.debug("Followed file {} was replaced (will follow the new file)", this.path);
+            this.flushPartialLine();
+            this.channel.close();
+            this.open(0L);
+            return true;
+        }
+
+        if (attrs.size() < this.channel.position()) {
+            log.debug("Followed file {} was truncated (will follow from its beginning)", this.path);
+            this.flushPartialLine();
+            this.channel.position(0L);
+            this.lineOutput = new LineOutputStream<>(this.lines::add, this.charset);
+            return true;
+        }
+
+        return false;
+    }
+
+    private void flushPartialLine() throws IOException {
+        // the last line of a file that is done being written to
+        this.lineOutput.close();
+    }
+
+    private void await() throws IOException, InterruptedException {
+        if (this.watchService == null) {
+            Thread.sleep(CHECK_MILLIS);
+            return;
+        }
+        final WatchKey key = this.watchService.poll(CHECK_MILLIS, TimeUnit.MILLISECONDS);
+        if (key != null) {
+            // whatever changed, the file is simply checked again
+            key.pollEvents();
+            key.reset();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            if (this.watchService != null) {
+                this.watchService.close();
+            }
+            this.channel.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+}
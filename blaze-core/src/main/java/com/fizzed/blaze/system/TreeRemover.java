@@ -0,0 +1,156 @@
+package com.fizzed.blaze.system;
+
+import com.fizzed.blaze.util.VerboseLogger;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Deletes a directory tree, either by walking it or with fork/join, where each directory is a task and its files are
+ * deleted in batches (so even a single huge directory is deleted concurrently). Symlinks are never followed.
+ */
+class TreeRemover {
+
+    static private final int FILE_BATCH_SIZE = 256;
+
+    private final VerboseLogger log;
+    private final int parallelism;
+    private final AtomicReference<Exception> failure;
+
+    public TreeRemover(VerboseLogger log, int parallelism) {
+        this.log = log;
+        this.parallelism = parallelism;
+        this.failure = new AtomicReference<>();
+    }
+
+    public void remove(Path dir) throws IOException {
+        if (this.parallelism <= 1) {
+            this.walk(dir);
+            return;
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        try {
+            pool.invoke(new DirectoryTask(dir));
+        } finally {
+            pool.shutdown();
+        }
+
+        // rethrown here (rather than by fork/join) so its the exact exception a walk would throw
+        final Exception e = this.failure.get();
+        if (e instanceof IOException) {
+            throw (IOException)e;
+        } else if (e != null) {
+            throw (RuntimeException)e;
+        }
+    }
+
+    private void walk(Path dir) throws IOException {
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                log.debug(" rm {}", file);
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                if (e == null) {
+                    log.debug(" rmdir {}", dir);
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                } else {
+                    // directory iteration failed
+                    throw e;
+                }
+            }
+        });
+    }
+
+    private void failed(Exception e) {
+        // only the first is rethrown, and no more work is started
+        this.failure.compareAndSet(null, e);
+    }
+
+    private class DirectoryTask extends RecursiveAction {
+
+        private final Path dir;
+
+        public DirectoryTask(Path dir) {
+            this.dir = dir;
+        }
+
+        @Override
+        protected void compute() {
+            if (failure.get() != null) {
+                return;
+            }
+            try {
+                final List<RecursiveAction> tasks = new ArrayList<>();
+                List<Path> files = new ArrayList<>();
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.dir)) {
+                    for (Path entry : entries) {
+                        if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                            tasks.add(new DirectoryTask(entry));
+                        } else {
+                            files.add(entry);
+                            if (files.size() >= FILE_BATCH_SIZE) {
+                                tasks.add(new FilesTask(files));
+                                files = new ArrayList<>();
+                            }
+                        }
+                    }
+                }
+                if (!files.isEmpty()) {
+                    tasks.add(new FilesTask(files));
+                }
+
+                invokeAll(tasks);
+
+                if (failure.get() == null) {
+                    log.debug(" rmdir {}", this.dir);
+                    Files.delete(this.dir);
+                }
+            } catch (IOException | RuntimeException e) {
+                failed(e);
+            }
+        }
+    }
+
+    private class FilesTask extends RecursiveAction {
+
+        private final List<Path> files;
+
+        public FilesTask(List<Path> files) {
+            this.files = files;
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                for (Path file : this.files) {
+                    if (failure.get() != null) {
+                        return;
+                    }
+                    log.debug(" rm {}", file);
+                    Files.delete(file);
+                }
+            } catch (IOException | RuntimeException e) {
+                failed(e);
+            }
+        }
+    }
+
+}
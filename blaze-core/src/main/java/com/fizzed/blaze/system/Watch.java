@@ -0,0 +1,92 @@
+package com.fizzed.blaze.system;
+
+import com.fizzed.blaze.Context;
+import com.fizzed.blaze.core.Action;
+import com.fizzed.blaze.core.BlazeException;
+import com.fizzed.blaze.core.VerbosityMixin;
+import com.fizzed.blaze.util.Globber;
+import com.fizzed.blaze.util.ObjectHelper;
+import com.fizzed.blaze.util.VerboseLogger;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * watch - subscribe to the changes of the files matched by a globber (e.g. to rebuild or sync on save), rather than
+ * polling a scan in a loop. See {@link FileWatcher}.
+ */
+public class Watch extends Action<Watch.Result,FileWatcher> implements VerbosityMixin<Watch> {
+
+    static public class Result extends com.fizzed.blaze.core.Result<Watch,FileWatcher,Result> {
+
+        Result(Watch action, FileWatcher value) {
+            super(action, value);
+        }
+
+    }
+
+    private final VerboseLogger log;
+    private Globber globber;
+    private long debounceMillis;
+    private Consumer<List<FileChange>> listener;
+
+    public Watch(Context context) {
+        super(context);
+        this.log = new VerboseLogger(this);
+        this.debounceMillis = 100L;
+    }
+
+    @Override
+    public VerboseLogger getVerboseLogger() {
+        return this.log;
+    }
+
+    public Watch globber(Globber globber) {
+        ObjectHelper.requireNonNull(globber, "globber cannot be null");
+        this.globber = globber;
+        return this;
+    }
+
+    /**
+     * Holds changes until nothing changed for this long (100ms by default), so e.g. a build writing many files is
+     * delivered as one batch. While changes keep coming, a batch is held at most 10 times as long.
+     *
+     * @param debounceMillis the quiet period in millis
+     * @return this watch
+     */
+    public Watch debounce(long debounceMillis) {
+        if (debounceMillis < 0) {
+            throw new IllegalArgumentException("debounce must be >= 0");
+        }
+        this.debounceMillis = debounceMillis;
+        return this;
+    }
+
+    /**
+     * Delivers each batch of changes to the listener (on the watcher's thread) rather than queueing them to be taken
+     * from the watcher.
+     *
+     * @param listener the listener
+     * @return this watch
+     */
+    public Watch onChange(Consumer<List<FileChange>> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    @Override
+    protected Result doRun() throws BlazeException {
+        if (this.globber == null) {
+            throw new BlazeException("Watch requires a globber");
+        }
+
+        try {
+            final FileWatcher watcher = new FileWatcher(this.globber, this.debounceMillis, this.listener, this.log);
+            return new Result(this, watcher.start());
+        } catch (IOException e) {
+            throw new BlazeException("Unable to watch " + this.globber.getRoot(), e);
+        }
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.fizzed.blaze.util;
+
+import java.io.IOException;
+
+/**
+ * Thrown when writing to a pipe whose reader closed it (e.g. a head that already has all the lines it wants), which
+ * is how a writer knows to stop producing output (much like a SIGPIPE).
+ */
+public class BrokenPipeException extends IOException {
+
+    public BrokenPipeException(String message) {
+        super(message);
+    }
+
+}
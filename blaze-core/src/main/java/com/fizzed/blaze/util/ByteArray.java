@@ -68,9 +68,9 @@ public class ByteArray {
     }
     
     public void ensureSize(int size) {
-        int delta = size - this.remaining();
-        if (delta > 0) {
-            byte[] newBuffer = new byte[size];
+        if (size > this.buffer.length) {
+            // grow geometrically so repeated appends are amortized
+            byte[] newBuffer = new byte[Math.max(size, this.buffer.length * 2)];
             System.arraycopy(this.buffer, 0, newBuffer, 0, this.length);
             this.buffer = newBuffer;
         }
@@ -86,7 +86,7 @@ public class BytePipe {
             lock.lock();
             try {
                 if (inputClosed.get()) {
-                    throw new IOException("Pipe input is closed");
+                    throw new BrokenPipeException("Pipe input is closed");
                 }
 
                 while (length > 0) {
@@ -94,7 +94,7 @@ public class BytePipe {
                     while (buffer.getFree() <= 0) {
                         // verify once again if the input was closed
                         if (inputClosed.get()) {
-                            throw new IOException("Pipe input is closed");
+                            throw new BrokenPipeException("Pipe input is closed");
                         }
                         
                         //log.debug("waiting for read so {} bytes can be written", length);
@@ -18,18 +18,27 @@ package com.fizzed.blaze.util;
 import com.fizzed.blaze.core.WrappedBlazeException;
 import org.apache.commons.io.output.TeeOutputStream;
 
-import java.io.ByteArrayOutputStream;
-import java.io.UnsupportedEncodingException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.stream.Stream;
 
 /**
+ * Captures output in memory (and optionally spills it to a temp file once over a memory threshold, so that commands
+ * producing huge outputs do not balloon the heap).  Closing a capture only ends writing to it, everything captured
+ * (including any spill file) remains readable until it is {@link #delete() deleted}, which also deletes the spill
+ * file (otherwise it is only deleted on exit).
  *
  * @author joelauer
  */
 public class CaptureOutput extends StreamableOutput {
 
-    private final ByteArrayOutputStream captureOutputStream;
+    private final SpillingOutputStream captureOutputStream;
     private final StreamableOutput otherOutput;
     
     public CaptureOutput() {
@@ -37,10 +46,20 @@ public class CaptureOutput extends StreamableOutput {
     }
 
     public CaptureOutput(StreamableOutput otherOutput) {
-        this(new ByteArrayOutputStream(), otherOutput);
+        this(new SpillingOutputStream(), otherOutput);
+    }
+
+    /**
+     * Creates a capture that keeps up to memoryThreshold bytes in memory and spills anything over it to a temp file.
+     *
+     * @param otherOutput the output to also receive a copy of what is captured
+     * @param memoryThreshold the max number of bytes to keep in memory
+     */
+    public CaptureOutput(StreamableOutput otherOutput, int memoryThreshold) {
+        this(new SpillingOutputStream(memoryThreshold), otherOutput);
     }
     
-    private CaptureOutput(ByteArrayOutputStream captureOutputStream, StreamableOutput otherOutput) {
+    private CaptureOutput(SpillingOutputStream captureOutputStream, StreamableOutput otherOutput) {
         super(new TeeOutputStream(captureOutputStream, otherOutput.stream()), "<capture>", null, null);
         this.captureOutputStream = captureOutputStream;
         this.otherOutput = otherOutput;
@@ -57,14 +76,95 @@ public class CaptureOutput extends StreamableOutput {
     
     public String asString(Charset charset) {
         try {
-            return this.captureOutputStream.toString(charset.name());
-        } catch (UnsupportedEncodingException e) {
+            return this.captureOutputStream.toString(charset);
+        } catch (IOException e) {
             throw new WrappedBlazeException(e);
         }
     }
     
     public byte[] asBytes() {
-        return this.captureOutputStream.toByteArray();
+        try {
+            return this.captureOutputStream.toByteArray();
+        } catch (IOException e) {
+            throw new WrappedBlazeException(e);
+        }
+    }
+
+    /**
+     * Creates a new stream of the captured bytes without copying them into a single array. Safe to call more than once.
+     *
+     * @return a new input stream the caller must close
+     */
+    public InputStream asInputStream() {
+        try {
+            return this.captureOutputStream.toInputStream();
+        } catch (IOException e) {
+            throw new WrappedBlazeException(e);
+        }
+    }
+
+    public Stream<String> lines() {
+        return lines(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lazily streams the captured output as lines of text.
+     *
+     * @param charset the charset to decode with
+     * @return a stream of lines that should be closed (e.g. try-with-resources)
+     */
+    public Stream<String> lines(Charset charset) {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(this.asInputStream(), charset));
+        return reader.lines()
+            .onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+    }
+
+    /**
+     * Gets the number of bytes captured (in memory and spilled).
+     *
+     * @return the number of bytes captured
+     */
+    @Override
+    public Long size() {
+        return this.captureOutputStream.size();
+    }
+
+    public boolean isSpilled() {
+        return this.captureOutputStream.isSpilled();
+    }
+
+    public Path getSpillFile() {
+        return this.captureOutputStream.getSpillFile();
+    }
+
+    /**
+     * Ends writing to the capture. Everything captured remains readable and any spill file is NOT deleted, call
+     * {@link #delete()} to discard the capture and delete its spill file.
+     *
+     * @throws IOException if the capture could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        super.close();
+    }
+
+    /**
+     * Discards everything captured, deleting the spill file (if any). The capture reads back as empty afterwards.
+     *
+     * @throws IOException if the spill file could not be deleted
+     */
+    public void delete() throws IOException {
+        try {
+            super.close();
+        } finally {
+            this.captureOutputStream.delete();
+        }
     }
     
 }
@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 import java.util.Objects;
 
@@ -31,7 +32,7 @@ import java.util.Objects;
 public class DeferredFileInputStream extends InputStream {
 
     private final File file;
-    private InputStream input;
+    private FileInputStream input;
     
     public DeferredFileInputStream(File file) {
         Objects.requireNonNull(file, "file cannot be null");
@@ -54,6 +55,16 @@ public class DeferredFileInputStream extends InputStream {
             }
         }
     }
+
+    /**
+     * Opens the file (if not yet opened) and gets its channel, whose position is shared with this stream.
+     *
+     * @return the channel of the file
+     */
+    public FileChannel channel() {
+        open();
+        return this.input.getChannel();
+    }
     
     @Override
     public int read() throws IOException {
@@ -20,6 +20,8 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
@@ -36,6 +38,7 @@ public class DeferredFileOutputStream extends OutputStream {
     private final Path file;
     private final Path temporaryFile;
     private final boolean append;
+    private FileChannel channel;
     private OutputStream output;
     
     public DeferredFileOutputStream(Path file, boolean useTemporaryFile) {
@@ -60,22 +63,35 @@ public class DeferredFileOutputStream extends OutputStream {
         if (this.output == null) {
             try {
                 final Path fileToOpen = this.temporaryFile != null ? this.temporaryFile : this.file;
+                // same as Files.newOutputStream, but w/ access to the channel (e.g. to transfer files w/o copying)
                 if (this.append) {
-                    this.output = Files.newOutputStream(fileToOpen, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                    this.channel = FileChannel.open(fileToOpen, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
                 } else {
-                    this.output = Files.newOutputStream(fileToOpen, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+                    this.channel = FileChannel.open(fileToOpen, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
                 }
+                this.output = Channels.newOutputStream(this.channel);
             } catch (Exception e) {
                 throw new FileNotFoundException(e.getMessage(), e);
             }
         }
     }
 
+    /**
+     * Opens the file (if not yet opened) and gets its channel, whose position is shared with this stream.
+     *
+     * @return the channel of the file
+     */
+    public FileChannel channel() {
+        open();
+        return this.channel;
+    }
+
     @Override
     public void close() throws IOException {
         if (this.output != null) {
             this.output.close();
             this.output = null;
+            this.channel = null;
             // if using a temporary file, now if the time to swap it to the final file
             if (this.temporaryFile != null) {
                 Files.move(this.temporaryFile, this.file, StandardCopyOption.REPLACE_EXISTING);
@@ -0,0 +1,382 @@
+package com.fizzed.blaze.util;
+
+import com.fizzed.blaze.Context;
+import com.fizzed.blaze.internal.ConfigHelper;
+import java.nio.Buffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Fingerprints (hashes) the content of files, remembering the fingerprint of each file by its size, last modified
+ * time and inode so an unchanged file is never read again, even across runs if the fingerprints are persisted (e.g.
+ * to ~/.blaze/cache). Large files are memory-mapped, smaller ones read thru a 64KB buffer.
+ *
+ * <pre>
+ * final FileFingerprints fingerprints = FileFingerprints.of(context, FileFingerprints.Algorithm.XXH64);
+ * final String fingerprint = fingerprints.fingerprint(file);
+ * ...
+ * fingerprints.save();
+ * </pre>
+ */
+public class FileFingerprints implements Closeable {
+    static private final Logger log = LoggerFactory.getLogger(FileFingerprints.class);
+
+    public enum Algorithm {
+        /**
+         * A very fast non-cryptographic 64-bit hash, ideal to detect if content changed.
+         */
+        XXH64,
+        /**
+         * A cryptographic 256-bit hash.
+         */
+        SHA256,
+        SHA512,
+        SHA1,
+        MD5
+    }
+
+    static private final String HEADER = "# blaze file fingerprints v2 ";
+    // the most (recently used) fingerprints persisted, so the store (which is loaded by every run) stays small
+    static public final int DEFAULT_MAX_ENTRIES = 50000;
+    static private final long LAST_USED_RESOLUTION_MILLIS = 24L * 60L * 60L * 1000L;
+    static private final int BUFFER_SIZE = 65536;
+    // files at least this large are memory-mapped (mapping is not worth it for small files)
+    static private final long MAP_MIN_SIZE = 1024L * 1024L;
+    // mapped in chunks (a multiple of 32 bytes, the size of an XXH64 stripe)
+    static private final long MAP_CHUNK_SIZE = 64L * 1024L * 1024L;
+    // a file modified within this long of being hashed could still change w/o its mtime changing
+    static private final long RACY_MILLIS = 2000L;
+    static private final Map<Path,FileFingerprints> STORES = new ConcurrentHashMap<>();
+
+    static private class Entry {
+
+        private final long size;
+        private final long lastModified;
+        private final String fileKey;
+        private final String fingerprint;
+        private volatile long lastUsed;
+
+        public Entry(long size, long lastModified, String fileKey, String fingerprint, long lastUsed) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.fileKey = fileKey;
+            this.fingerprint = fingerprint;
+            this.lastUsed = lastUsed;
+        }
+
+        public boolean matches(long size, long lastModified, String fileKey) {
+            return this.size == size && this.lastModified == lastModified && this.fileKey.equals(fileKey);
+        }
+
+    }
+
+    private final Algorithm algorithm;
+    private final Path storeFile;
+    private final int maxEntries;
+    private final Map<Path,Entry> entries;
+    // changes since created vs as of the last save (so a change made while saving, or a failed save, is not lost)
+    private final AtomicLong changes;
+    private volatile long savedChanges;
+
+    /**
+     * Creates fingerprints that are only remembered in memory.
+     *
+     * @param algorithm the hash algorithm
+     */
+    public FileFingerprints(Algorithm algorithm) {
+        this(algorithm, null);
+    }
+
+    /**
+     * Creates fingerprints that are loaded from (if it exists) and saved to a file.
+     *
+     * @param algorithm the hash algorithm
+     * @param storeFile the file to persist the fingerprints to (or null to only remember them in memory)
+     */
+    public FileFingerprints(Algorithm algorithm, Path storeFile) {
+        this(algorithm, storeFile, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates fingerprints that are loaded from (if it exists) and saved to a file, w/ at most the number of most
+     * recently used fingerprints saved.
+     *
+     * @param algorithm the hash algorithm
+     * @param storeFile the file to persist the fingerprints to (or null to only remember them in memory)
+     * @param maxEntries the max number of fingerprints saved
+     */
+    public FileFingerprints(Algorithm algorithm, Path storeFile, int maxEntries) {
+        Objects.requireNonNull(algorithm, "algorithm cannot be null");
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be >= 1");
+        }
+        this.algorithm = algorithm;
+        this.storeFile = storeFile;
+        this.maxEntries = maxEntries;
+        this.entries = new ConcurrentHashMap<>();
+        this.changes = new AtomicLong();
+        if (storeFile != null) {
+            this.load();
+        }
+    }
+
+    /**
+     * Gets the fingerprints persisted to the user's blaze cache (~/.blaze/cache), which are shared by everything in
+     * the JVM using the same algorithm. If the cache dir is not available, they are only remembered in memory.
+     *
+     * @param context the context
+     * @param algorithm the hash algorithm
+     * @return the fingerprints
+     */
+    static public FileFingerprints of(Context context, Algorithm algorithm) {
+        Path storeFile;
+        try {
+            storeFile = ConfigHelper.userBlazeCacheDir(context)
+                .resolve("fingerprints-" + algorithm.name().toLowerCase() + ".tsv");
+        } catch (IOException | RuntimeException e) {
+            log.debug("Unable to use blaze cache dir for file fingerprints (will only keep in memory)", e);
+            return new FileFingerprints(algorithm);
+        }
+        return STORES.computeIfAbsent(storeFile.toAbsolutePath(), f -> new FileFingerprints(algorithm, f));
+    }
+
+    public Algorithm getAlgorithm() {
+        return this.algorithm;
+    }
+
+    /**
+     * Gets the fingerprint of the content of a file, only reading it if it's new or has changed (size, last modified
+     * time or inode) since it was last fingerprinted.
+     *
+     * @param file the file
+     * @return the fingerprint as hex
+     * @throws IOException if the file could not be read
+     */
+    public String fingerprint(Path file) throws IOException {
+        final Path key = file.toAbsolutePath().normalize();
+        final BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        final long size = attrs.size();
+        final long lastModified = attrs.lastModifiedTime().toMillis();
+        final String fileKey = attrs.fileKey() != null ? attrs.fileKey().toString() : "-";
+
+        final Entry entry = this.entries.get(key);
+        if (entry != null && entry.matches(size, lastModified, fileKey)) {
+            // only coarsely, so merely using the fingerprints doesn't mean saving them every time
+            final long now = System.currentTimeMillis();
+            if (now - entry.lastUsed >= LAST_USED_RESOLUTION_MILLIS) {
+                entry.lastUsed = now;
+                this.changes.incrementAndGet();
+            }
+            return entry.fingerprint;
+        }
+
+        final long started = System.currentTimeMillis();
+        final String fingerprint = toHex(digest(file, this.algorithm));
+
+        // if modified very recently, it could be modified again w/o the mtime changing, so do not remember it
+        if (started - lastModified >= RACY_MILLIS) {
+            this.entries.put(key, new Entry(size, lastModified, fileKey, fingerprint, System.currentTimeMillis()));
+            this.changes.incrementAndGet();
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * Saves the fingerprints (if persisted and anything changed). Fingerprints of files that no longer exist are
+     * dropped, as are the least recently used ones beyond the max number of entries.
+     *
+     * @throws IOException if they could not be saved
+     */
+    public void save() throws IOException {
+        final long saving = this.changes.get();
+        if (this.storeFile == null || saving == this.savedChanges) {
+            return;
+        }
+
+        this.prune();
+
+        // written to a temp file then moved, so a concurrent reader never sees a partial file
+        final Path tempFile = this.storeFile.resolveSibling(this.storeFile.getFileName() + "." + Long.toHexString(System.nanoTime()) + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.write(this.algorithm.name());
+                writer.write('\n');
+                for (Map.Entry<Path,Entry> e : this.entries.entrySet()) {
+                    final String path = e.getKey().toString();
+                    if (path.indexOf('\n') >= 0 || path.indexOf('\r') >= 0) {
+                        continue;
+                    }
+                    final Entry entry = e.getValue();
+                    writer.write(entry.size + "\t" + entry.lastModified + "\t" + entry.fileKey + "\t" + entry.fingerprint
+                        + "\t" + entry.lastUsed + "\t" + path);
+                    writer.write('\n');
+                }
+            }
+            try {
+                Files.move(tempFile, this.storeFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, this.storeFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+
+        // only once saved (and anything changed while saving is saved next time)
+        this.savedChanges = saving;
+    }
+
+    private void prune() {
+        this.entries.keySet().removeIf(file -> !Files.isRegularFile(file));
+
+        final int excess = this.entries.size() - this.maxEntries;
+        if (excess > 0) {
+            this.entries.entrySet().stream()
+                .sorted(Comparator.comparingLong(e -> e.getValue().lastUsed))
+                .limit(excess)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList())
+                .forEach(this.entries::remove);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.save();
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(this.storeFile)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(this.storeFile, StandardCharsets.UTF_8)) {
+            final String header = reader.readLine();
+            if (header == null || !header.equals(HEADER + this.algorithm.name())) {
+                log.debug("Ignoring file fingerprints {} (unexpected header)", this.storeFile);
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final String[] fields = line.split("\t", 6);
+                if (fields.length != 6) {
+                    continue;
+                }
+                this.entries.put(this.storeFile.getFileSystem().getPath(fields[5]),
+                    new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[2], fields[3], Long.parseLong(fields[4])));
+            }
+        } catch (IOException | RuntimeException e) {
+            // its only a cache, so start over
+            log.debug("Unable to load file fingerprints {} (will start over)", this.storeFile, e);
+            this.entries.clear();
+        }
+    }
+
+    /**
+     * Hashes the content of a file (w/o remembering it).
+     *
+     * @param file the file
+     * @param algorithm the hash algorithm
+     * @return the hash
+     * @throws IOException if the file could not be read
+     */
+    static public byte[] digest(Path file, Algorithm algorithm) throws IOException {
+        final Xxh64 xxh64;
+        final MessageDigest md;
+        switch (algorithm) {
+            case XXH64:
+                xxh64 = new Xxh64();
+                md = null;
+                break;
+            case SHA256:
+                xxh64 = null;
+                md = messageDigest("SHA-256");
+                break;
+            case SHA512:
+                xxh64 = null;
+                md = messageDigest("SHA-512");
+                break;
+            case SHA1:
+                xxh64 = null;
+                md = messageDigest("SHA-1");
+                break;
+            default:
+                xxh64 = null;
+                md = messageDigest("MD5");
+                break;
+        }
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            final long size = channel.size();
+            if (size >= MAP_MIN_SIZE) {
+                for (long position = 0; position < size; position += MAP_CHUNK_SIZE) {
+                    final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_CHUNK_SIZE, size - position));
+                    update(xxh64, md, buffer);
+                }
+            } else {
+                final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (channel.read(buffer) >= 0) {
+                    ((Buffer)buffer).flip();
+                    update(xxh64, md, buffer);
+                    ((Buffer)buffer).clear();
+                }
+            }
+        }
+
+        if (xxh64 != null) {
+            return ByteBuffer.allocate(8).putLong(xxh64.digest()).array();
+        }
+        return md.digest();
+    }
+
+    static private void update(Xxh64 xxh64, MessageDigest md, ByteBuffer buffer) {
+        if (xxh64 != null) {
+            xxh64.update(buffer);
+        } else {
+            md.update(buffer);
+        }
+    }
+
+    static private MessageDigest messageDigest(String name) {
+        try {
+            return MessageDigest.getInstance(name);
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM is required to support these (SHA-512 is not, but every JDK does anyway)
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static public String toHex(byte[] bytes) {
+        final char[] digits = "0123456789abcdef".toCharArray();
+        final char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = digits[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = digits[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+
+}
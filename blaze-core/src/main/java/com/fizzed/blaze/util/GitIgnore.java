@@ -0,0 +1,303 @@
+package com.fizzed.blaze.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The gitignore rules in effect for a directory, so a walk of a tree can skip (and not descend into) whatever git
+ * would ignore. Start with {@link #of(Path)} for the top of the walk (which also loads the .gitignore files of its
+ * parents up to the root of the git repository, as well as its .git/info/exclude), then get the rules of each
+ * directory descended into with {@link #child(Path)}, which loads its .gitignore (if it has one). A .git directory
+ * is always ignored.
+ *
+ * Instances are immutable and safe to share across threads.
+ */
+public class GitIgnore {
+
+    static public final String FILE_NAME = ".gitignore";
+
+    private final GitIgnore parent;
+    // name of this directory within its parent (null if the rules apply to the same directory as its parent)
+    private final String name;
+    private final List<Rule> rules;
+    // whether this or any parent has rules (so paths only need built if there are rules to match them against)
+    private final boolean anyRules;
+
+    private GitIgnore(GitIgnore parent, String name, List<Rule> rules) {
+        this.parent = parent;
+        this.name = name;
+        this.rules = rules;
+        this.anyRules = !rules.isEmpty() || (parent != null && parent.anyRules);
+    }
+
+    /**
+     * Gets the rules in effect for a directory, including those of the .gitignore files of its parents (up to the
+     * root of the git repository it's in, if any).
+     *
+     * @param dir the directory
+     * @return the rules in effect for the directory
+     * @throws IOException if a .gitignore could not be read
+     */
+    static public GitIgnore of(Path dir) throws IOException {
+        final Path absoluteDir = dir.toAbsolutePath().normalize();
+
+        // the root of the repository (if any), otherwise just the dir itself
+        Path top = absoluteDir;
+        for (Path p = absoluteDir; p != null; p = p.getParent()) {
+            if (Files.exists(p.resolve(".git"))) {
+                top = p;
+                break;
+            }
+        }
+
+        GitIgnore ignore = new GitIgnore(null, null, load(top.resolve(".git").resolve("info").resolve("exclude")));
+        ignore = new GitIgnore(ignore, null, load(top.resolve(FILE_NAME)));
+        for (Path name : top.relativize(absoluteDir)) {
+            final String s = name.toString();
+            if (!s.isEmpty()) {
+                top = top.resolve(s);
+                ignore = new GitIgnore(ignore, s, load(top.resolve(FILE_NAME)));
+            }
+        }
+        return ignore;
+    }
+
+    /**
+     * Parses gitignore rules (e.g. for a walk that is not of a filesystem).
+     *
+     * @param lines the lines of the .gitignore
+     * @return the rules
+     */
+    static public GitIgnore parse(List<String> lines) {
+        return new GitIgnore(null, null, parseRules(lines));
+    }
+
+    /**
+     * Gets the rules in effect for a directory within the directory of these rules, loading its .gitignore (if it
+     * has one).
+     *
+     * @param dir the directory (whose name is the name of the directory within the directory of these rules)
+     * @return the rules in effect for the directory
+     * @throws IOException if its .gitignore could not be read
+     */
+    public GitIgnore child(Path dir) throws IOException {
+        return new GitIgnore(this, dir.getFileName().toString(), load(dir.resolve(FILE_NAME)));
+    }
+
+    /**
+     * Gets the rules in effect for a directory within the directory of these rules, with the rules of its
+     * .gitignore.
+     *
+     * @param name the name of the directory within the directory of these rules
+     * @param lines the lines of its .gitignore
+     * @return the rules in effect for the directory
+     */
+    public GitIgnore child(String name, List<String> lines) {
+        return new GitIgnore(this, name, parseRules(lines));
+    }
+
+    /**
+     * Whether an entry of the directory of these rules is ignored.
+     *
+     * @param name the name of the entry (e.g. a file or directory)
+     * @param directory whether the entry is a directory
+     * @return true if ignored
+     */
+    public boolean isIgnored(String name, boolean directory) {
+        if (name.equals(".git")) {
+            return true;
+        }
+
+        // the deepest .gitignore w/ a matching rule decides, where the path is relative to its directory
+        String path = name;
+        for (GitIgnore ignore = this; ignore != null && ignore.anyRules; ignore = ignore.parent) {
+            // last matching rule wins
+            for (int i = ignore.rules.size() - 1; i >= 0; i--) {
+                final Rule rule = ignore.rules.get(i);
+                if (rule.matches(path, name, directory)) {
+                    return !rule.negated;
+                }
+            }
+            if (ignore.name != null) {
+                path = ignore.name + "/" + path;
+            }
+        }
+
+        return false;
+    }
+
+    static private List<Rule> load(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return Collections.emptyList();
+        }
+        return parseRules(Files.readAllLines(file, StandardCharsets.UTF_8));
+    }
+
+    static private List<Rule> parseRules(List<String> lines) {
+        final List<Rule> rules = new ArrayList<>();
+        for (String line : lines) {
+            final Rule rule = Rule.parse(line);
+            if (rule != null) {
+                rules.add(rule);
+            }
+        }
+        return rules.isEmpty() ? Collections.emptyList() : rules;
+    }
+
+    static private class Rule {
+
+        private final boolean negated;
+        private final boolean directoryOnly;
+        // matches the name of the entry (w/ no slash in the pattern) or its path relative to the .gitignore
+        private final boolean nameOnly;
+        private final Pattern pattern;
+
+        private Rule(boolean negated, boolean directoryOnly, boolean nameOnly, Pattern pattern) {
+            this.negated = negated;
+            this.directoryOnly = directoryOnly;
+            this.nameOnly = nameOnly;
+            this.pattern = pattern;
+        }
+
+        public boolean matches(String path, String name, boolean directory) {
+            if (this.directoryOnly && !directory) {
+                return false;
+            }
+            return this.pattern.matcher(this.nameOnly ? name : path).matches();
+        }
+
+        static public Rule parse(String line) {
+            if (line.endsWith("\r")) {
+                line = line.substring(0, line.length() - 1);
+            }
+
+            // trailing spaces are ignored unless escaped
+            int end = line.length();
+            while (end > 0 && line.charAt(end - 1) == ' ' && (end < 2 || line.charAt(end - 2) != '\\')) {
+                end--;
+            }
+            line = line.substring(0, end);
+
+            if (line.isEmpty() || line.startsWith("#")) {
+                return null;
+            }
+
+            boolean negated = false;
+            if (line.startsWith("!")) {
+                negated = true;
+                line = line.substring(1);
+            }
+
+            boolean directoryOnly = false;
+            if (line.endsWith("/")) {
+                directoryOnly = true;
+                line = line.substring(0, line.length() - 1);
+            }
+
+            // a slash at the beginning or middle anchors the pattern to the directory of the .gitignore
+            final boolean nameOnly = line.indexOf('/') < 0;
+            if (line.startsWith("/")) {
+                line = line.substring(1);
+            }
+
+            if (line.isEmpty()) {
+                return null;
+            }
+
+            return new Rule(negated, directoryOnly, nameOnly, Pattern.compile(toRegex(line)));
+        }
+
+        static private String toRegex(String pattern) {
+            final StringBuilder regex = new StringBuilder();
+            final String[] segments = pattern.split("/", -1);
+            boolean separator = false;
+            for (int i = 0; i < segments.length; i++) {
+                final String segment = segments[i];
+                final boolean last = i == segments.length - 1;
+                if (segment.equals("**")) {
+                    if (i == 0 && last) {
+                        regex.append(".*");
+                    } else if (i == 0) {
+                        // leading "**/" matches in all directories
+                        regex.append("(?:.*/)?");
+                        separator = false;
+                        continue;
+                    } else if (last) {
+                        // trailing "/**" matches everything inside
+                        regex.append("/.*");
+                    } else {
+                        // "/**/" matches zero or more directories
+                        regex.append("(?:/.*)?");
+                    }
+                } else {
+                    if (separator) {
+                        regex.append('/');
+                    }
+                    appendSegment(regex, segment);
+                }
+                separator = true;
+            }
+            return regex.toString();
+        }
+
+        static private void appendSegment(StringBuilder regex, String segment) {
+            int i = 0;
+            while (i < segment.length()) {
+                final char c = segment.charAt(i++);
+                switch (c) {
+                    case '\\':
+                        if (i < segment.length()) {
+                            regex.append(Pattern.quote(String.valueOf(segment.charAt(i++))));
+                        }
+                        break;
+                    case '*':
+                        // consecutive asterisks (other than a whole segment) are like a single one
+                        while (i < segment.length() && segment.charAt(i) == '*') {
+                            i++;
+                        }
+                        regex.append("[^/]*");
+                        break;
+                    case '?':
+                        regex.append("[^/]");
+                        break;
+                    case '[':
+                        final int close = segment.indexOf(']', i + 1);
+                        if (close < 0) {
+                            // not a class, just a bracket
+                            regex.append("\\[");
+                            break;
+                        }
+                        regex.append('[');
+                        int j = i;
+                        if (segment.charAt(j) == '!' || segment.charAt(j) == '^') {
+                            regex.append('^');
+                            j++;
+                        }
+                        for (; j < close; j++) {
+                            final char cc = segment.charAt(j);
+                            if (cc == '\\' || cc == '[' || cc == ']' || cc == '&' || cc == '^') {
+                                regex.append('\\');
+                            }
+                            regex.append(cc);
+                        }
+                        regex.append(']');
+                        i = close + 1;
+                        break;
+                    default:
+                        if ("<([{^-=$!|]})?*+.>".indexOf(c) >= 0) {
+                            regex.append('\\');
+                        }
+                        regex.append(c);
+                }
+            }
+        }
+
+    }
+
+}
@@ -17,20 +17,35 @@ package com.fizzed.blaze.util;
 
 import com.typesafe.config.ConfigException;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
-import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
-import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  *
@@ -44,10 +59,18 @@ public class Globber implements Iterable<Path> {
     private final Path root;
     private final List<PathMatcher> includes;
     private final List<PathMatcher> excludes;
+    // the globs of the includes/excludes (null for any given as a matcher) used to prune subtrees
+    private final List<String> includeGlobs;
+    private final List<String> excludeGlobs;
+    // compiled on demand for scans, matches() and descendsInto() (reset if the includes/excludes change)
+    private CompiledMatchers compiledMatchers;
     private boolean recursive;
     private boolean filesOnly;
     private boolean dirsOnly;
     private boolean visibleOnly;
+    private int parallelism;
+    private boolean ordered;
+    private boolean respectGitignore;
     
     public Globber() {
         this((Path)null);
@@ -61,29 +84,42 @@ public class Globber implements Iterable<Path> {
         this.root = (root != null ? root : Paths.get("."));
         this.includes = new ArrayList<>();
         this.excludes = new ArrayList<>();
+        this.includeGlobs = new ArrayList<>();
+        this.excludeGlobs = new ArrayList<>();
         this.recursive = true;
         this.dirsOnly = false;
         this.filesOnly = false;
         this.visibleOnly = false;
+        this.parallelism = 1;
+        this.ordered = true;
+        this.respectGitignore = false;
     }
 
     public Globber include(String glob) {
         this.includes.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+        this.includeGlobs.add(glob);
+        this.compiledMatchers = null;
         return this;
     }
     
     public Globber include(PathMatcher matcher) {
         this.includes.add(matcher);
+        this.includeGlobs.add(null);
+        this.compiledMatchers = null;
         return this;
     }
     
     public Globber exclude(String glob) {
         this.excludes.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+        this.excludeGlobs.add(glob);
+        this.compiledMatchers = null;
         return this;
     }
     
     public Globber exclude(PathMatcher matcher) {
         this.excludes.add(matcher);
+        this.excludeGlobs.add(null);
+        this.compiledMatchers = null;
         return this;
     }
     
@@ -122,10 +158,135 @@ public class Globber implements Iterable<Path> {
         this.visibleOnly = visibleOnly;
         return this;
     }
+
+    public Globber parallel() {
+        return this.parallel(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Walks sibling directories concurrently with the number of threads, which helps most on very large trees or
+     * on filesystems where each directory listing or stat is slow (e.g. network filesystems). Applies to
+     * {@link #scan()}, and to {@link #iterator()} and {@link #stream()} (which are then no longer lazy, but backed by
+     * a scan). {@link #scanOne()} is always lazy.
+     *
+     * @param parallelism the number of threads to walk with (1 disables)
+     * @return this globber
+     */
+    public Globber parallel(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be >= 1");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public Globber respectGitignore() {
+        return this.respectGitignore(true);
+    }
+
+    /**
+     * Skips whatever git would ignore, as defined by the .gitignore files of each directory walked (as well as those
+     * of its parents up to the root of its git repository and its .git/info/exclude). Ignored directories are never
+     * descended into, and .git directories are always skipped. See {@link GitIgnore}.
+     *
+     * @param respectGitignore true to skip what git would ignore
+     * @return this globber
+     */
+    public Globber respectGitignore(boolean respectGitignore) {
+        this.respectGitignore = respectGitignore;
+        return this;
+    }
+
+    public Globber unordered() {
+        return this.ordered(false);
+    }
+
+    /**
+     * Whether a parallel walk returns paths in the same order as a sequential walk would (the default), or in
+     * whatever order they are found, which avoids merging each directory's results in order.
+     *
+     * @param ordered true if in walk order
+     * @return this globber
+     */
+    public Globber ordered(boolean ordered) {
+        this.ordered = ordered;
+        return this;
+    }
     
-    private boolean matched(Path relativized, Path path) throws IOException {
-        boolean matched = false;
-        
+    public Path getRoot() {
+        return this.root;
+    }
+
+    public boolean isRespectGitignore() {
+        return this.respectGitignore;
+    }
+
+    /**
+     * Whether a scan would return a path beneath the root (w/o walking the tree or checking that it exists), e.g. to
+     * filter paths as they change. Gitignore rules are not applied.
+     *
+     * @param path the path (resolved against the root)
+     * @param directory whether the path is a directory
+     * @return true if it would be returned
+     */
+    public boolean matches(Path path, boolean directory) {
+        if (directory ? this.filesOnly : this.dirsOnly) {
+            return false;
+        }
+        final Path relativized = this.root.relativize(path);
+        if (!this.recursive && relativized.getNameCount() > 1) {
+            return false;
+        }
+        if (this.visibleOnly && path.getFileName() != null && path.getFileName().toString().startsWith(".")) {
+            return false;
+        }
+        return this.compiledMatchers().matches(relativized);
+    }
+
+    /**
+     * Whether a scan would descend into a directory beneath the root (i.e. anything beneath it could match).
+     * Gitignore rules are not applied.
+     *
+     * @param dir the directory (resolved against the root)
+     * @return true if it would be descended into
+     */
+    public boolean descendsInto(Path dir) {
+        final Path relativized = this.root.relativize(dir);
+        if (relativized.toString().isEmpty()) {
+            return true;
+        }
+        return this.recursive && this.compiledMatchers().pruner.descend(relativized);
+    }
+
+    private CompiledMatchers compiledMatchers() {
+        CompiledMatchers matchers = this.compiledMatchers;
+        if (matchers == null) {
+            matchers = new CompiledMatchers(new MultiGlobMatcher(this.includeGlobs, this.includes),
+                new MultiGlobMatcher(this.excludeGlobs, this.excludes), new SubtreePruner(this.includeGlobs, this.excludeGlobs));
+            this.compiledMatchers = matchers;
+        }
+        return matchers;
+    }
+
+    static private class CompiledMatchers {
+
+        private final MultiGlobMatcher include;
+        private final MultiGlobMatcher exclude;
+        private final SubtreePruner pruner;
+
+        public CompiledMatchers(MultiGlobMatcher include, MultiGlobMatcher exclude, SubtreePruner pruner) {
+            this.include = include;
+            this.exclude = exclude;
+            this.pruner = pruner;
+        }
+
+        public boolean matches(Path relativized) {
+            return this.include.matches(relativized) && !this.exclude.matches(relativized);
+        }
+
+    }
+
+    private boolean matched(CompiledMatchers matchers, Path relativized, Path path) throws IOException {
         if (visibleOnly) {
             // if it starts with a period
             if (path.getFileName().toString().startsWith(".")) {
@@ -133,38 +294,29 @@ public class Globber implements Iterable<Path> {
             }
         }
         
-        for (PathMatcher include : includes) {
-            if (include.matches(relativized)) {
-                matched = true;
-                break;
-            }
-        }
-
-        if (matched) {
-            for (PathMatcher exclude : excludes) {
-                if (exclude.matches(relativized)) {
-                    matched = false;
-                    break;
-                }
-            }
-        }
-        
-        return matched;
+        return matchers.matches(relativized);
     }
 
-    // dangerous to expose this since the stream() needs closed!
-    /*public Stream<Path> stream() throws IOException {
-        return scan().stream();
-    }*/
-    
+    /**
+     * Scans for exactly one matching path, stopping as soon as a second match is found (so the rest of the tree is
+     * not walked).
+     *
+     * @return the matching path or null if nothing matched
+     * @throws IOException if more than one path matched or the scan failed
+     */
     public Path scanOne() throws IOException {
-        final List<Path> paths = this.scan();
-        
-        if (paths.size() > 1) {
-            throw new IOException("Too many files scanned (wanted 1 but got " + paths.size() + ")");
+        try (GlobIterator iterator = new GlobIterator()) {
+            if (!iterator.hasNext()) {
+                return null;
+            }
+            final Path path = iterator.next();
+            if (iterator.hasNext()) {
+                throw new IOException("Too many files scanned (wanted 1 but got more)");
+            }
+            return path;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-        
-        return paths.get(0);
     }
     
     public Path scanOne(boolean required) throws IOException {
@@ -178,68 +330,479 @@ public class Globber implements Iterable<Path> {
         return path;
     }
 
+    /**
+     * Lazily iterates the matching paths as the tree is walked. Directories are only held open while being iterated
+     * and are closed once the iteration completes, so stopping early (e.g. a break) leaves them open until garbage
+     * collected. Use {@link #stream()} in a try-with-resources if that matters.
+     *
+     * @return the iterator
+     */
     @Override
     public Iterator<Path> iterator() {
-        try {
-            return this.scan().iterator();
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+        if (this.parallelism > 1) {
+            try {
+                return this.scan().iterator();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
+        return new GlobIterator();
     }
 
+    /**
+     * Lazily streams the matching paths as the tree is walked, so short-circuiting operations (e.g. findFirst, limit,
+     * anyMatch) stop the walk as soon as they are satisfied. The stream should be closed (e.g. try-with-resources) to
+     * release any directories still open if it is not fully consumed.
+     *
+     * @return the stream of matching paths
+     * @throws IOException if the scan failed
+     */
     public Stream<Path> stream() throws IOException {
-        return scan().stream();
+        if (this.parallelism > 1) {
+            return this.scan().stream();
+        }
+        final GlobIterator iterator = new GlobIterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(iterator::close);
     }
 
     public List<Path> scan() throws IOException {
-        ArrayList<Path> paths = new ArrayList<>();
+        if (this.parallelism > 1) {
+            return new ParallelScanner().scan();
+        }
+
+        final List<Path> paths = new ArrayList<>();
+
+        try (GlobIterator iterator = new GlobIterator()) {
+            while (iterator.hasNext()) {
+                paths.add(iterator.next());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
         
-        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
-            @Override
-            public FileVisitResult preVisitDirectory(Path path, BasicFileAttributes attrs) throws IOException {
-                // relativize path to root to perform match
-                Path relativized = root.relativize(path);
-                
-                if (!path.equals(root)) {
-                    if (matched(relativized, path)) {
-                        if (!filesOnly) {
-                            paths.add(path.normalize());
+        return paths;
+    }
+
+    /**
+     * Walks the tree depth-first one entry at a time (in the same order, and w/ the same rules, as a walkFileTree
+     * would), holding only the directory streams of the current branch open. Symlinks are not followed and entries
+     * that cannot be read are skipped.
+     */
+    private class GlobIterator implements Iterator<Path>, Closeable {
+
+        private final Deque<DirectoryStream<Path>> streams;
+        private final Deque<Iterator<Path>> iterators;
+        // the gitignore rules of each directory being iterated (if respected)
+        private final Deque<GitIgnore> ignores;
+        // a snapshot, so the scan is unaffected by includes/excludes added while it runs
+        private final CompiledMatchers matchers;
+        private boolean started;
+        private Path next;
+
+        public GlobIterator() {
+            this.streams = new ArrayDeque<>();
+            this.iterators = new ArrayDeque<>();
+            this.ignores = new ArrayDeque<>();
+            this.matchers = compiledMatchers();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (this.next == null) {
+                this.advance();
+            }
+            return this.next != null;
+        }
+
+        @Override
+        public Path next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final Path path = this.next;
+            this.next = null;
+            return path;
+        }
+
+        private void advance() {
+            try {
+                if (!this.started) {
+                    this.started = true;
+                    this.visitRoot();
+                }
+
+                while (this.next == null && !this.iterators.isEmpty()) {
+                    final Iterator<Path> entries = this.iterators.peek();
+
+                    final Path path;
+                    try {
+                        if (!entries.hasNext()) {
+                            this.pop();
+                            continue;
                         }
+                        path = entries.next();
+                    } catch (DirectoryIteratorException e) {
+                        // directory iteration failed
+                        throw e.getCause();
                     }
-                }
-                
-                if (path.equals(root)) {
-                    return FileVisitResult.CONTINUE;
-                } else {
-                    if (!recursive) {
-                        return FileVisitResult.SKIP_SUBTREE;
+
+                    final BasicFileAttributes attrs = readAttributes(path);
+                    if (attrs == null) {
+                        continue;
+                    }
+
+                    final GitIgnore ignore = this.ignores.peek();
+                    if (ignore != null && ignore.isIgnored(path.getFileName().toString(), attrs.isDirectory())) {
+                        continue;
+                    }
+
+                    if (attrs.isDirectory()) {
+                        final Path relativized = root.relativize(path);
+                        // a directory that can't be opened is skipped entirely
+                        if (recursive && this.matchers.pruner.descend(relativized)
+                                && !this.push(path, ignore != null ? ignore.child(path) : null)) {
+                            continue;
+                        }
+                        if (!filesOnly && matched(this.matchers, relativized, path)) {
+                            this.next = path.normalize();
+                        }
                     } else {
-                        return FileVisitResult.CONTINUE;
+                        if (!dirsOnly && matched(this.matchers, root.relativize(path), path)) {
+                            this.next = path.normalize();
+                        }
                     }
                 }
+            } catch (IOException e) {
+                this.close();
+                throw new UncheckedIOException(e);
             }
-            
+
+            if (this.next == null) {
+                // exhausted
+                this.close();
+            }
+        }
+
+        private void visitRoot() throws IOException {
+            final BasicFileAttributes attrs = readAttributes(root);
+            if (attrs == null) {
+                return;
+            }
+            if (attrs.isDirectory()) {
+                this.push(root, respectGitignore ? GitIgnore.of(root) : null);
+            } else if (!dirsOnly && matched(this.matchers, root.relativize(root), root)) {
+                this.next = root.normalize();
+            }
+        }
+
+        private boolean push(Path dir, GitIgnore ignore) {
+            final DirectoryStream<Path> stream;
+            try {
+                stream = Files.newDirectoryStream(dir);
+            } catch (IOException e) {
+                return false;
+            }
+            this.streams.push(stream);
+            this.iterators.push(stream.iterator());
+            if (ignore != null) {
+                this.ignores.push(ignore);
+            }
+            return true;
+        }
+
+        private void pop() throws IOException {
+            this.iterators.pop();
+            this.streams.pop().close();
+            if (!this.ignores.isEmpty()) {
+                this.ignores.pop();
+            }
+        }
+
+        @Override
+        public void close() {
+            while (!this.streams.isEmpty()) {
+                try {
+                    this.streams.pop().close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+            this.iterators.clear();
+            this.ignores.clear();
+        }
+
+    }
+
+    /**
+     * Walks the tree w/ fork/join, where each directory is a task that lists its entries and forks a task per
+     * subdirectory. Uses the same rules as {@link GlobIterator} and, if ordered, joins the results of each directory's
+     * subtasks in walk order.
+     */
+    private class ParallelScanner {
+
+        private final CompiledMatchers matchers;
+        // where paths are collected if unordered (otherwise each task returns its own)
+        private final Queue<Path> unorderedPaths;
+        private final AtomicReference<IOException> failure;
+
+        public ParallelScanner() {
+            this.matchers = compiledMatchers();
+            this.unorderedPaths = ordered ? null : new ConcurrentLinkedQueue<>();
+            this.failure = new AtomicReference<>();
+        }
+
+        public List<Path> scan() throws IOException {
+            final BasicFileAttributes attrs = readAttributes(root);
+            if (attrs == null) {
+                return new ArrayList<>();
+            }
+            if (!attrs.isDirectory()) {
+                final List<Path> paths = new ArrayList<>();
+                if (!dirsOnly && matched(matchers, root.relativize(root), root)) {
+                    paths.add(root.normalize());
+                }
+                return paths;
+            }
+
+            final ForkJoinPool pool = new ForkJoinPool(parallelism);
+            final List<Path> paths;
+            try {
+                paths = pool.invoke(new DirectoryTask(root, false, respectGitignore ? GitIgnore.of(root) : null));
+            } finally {
+                pool.shutdown();
+            }
+
+            final IOException e = this.failure.get();
+            if (e != null) {
+                throw e;
+            }
+
+            return ordered ? paths : new ArrayList<>(this.unorderedPaths);
+        }
+
+        private class DirectoryTask extends RecursiveTask<List<Path>> {
+
+            private final Path dir;
+            private final boolean emit;
+            private final GitIgnore ignore;
+            // the paths, or subtasks, in walk order (only if ordered)
+            private final List<Object> parts;
+
+            public DirectoryTask(Path dir, boolean emit, GitIgnore ignore) {
+                this.dir = dir;
+                this.emit = emit;
+                this.ignore = ignore;
+                this.parts = ordered ? new ArrayList<>() : null;
+            }
+
+            private void add(Object part) {
+                if (this.parts != null) {
+                    this.parts.add(part);
+                } else if (part instanceof Path) {
+                    unorderedPaths.add((Path)part);
+                }
+            }
+
             @Override
-            public FileVisitResult visitFile(Path path, BasicFileAttributes attrs) throws IOException {
-                // relativize path to root to perform match
-                Path relativized = root.relativize(path);
-                
-                if (matched(relativized, path)) {
-                    if (!dirsOnly) {
-                        paths.add(path.normalize());
+            protected List<Path> compute() {
+                if (failure.get() != null) {
+                    return Collections.emptyList();
+                }
+
+                final List<DirectoryTask> tasks = new ArrayList<>();
+
+                final DirectoryStream<Path> stream;
+                try {
+                    stream = Files.newDirectoryStream(this.dir);
+                } catch (IOException e) {
+                    // a directory that can't be opened is skipped entirely
+                    return Collections.emptyList();
+                }
+
+                try {
+                    // the dir is emitted before its contents (only once we know it could be opened)
+                    if (this.emit) {
+                        this.add(this.dir.normalize());
                     }
+
+                    for (Path path : stream) {
+                        final BasicFileAttributes attrs = readAttributes(path);
+                        if (attrs == null) {
+                            continue;
+                        }
+
+                        if (this.ignore != null && this.ignore.isIgnored(path.getFileName().toString(), attrs.isDirectory())) {
+                            continue;
+                        }
+
+                        final Path relativized = root.relativize(path);
+                        if (attrs.isDirectory()) {
+                            final boolean emit = !filesOnly && matched(matchers, relativized, path);
+                            if (recursive && matchers.pruner.descend(relativized)) {
+                                final DirectoryTask task = new DirectoryTask(path, emit,
+                                    this.ignore != null ? this.ignore.child(path) : null);
+                                tasks.add(task);
+                                this.add(task);
+                            } else if (emit) {
+                                this.add(path.normalize());
+                            }
+                        } else if (!dirsOnly && matched(matchers, relativized, path)) {
+                            this.add(path.normalize());
+                        }
+                    }
+                } catch (DirectoryIteratorException e) {
+                    // directory iteration failed
+                    failure.compareAndSet(null, e.getCause());
+                } catch (IOException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    try {
+                        stream.close();
+                    } catch (IOException e) {
+                        // ignore
+                    }
+                }
+
+                invokeAll(tasks);
+
+                if (this.parts == null) {
+                    return null;
                 }
-                
-                return FileVisitResult.CONTINUE;
+
+                final List<Path> paths = new ArrayList<>();
+                for (Object part : this.parts) {
+                    if (part instanceof Path) {
+                        paths.add((Path)part);
+                    } else {
+                        paths.addAll(((DirectoryTask)part).join());
+                    }
+                }
+                return paths;
             }
+        }
 
-            @Override
-            public FileVisitResult visitFileFailed(Path file, IOException exc) throws IOException {
-                return FileVisitResult.CONTINUE;
+    }
+
+    /**
+     * Decides whether a directory needs descended into based on the globs: not if no include could match anything
+     * beneath it (e.g. an include of src/main/**&#47;*.java never needs to walk node_modules or target), or if an exclude
+     * covers everything beneath it (e.g. an exclude of **&#47;node_modules/**). Includes are analyzed segment by
+     * segment up to the first one w/ a "**" (which could match anything deeper). Includes given as matchers can't be
+     * analyzed, so if there are any, only excludes prune.
+     */
+    static class SubtreePruner {
+
+        // the segment matchers of each include (a null segment is one w/ a "**") or null if includes can't prune
+        private final List<List<PathMatcher>> includes;
+        // matchers of the dirs whose contents are entirely excluded (e.g. "a/b" of an exclude "a/b/**")
+        private final List<PathMatcher> excludes;
+
+        public SubtreePruner(List<String> includeGlobs, List<String> excludeGlobs) {
+            final FileSystem fs = FileSystems.getDefault();
+
+            List<List<PathMatcher>> includes = new ArrayList<>();
+            for (String glob : includeGlobs) {
+                final List<String> segments = splitSegments(glob);
+                if (segments == null) {
+                    includes = null;
+                    break;
+                }
+                final List<PathMatcher> matchers = new ArrayList<>();
+                for (String segment : segments) {
+                    matchers.add(segment.contains("**") ? null : fs.getPathMatcher("glob:" + segment));
+                }
+                includes.add(matchers);
             }
-        });
-        
-        return paths;
+            this.includes = includes;
+
+            this.excludes = new ArrayList<>();
+            for (String glob : excludeGlobs) {
+                // since the glob is a concatenation, if "a/b" matches a dir then "a/b/**" matches all beneath it
+                if (glob != null && glob.endsWith("/**") && glob.length() > 3) {
+                    this.excludes.add(fs.getPathMatcher("glob:" + glob.substring(0, glob.length() - 3)));
+                }
+            }
+        }
+
+        public boolean descend(Path relativized) {
+            for (PathMatcher exclude : this.excludes) {
+                if (exclude.matches(relativized)) {
+                    return false;
+                }
+            }
+
+            if (this.includes == null) {
+                return true;
+            }
+
+            for (List<PathMatcher> include : this.includes) {
+                if (couldMatchBeneath(include, relativized)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        static private boolean couldMatchBeneath(List<PathMatcher> segments, Path dir) {
+            final int count = dir.getNameCount();
+            for (int i = 0; i < count; i++) {
+                if (i >= segments.size()) {
+                    return false;
+                }
+                final PathMatcher segment = segments.get(i);
+                if (segment == null) {
+                    return true;
+                }
+                if (!segment.matches(dir.getName(i))) {
+                    return false;
+                }
+            }
+            // only if there is more of the glob left to match
+            return count < segments.size();
+        }
+
+        // splits a glob on its separators, or null if it can't be (e.g. a separator in a {group} or [class])
+        static private List<String> splitSegments(String glob) {
+            if (glob == null) {
+                return null;
+            }
+            final List<String> segments = new ArrayList<>();
+            final StringBuilder segment = new StringBuilder();
+            int depth = 0;
+            for (int i = 0; i < glob.length(); i++) {
+                final char c = glob.charAt(i);
+                if (c == '\\' && i + 1 < glob.length()) {
+                    segment.append(c).append(glob.charAt(++i));
+                    continue;
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if ((c == '}' || c == ']') && depth > 0) {
+                    depth--;
+                } else if (c == '/') {
+                    if (depth > 0) {
+                        return null;
+                    }
+                    segments.add(segment.toString());
+                    segment.setLength(0);
+                    continue;
+                }
+                segment.append(c);
+            }
+            segments.add(segment.toString());
+            return segments;
+        }
+
+    }
+
+    static private BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            return null;
+        }
     }
     
     static public Globber globber(String root, String glob) {
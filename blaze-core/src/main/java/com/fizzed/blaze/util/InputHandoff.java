@@ -0,0 +1,212 @@
+package com.fizzed.blaze.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands off data read from a source input stream (e.g. System.in) by a dedicated daemon thread to whoever is
+ * currently reading, so that readers wake as soon as data arrives, yet can still be interrupted (a blocking read on
+ * most streams, and especially System.in, cannot be).
+ *
+ * The dedicated thread only reads from the source when a reader is waiting for data. If a reader gives up (e.g. the
+ * process it was forwarding to exited) while a read is outstanding, whatever is read next is held for the next reader
+ * rather than lost. The handoff of System.in is shared by all readers of it (since there can only be one thread
+ * reading it), while any other source gets its own handoff, which must be released once no longer read from.
+ */
+public class InputHandoff {
+    static private final Logger log = LoggerFactory.getLogger(InputHandoff.class);
+
+    // only shared handoffs (e.g. of System.in), which are removed once their source hits EOF or fails
+    static private final Map<InputStream,InputHandoff> SHARED = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private final InputStream source;
+    private final boolean shared;
+    private final byte[] buffer;
+    private final ReentrantLock lock;
+    private final Condition changed;
+    private Thread thread;
+    private boolean demand;
+    private int pendingOffset;
+    private int pendingLength;
+    private boolean eof;
+    private IOException error;
+    private boolean released;
+
+    private InputHandoff(InputStream source, boolean shared, int bufferSize) {
+        this.source = source;
+        this.shared = shared;
+        this.buffer = new byte[bufferSize];
+        this.lock = new ReentrantLock();
+        this.changed = this.lock.newCondition();
+    }
+
+    /**
+     * Gets the handoff of a source input stream. The handoff of System.in is shared (and created if needed), while
+     * any other source gets a new handoff that must be {@link #release() released}.
+     *
+     * @param source the source input stream
+     * @return the handoff of the source
+     */
+    static public InputHandoff of(InputStream source) {
+        if (source == System.in) {
+            return SHARED.computeIfAbsent(source, s -> new InputHandoff(s, true, 8192));
+        }
+        return new InputHandoff(source, false, 8192);
+    }
+
+    /**
+     * Releases the handoff once it's no longer read from, so its thread stops (as soon as any read of the source it's
+     * blocked on returns, e.g. once the source is closed) and readers get EOF. A shared handoff (of System.in) is
+     * never released, since whatever it reads next is held for its next reader.
+     */
+    public void release() {
+        if (this.shared) {
+            return;
+        }
+        this.lock.lock();
+        try {
+            this.released = true;
+            this.changed.signalAll();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Reads data as soon as it's available from the source, blocking until it is, the source hits EOF, or the calling
+     * thread is interrupted.
+     *
+     * @param b the buffer into which the data is read
+     * @param off the start offset in the buffer
+     * @param len the maximum number of bytes to read
+     * @return the number of bytes read or -1 on EOF
+     * @throws InterruptedIOException if the calling thread was interrupted while waiting
+     * @throws IOException if the source threw an exception while reading
+     */
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        try {
+            this.lock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Interrupted while waiting for data");
+        }
+        try {
+            while (this.pendingLength == 0 && !this.eof && this.error == null && !this.released) {
+                if (!this.demand) {
+                    this.demand = true;
+                    this.ensureThread();
+                    this.changed.signalAll();
+                }
+                try {
+                    this.changed.await();
+                } catch (InterruptedException e) {
+                    // NOTE: demand is intentionally left as-is, whatever is read is held for the next reader
+                    throw new InterruptedIOException("Interrupted while waiting for data");
+                }
+            }
+
+            if (this.pendingLength > 0) {
+                final int n = Math.min(len, this.pendingLength);
+                System.arraycopy(this.buffer, this.pendingOffset, b, off, n);
+                this.pendingOffset += n;
+                this.pendingLength -= n;
+                return n;
+            }
+
+            if (this.error != null) {
+                throw this.error;
+            }
+
+            return -1;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of bytes that can be read without blocking.
+     *
+     * @return the number of bytes already handed off
+     */
+    public int available() {
+        this.lock.lock();
+        try {
+            return this.pendingLength;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void ensureThread() {
+        if (this.thread == null) {
+            this.thread = new Thread(this::pump, "blaze-input-handoff");
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+    }
+
+    private void pump() {
+        try {
+            while (true) {
+                // only read from the source if a reader is waiting and has consumed what was handed off
+                this.lock.lock();
+                try {
+                    while ((!this.demand || this.pendingLength > 0) && !this.released) {
+                        this.changed.awaitUninterruptibly();
+                    }
+                    if (this.released) {
+                        return;
+                    }
+                } finally {
+                    this.lock.unlock();
+                }
+
+                int n;
+                IOException ioe = null;
+                try {
+                    // blocking read w/o holding the lock (the buffer is not in use since nothing is pending)
+                    n = this.source.read(this.buffer, 0, this.buffer.length);
+                } catch (IOException e) {
+                    ioe = e;
+                    n = -1;
+                }
+
+                this.lock.lock();
+                try {
+                    if (ioe != null) {
+                        this.error = ioe;
+                    } else if (n < 0) {
+                        this.eof = true;
+                    } else {
+                        this.pendingOffset = 0;
+                        this.pendingLength = n;
+                    }
+                    this.demand = false;
+                    this.changed.signalAll();
+                    if (this.eof || this.error != null || this.released) {
+                        return;
+                    }
+                } finally {
+                    this.lock.unlock();
+                }
+            }
+        } finally {
+            log.trace("Input handoff for {} finished", this.source);
+            if (this.shared) {
+                SHARED.remove(this.source, this);
+            }
+        }
+    }
+
+}
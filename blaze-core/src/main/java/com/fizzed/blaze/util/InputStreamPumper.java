@@ -38,19 +38,20 @@
 package com.fizzed.blaze.util;
 
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Copied from zt-exec so we could literally log errors as TRACE not ERROR!
+ * Copied from zt-exec so we could literally log errors as TRACE not ERROR! Rather than polling available() and
+ * sleeping, data is handed off by an {@link InputHandoff} as soon as it arrives, and pumping stops as soon as the
+ * pumping thread is interrupted or {@link #stopProcessing()} is called.
  */
 public class InputStreamPumper implements Runnable {
 
   private static final Logger log = LoggerFactory.getLogger(InputStreamPumper.class);
 
-  public static final int SLEEPING_TIME = 100;
-
   /** the input stream to pump from */
   private final InputStream is;
 
@@ -60,6 +61,9 @@ public class InputStreamPumper implements Runnable {
   /** flag to stop the stream pumping */
   private volatile boolean stop;
 
+  /** the thread pumping (so it can be woken up if stopped) */
+  private volatile Thread thread;
+
   /**
    * Create a new stream pumper.
    *
@@ -74,27 +78,44 @@ public class InputStreamPumper implements Runnable {
 
   /**
    * Copies data from the input stream to the output stream. Terminates as
-   * soon as the input stream is closed or an error occurs.
+   * soon as the input stream is closed, an error occurs, or it is stopped.
    */
   @Override
-  @SuppressWarnings({"SleepWhileInLoop", "UseSpecificCatch"})
+  @SuppressWarnings("UseSpecificCatch")
   public void run() {
+    this.thread = Thread.currentThread();
+    final InputHandoff handoff = InputHandoff.of(is);
     try {
+      final byte[] buf = new byte[8192];
       while (!stop) {
-        while (is.available() > 0 && !stop) {
-          os.write(is.read());
+        final int n = handoff.read(buf, 0, buf.length);
+        if (n < 0) {
+          // let the process know there is no more input
+          os.close();
+          break;
         }
+        os.write(buf, 0, n);
         os.flush();
-        Thread.sleep(SLEEPING_TIME);
       }
     }
+    catch (InterruptedIOException e) {
+      log.trace("Interrupted while waiting for input to pump (stopped)");
+    }
     catch (Exception e) {
       log.trace("Got exception while reading/writing the stream", e);
     }
+    finally {
+      handoff.release();
+      this.thread = null;
+    }
   }
 
   public void stopProcessing() {
     stop = true;
+    final Thread t = this.thread;
+    if (t != null) {
+      t.interrupt();
+    }
   }
 
-}
\ No newline at end of file
+}
@@ -26,65 +26,77 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * An InputStream whose read() methods can be interrupted by way of utilizing
- * available() and Thread.sleep() before entering a blocking call.
+ * An InputStream whose read() methods can be interrupted (or unblocked by closing it), by way of waiting on data
+ * handed off by an {@link InputHandoff} rather than entering a blocking read on the wrapped input itself. Reads wake
+ * as soon as data arrives.
  */
 public class InterruptibleInputStream extends WrappedInputStream {
     static private final Logger log = LoggerFactory.getLogger(InterruptibleInputStream.class);
         
     private final AtomicReference<Thread> readThreadRef;
-    private final long timeout;
+    private final InputHandoff handoff;
+    private volatile boolean closed;
     
     public InterruptibleInputStream(InputStream input) {
-        this(input, 50L);
-    }
-    
-    public InterruptibleInputStream(InputStream input, long timeout) {
         super(input);
         this.readThreadRef = new AtomicReference<>();
-        this.timeout = timeout;
+        this.handoff = InputHandoff.of(input);
     }
 
-    @SuppressWarnings("SleepWhileInLoop")
-    private void sleepUntilReadWouldBeNonBlocking() throws IOException {
-        // this is the thread that would be blocked on the read call
-        this.readThreadRef.set(Thread.currentThread());
-        try {
-            while (this.available() == 0) {
-                try {
-                    Thread.sleep(timeout);
-                } catch (InterruptedException e) {
-                    throw new InterruptedIOException("Interrupted while waiting for data");
-                }
-            }
-        } finally {
-            this.readThreadRef.set(null);
-        }
+    /**
+     * @deprecated reads are no longer polled, use {@link #InterruptibleInputStream(InputStream)}
+     */
+    @Deprecated
+    public InterruptibleInputStream(InputStream input, long timeout) {
+        this(input);
     }
-    
+
+    @Override
+    public int available() throws IOException {
+        return this.closed ? 0 : this.handoff.available();
+    }
+
     @Override
     public int read() throws IOException {
-        sleepUntilReadWouldBeNonBlocking();
-        return super.read();
+        final byte[] b = new byte[1];
+        final int n = this.read(b, 0, 1);
+        return n < 0 ? -1 : (b[0] & 0xFF);
     }
 
     @Override
     public int read(byte[] b) throws IOException {
-        sleepUntilReadWouldBeNonBlocking();
-        return super.read(b);
+        return this.read(b, 0, b.length);
     }
 
     @Override
     public int read(byte[] b, int off, int len) throws IOException {
-        sleepUntilReadWouldBeNonBlocking();
-        return super.read(b, off, len);
+        if (this.closed) {
+            return -1;
+        }
+        // this is the thread that would be blocked on the read call
+        this.readThreadRef.set(Thread.currentThread());
+        try {
+            return this.handoff.read(b, off, len);
+        } catch (InterruptedIOException e) {
+            // being closed while waiting is simply EOF
+            if (this.closed) {
+                Thread.interrupted();
+                return -1;
+            }
+            throw e;
+        } finally {
+            this.readThreadRef.set(null);
+        }
     }
 
     @Override
     public void close() throws IOException {
         // close the input then interrupt the thread waiting on it
         //log.trace("Closing wrapped inputstream()");
+        this.closed = true;
         super.close();
+        // so its thread stops too (rather than waiting for a reader forever)
+        this.handoff.release();
         
         // atomically get thread if blocked in read, interrupt it, then set to null
         this.readThreadRef.getAndUpdate((Thread readThread) -> {
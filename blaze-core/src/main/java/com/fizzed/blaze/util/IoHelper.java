@@ -1,20 +1,49 @@
 package com.fizzed.blaze.util;
 
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static com.fizzed.blaze.util.TerminalHelper.*;
 
+/**
+ * Copies data with the most efficient means available. If the input is a file (e.g. a Path, FileInputStream, or
+ * file-backed StreamableInput) and the output is a file too (or any other channel), the data is transferred by the
+ * kernel (e.g. sendfile or copy_file_range on linux) w/o ever being copied into the JVM. Otherwise, the data is copied
+ * thru a pooled buffer.
+ */
 public class IoHelper {
 
+    static public final int DEFAULT_BUFFER_SIZE = 65536;
+    // transfers are done in chunks so progress is reported (and interrupts are noticed) along the way
+    static private final long TRANSFER_CHUNK_SIZE = 8L * 1024L * 1024L;
+    static private final int MAX_POOLED_BUFFERS = 16;
+    static private final Queue<byte[]> BUFFER_POOL = new ConcurrentLinkedQueue<>();
+
     static public void copy(Path input, OutputStream output, boolean progress, boolean clearProgressLineAtEnd, OpenOption... options) throws IOException {
-        final long knownContentLength = Files.size(input);
-        try (InputStream is = Files.newInputStream(input, options)) {
-            copy(is, output, progress, clearProgressLineAtEnd, knownContentLength);
+        try (FileChannel channel = FileChannel.open(input, options)) {
+            final ProgressRenderer renderer = ProgressRenderer.of(progress, channel.size());
+            // only a regular file can be transferred (e.g. a fifo or a /proc file must be read)
+            if (Files.isRegularFile(input)) {
+                copy(channel, null, writableChannel(output), output, renderer, DEFAULT_BUFFER_SIZE);
+            } else {
+                copy(null, Channels.newInputStream(channel), null, output, renderer, DEFAULT_BUFFER_SIZE);
+            }
+            renderer.finish(clearProgressLineAtEnd);
         }
     }
 
@@ -23,41 +52,180 @@ public class IoHelper {
     }
 
     static public void copy(InputStream input, Path output, boolean progress, boolean clearProgressLineAtEnd, long knownContentLength, OpenOption... options) throws IOException {
-        try (OutputStream os = Files.newOutputStream(output, options)) {
-            copy(input, os, progress, clearProgressLineAtEnd, knownContentLength);
+        try (FileChannel channel = FileChannel.open(output, writeOptions(options))) {
+            final ProgressRenderer renderer = ProgressRenderer.of(progress, knownContentLength);
+            copy(fileChannel(input), input, channel, Channels.newOutputStream(channel), renderer, DEFAULT_BUFFER_SIZE);
+            renderer.finish(clearProgressLineAtEnd);
         }
     }
 
     static public void copy(InputStream input, OutputStream output, boolean progress, boolean clearProgressLineAtEnd, long knownContentLength) throws IOException {
         // should we activate the progress bar?
-        final TerminalIOProgressBar progressBar;
-        if (progress) {
-            progressBar = new TerminalIOProgressBar(knownContentLength);
+        final ProgressRenderer renderer = ProgressRenderer.of(progress, knownContentLength);
+
+        copy(fileChannel(input), input, writableChannel(output), output, renderer, DEFAULT_BUFFER_SIZE);
+
+        // we need 1 more render to make sure it shows 100%
+        renderer.finish(clearProgressLineAtEnd);
+    }
+
+    /**
+     * Copies all data from the input to the output (w/o closing either) using the most efficient means available.
+     *
+     * @param input the input
+     * @param output the output
+     * @param bufferSize the size of the buffer used if the data must be copied thru the JVM
+     * @return the number of bytes copied
+     * @throws IOException if an exception occurs while reading or writing
+     */
+    static public long copy(InputStream input, OutputStream output, int bufferSize) throws IOException {
+        return copy(fileChannel(input), input, writableChannel(output), output, ProgressRenderer.NONE, bufferSize);
+    }
+
+    static private long copy(FileChannel inputChannel, InputStream input, WritableByteChannel outputChannel,
+                             OutputStream output, ProgressRenderer renderer, int bufferSize) throws IOException {
+        long copied = 0;
+
+        // a fifo, device or /proc file has a size of 0 (even if it has data), so its data must be read
+        if (inputChannel != null && outputChannel != null && inputChannel.size() > 0) {
+            copied = transfer(inputChannel, outputChannel, renderer);
+        }
+
+        // whatever was not transferred is read (which is a single read at EOF if everything was)
+        if (input == null) {
+            input = Channels.newInputStream(inputChannel);
+        }
+
+        final byte[] buffer = acquireBuffer(bufferSize);
+        try {
+            int n;
+            while (-1 != (n = input.read(buffer))) {
+                output.write(buffer, 0, n);
+                copied += n;
+                renderer.update(n);
+            }
+            return copied;
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    static private long transfer(FileChannel input, WritableByteChannel output, ProgressRenderer renderer) throws IOException {
+        // the channel's position is shared w/ the stream it came from (so continue where it left off and leave the
+        // position at the end, just as if it was read)
+        final long start = input.position();
+        long position = start;
+        while (true) {
+            // re-checked each time in case the file is still growing (as it would be w/ a read loop)
+            final long remaining = input.size() - position;
+            if (remaining <= 0) {
+                break;
+            }
+            final long n = input.transferTo(position, Math.min(remaining, TRANSFER_CHUNK_SIZE), output);
+            if (n <= 0) {
+                // e.g. the file is shorter than its size (the rest is left to the read loop)
+                break;
+            }
+            position += n;
+            renderer.update(n);
+        }
+        input.position(position);
+        return position - start;
+    }
+
+    /**
+     * Gets the file channel backing an input stream if it has one.
+     *
+     * @param input the input stream
+     * @return the channel or null if the stream is not backed by a file
+     */
+    static public FileChannel fileChannel(InputStream input) {
+        if (input instanceof FileInputStream) {
+            return ((FileInputStream)input).getChannel();
+        } else if (input instanceof DeferredFileInputStream) {
+            return ((DeferredFileInputStream)input).channel();
+        }
+        return null;
+    }
+
+    /**
+     * Gets the channel backing an output stream if it has one.
+     *
+     * @param output the output stream
+     * @return the channel or null if the stream is not backed by one
+     */
+    static public WritableByteChannel writableChannel(OutputStream output) {
+        if (output instanceof FileOutputStream) {
+            return ((FileOutputStream)output).getChannel();
+        } else if (output instanceof DeferredFileOutputStream) {
+            return ((DeferredFileOutputStream)output).channel();
+        }
+        return null;
+    }
+
+    static private Set<OpenOption> writeOptions(OpenOption... options) {
+        // same defaults as Files.newOutputStream
+        final Set<OpenOption> set = new LinkedHashSet<>();
+        if (options == null || options.length == 0) {
+            set.add(StandardOpenOption.CREATE);
+            set.add(StandardOpenOption.TRUNCATE_EXISTING);
         } else {
-            progressBar = null;
+            set.addAll(Arrays.asList(options));
+        }
+        set.add(StandardOpenOption.WRITE);
+        return set;
+    }
+
+    static private byte[] acquireBuffer(int size) {
+        if (size == DEFAULT_BUFFER_SIZE) {
+            final byte[] buffer = BUFFER_POOL.poll();
+            if (buffer != null) {
+                return buffer;
+            }
+        }
+        return new byte[size];
+    }
+
+    static private void releaseBuffer(byte[] buffer) {
+        // size() is O(n) on a concurrent queue, but the pool is tiny
+        if (buffer.length == DEFAULT_BUFFER_SIZE && BUFFER_POOL.size() < MAX_POOLED_BUFFERS) {
+            BUFFER_POOL.offer(buffer);
+        }
+    }
+
+    static private class ProgressRenderer {
+
+        static private final ProgressRenderer NONE = new ProgressRenderer(null);
+
+        private final TerminalIOProgressBar progressBar;
+
+        private ProgressRenderer(TerminalIOProgressBar progressBar) {
+            this.progressBar = progressBar;
         }
 
-        byte[] buffer = new byte[8192];
-        int n;
-        while (-1 != (n = input.read(buffer))) {
-            output.write(buffer, 0, n);
+        static public ProgressRenderer of(boolean progress, long knownContentLength) {
+            return progress ? new ProgressRenderer(new TerminalIOProgressBar(knownContentLength)) : NONE;
+        }
 
-            if (progressBar != null) {
-                progressBar.update(n);
-                if (progressBar.isRenderStale(1)) {
-                    System.out.print(clearLine(progressBar.render()));
+        public void update(long n) {
+            if (this.progressBar != null) {
+                this.progressBar.update(n);
+                if (this.progressBar.isRenderStale(1)) {
+                    System.out.print(clearLine(this.progressBar.render()));
                 }
             }
         }
 
-        // we need 1 more render to make sure it shows 100%
-        if (progressBar != null) {
-            if (clearProgressLineAtEnd) {
-                System.out.print(clearLine(""));
-            } else {
-                System.out.print(clearLine(progressBar.render()));
+        public void finish(boolean clearProgressLineAtEnd) {
+            if (this.progressBar != null) {
+                if (clearProgressLineAtEnd) {
+                    System.out.print(clearLine(""));
+                } else {
+                    System.out.print(clearLine(this.progressBar.render()));
+                }
             }
         }
+
     }
 
-}
\ No newline at end of file
+}
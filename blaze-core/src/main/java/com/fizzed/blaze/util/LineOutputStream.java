@@ -18,16 +18,25 @@ package com.fizzed.blaze.util;
 import com.fizzed.blaze.util.LineOutputStream.Processor;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.util.Deque;
 import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * An OutputStream that finds full lines of text (either '\r' or '\r\n') and
  * applies a function to it.  Allows processing of line-based output as its
- * written.
+ * written.  A {@link ByteProcessor} or {@link CharSequenceProcessor} receives
+ * each line as a view over a reusable buffer (rather than a new String), so
+ * high-volume output can be processed without any per-line garbage.
  */
 public class LineOutputStream<P extends Processor> extends OutputStream {
     
@@ -35,22 +44,49 @@ public class LineOutputStream<P extends Processor> extends OutputStream {
     private static final byte NEWLINE = (byte)'\n';
     
     static public class BufferingProcessor implements Processor {
-        private final ConcurrentLinkedDeque<String> lines;
+        private final Deque<String> lines;
+        private final AtomicLong dropped;
 
         public BufferingProcessor() {
             this.lines = new ConcurrentLinkedDeque<>();
+            this.dropped = new AtomicLong();
+        }
+
+        /**
+         * Creates a bounded buffering processor that only keeps the most recent lines (the oldest lines are dropped).
+         *
+         * @param maxLines the max number of lines to buffer
+         */
+        public BufferingProcessor(int maxLines) {
+            if (maxLines <= 0) {
+                throw new IllegalArgumentException("maxLines must be > 0");
+            }
+            this.lines = new LinkedBlockingDeque<>(maxLines);
+            this.dropped = new AtomicLong();
         }
         
         public Deque<String> lines() {
             return this.lines;
         }
+
+        /**
+         * Gets the number of lines dropped since the buffer was full (always zero if unbounded).
+         *
+         * @return the number of lines dropped
+         */
+        public long dropped() {
+            return this.dropped.get();
+        }
         
         @Override
         public void process(String line) {
-            this.lines.add(line);
+            while (!this.lines.offerLast(line)) {
+                if (this.lines.pollFirst() != null) {
+                    this.dropped.incrementAndGet();
+                }
+            }
         }
     }
-    
     static public class LastLineProcessor implements Processor {
         private String lastLine;
 
@@ -88,6 +124,9 @@ public class LineOutputStream<P extends Processor> extends OutputStream {
     private final ByteArray buffer;
     private final Charset charset;
     private final AtomicReference<P> processorRef;
+    private boolean skipNewline;
+    private CharsetDecoder decoder;
+    private CharBuffer chars;
     
     public LineOutputStream(P processor) {
         this(processor, null);
@@ -118,9 +157,8 @@ public class LineOutputStream<P extends Processor> extends OutputStream {
     public void close() throws IOException {
         // any unprocessed buffer?
         if (this.buffer.length() > 0) {
-            String line = this.buffer.toString(this.charset);
+            this.processLine(this.buffer.backingArray(), 0, this.buffer.length());
             this.buffer.reset();
-            this.processorRef.get().process(line);
         }
         this.closed = true;
     }
@@ -137,41 +175,80 @@ public class LineOutputStream<P extends Processor> extends OutputStream {
         // scan array for lines
         int end = offset+length;
         int pos = offset;
+
+        // a '\r' ended the previous write, is this the '\n' of a '\r\n'?
+        if (this.skipNewline && pos < end) {
+            this.skipNewline = false;
+            if (buffer[pos] == NEWLINE) {
+                pos++;
+            }
+        }
         
-        for (int i = offset; i < end; i++) {
+        for (int i = pos; i < end; i++) {
             byte b = buffer[i];
             
             if (b == CARRIAGE_RETURN || b == NEWLINE) {
-                String line = new String(buffer, pos, (i-pos), this.charset);
-                
                 // is there any previous buffer not processed?
                 if (this.buffer.length() > 0) {
-                    StringBuilder sb = new StringBuilder();
-                    // append current buffer + new buffer as strings
-                    sb.append(this.buffer.toString(this.charset));
-                    sb.append(line);
-                    line = sb.toString();
+                    // complete the line in the buffer (rather than concatenating strings)
+                    this.buffer.append(buffer, pos, i-pos);
+                    this.processLine(this.buffer.backingArray(), 0, this.buffer.length());
                     this.buffer.reset();
+                } else {
+                    this.processLine(buffer, pos, i-pos);
                 }
                 
-                // either process OR accumulate
-                processorRef.get().process(line);
-                
                 pos = i + 1;
                 
                 // if this was a carriage return do we need to skip the next byte if newline?
-                if (b == CARRIAGE_RETURN && (i+1) < end && buffer[i+1] == NEWLINE) {
-                    // skip next byte
-                    pos++;
-                    i++;
+                if (b == CARRIAGE_RETURN) {
+                    if ((i+1) < end) {
+                        if (buffer[i+1] == NEWLINE) {
+                            // skip next byte
+                            pos++;
+                            i++;
+                        }
+                    } else {
+                        this.skipNewline = true;
+                    }
                 }
             }
         }
         
         // append unprocessed to internally expanding buffer
-        if (pos < length) {
-            this.buffer.append(buffer, pos, length - pos);
+        if (pos < end) {
+            this.buffer.append(buffer, pos, end - pos);
+        }
+    }
+
+    private void processLine(byte[] bytes, int offset, int length) {
+        final P processor = this.processorRef.get();
+        if (processor instanceof ByteProcessor) {
+            ((ByteProcessor)processor).process(bytes, offset, length);
+        } else if (processor instanceof CharSequenceProcessor) {
+            ((CharSequenceProcessor)processor).process(this.decode(bytes, offset, length));
+        } else {
+            processor.process(new String(bytes, offset, length, this.charset));
+        }
+    }
+
+    private CharSequence decode(byte[] bytes, int offset, int length) {
+        if (this.decoder == null) {
+            // same replacement behavior as new String(bytes, charset)
+            this.decoder = this.charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
         }
+        final int maxChars = (int)Math.ceil(length * (double)this.decoder.maxCharsPerByte());
+        if (this.chars == null || this.chars.capacity() < maxChars) {
+            this.chars = CharBuffer.allocate(Math.max(maxChars, 256));
+        }
+        ((Buffer)this.chars).clear();
+        this.decoder.reset();
+        this.decoder.decode(ByteBuffer.wrap(bytes, offset, length), this.chars, true);
+        this.decoder.flush(this.chars);
+        ((Buffer)this.chars).flip();
+        return this.chars;
     }
 
     @Override
@@ -187,5 +264,33 @@ public class LineOutputStream<P extends Processor> extends OutputStream {
     static public interface Processor {
         void process(String line);
     }
+
+    /**
+     * Processes lines as a slice of bytes (excluding the line terminator). The slice is only valid during the call,
+     * since its backing array is reused. A {@link LineOutputStream} never calls {@link #process(String)} on it, and
+     * since the charset the line would need to be encoded w/ is unknown, it is unsupported unless overridden.
+     */
+    static public interface ByteProcessor extends Processor {
+        void process(byte[] bytes, int offset, int length);
+
+        @Override
+        default void process(String line) {
+            throw new UnsupportedOperationException("A ByteProcessor only processes bytes (override process(String)"
+                + " to encode lines w/ a known charset)");
+        }
+    }
+
+    /**
+     * Processes lines as a decoded sequence of chars (excluding the line terminator). The sequence is only valid
+     * during the call, since it is reused (call toString() on it to keep it).
+     */
+    static public interface CharSequenceProcessor extends Processor {
+        void process(CharSequence line);
+
+        @Override
+        default void process(String line) {
+            this.process((CharSequence)line);
+        }
+    }
     
 }
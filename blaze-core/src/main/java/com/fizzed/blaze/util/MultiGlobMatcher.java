@@ -0,0 +1,185 @@
+package com.fizzed.blaze.util;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Matches a path against many globs at once (a path matches if any glob matches), with the same semantics as the
+ * "glob:" matchers of the default filesystem. Rather than evaluating a regex per glob, the common forms are reduced to
+ * hash lookups: literal paths (e.g. "pom.xml") and extension suffixes (e.g. "*.java", "**&#47;*.java", "**.java").
+ * Everything else (and matchers that are not globs) is evaluated by its own matcher from the default filesystem.
+ *
+ * Globs are only reduced on filesystems w/ a "/" separator. Otherwise (e.g. windows, where matching is also case
+ * insensitive) every glob is evaluated by its own matcher.
+ */
+class MultiGlobMatcher implements PathMatcher {
+
+    static private final boolean REDUCIBLE = "/".equals(FileSystems.getDefault().getSeparator());
+
+    private enum Depth {
+        // only a top-level path (e.g. "*.java")
+        TOP,
+        // only a nested path (e.g. "**/*.java")
+        NESTED,
+        // any path (e.g. "**.java")
+        ANY
+    }
+
+    static private class Suffix {
+
+        private final String suffix;
+        private final Depth depth;
+
+        public Suffix(String suffix, Depth depth) {
+            this.suffix = suffix;
+            this.depth = depth;
+        }
+
+        public boolean matches(String path) {
+            if (!path.endsWith(this.suffix)) {
+                return false;
+            }
+            switch (this.depth) {
+                case TOP:
+                    return path.indexOf('/') < 0;
+                case NESTED:
+                    return path.indexOf('/') >= 0;
+                default:
+                    return true;
+            }
+        }
+
+    }
+
+    private final boolean empty;
+    private final Set<String> literals;
+    // suffixes by their own extension (e.g. "gz" for ".tar.gz")
+    private final Map<String,List<Suffix>> suffixes;
+    private final List<PathMatcher> matchers;
+
+    /**
+     * Creates a new matcher.
+     *
+     * @param globs the globs, where any entry may be null if its matcher is not a glob
+     * @param matchers the matchers of each glob (as created by the default filesystem) or the matcher itself if not
+     *      a glob
+     */
+    public MultiGlobMatcher(List<String> globs, List<PathMatcher> matchers) {
+        this.empty = matchers.isEmpty();
+        this.literals = new HashSet<>();
+        this.suffixes = new HashMap<>();
+        this.matchers = new ArrayList<>();
+
+        for (int i = 0; i < matchers.size(); i++) {
+            final String glob = globs.get(i);
+
+            if (glob == null || !REDUCIBLE || !this.addFastPath(glob)) {
+                this.matchers.add(matchers.get(i));
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return this.empty;
+    }
+
+    @Override
+    public boolean matches(Path path) {
+        if (this.empty) {
+            return false;
+        }
+
+        final String s = path.toString();
+
+        if (!this.literals.isEmpty() && this.literals.contains(s)) {
+            return true;
+        }
+
+        if (!this.suffixes.isEmpty()) {
+            final int dot = s.lastIndexOf('.');
+            if (dot >= 0 && dot > s.lastIndexOf('/')) {
+                final List<Suffix> candidates = this.suffixes.get(s.substring(dot + 1));
+                if (candidates != null) {
+                    for (Suffix suffix : candidates) {
+                        if (suffix.matches(s)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+
+        for (PathMatcher matcher : this.matchers) {
+            if (matcher.matches(path)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private boolean addFastPath(String glob) {
+        // non-ascii could need unicode normalization (e.g. on mac), so leave it to the default matcher
+        for (int i = 0; i < glob.length(); i++) {
+            if (glob.charAt(i) > 127) {
+                return false;
+            }
+        }
+
+        if (isLiteral(glob)) {
+            this.literals.add(glob);
+            return true;
+        }
+
+        final Depth depth;
+        final String suffix;
+        if (glob.startsWith("**/*")) {
+            depth = Depth.NESTED;
+            suffix = glob.substring(4);
+        } else if (glob.startsWith("**")) {
+            depth = Depth.ANY;
+            suffix = glob.substring(2);
+        } else if (glob.startsWith("*")) {
+            depth = Depth.TOP;
+            suffix = glob.substring(1);
+        } else {
+            return false;
+        }
+
+        // e.g. ".java" or "Test.java" (but not "/foo" or "*.java")
+        final int dot = suffix.lastIndexOf('.');
+        if (dot < 0 || suffix.indexOf('/') >= 0 || !isLiteral(suffix)) {
+            return false;
+        }
+
+        this.suffixes.computeIfAbsent(suffix.substring(dot + 1), k -> new ArrayList<>())
+            .add(new Suffix(suffix, depth));
+        return true;
+    }
+
+    static private boolean isLiteral(String glob) {
+        for (int i = 0; i < glob.length(); i++) {
+            switch (glob.charAt(i)) {
+                case '\\':
+                case '*':
+                case '?':
+                case '[':
+                case '{':
+                case '}':
+                case ',':
+                    return false;
+                default:
+                    break;
+            }
+        }
+        return true;
+    }
+
+}
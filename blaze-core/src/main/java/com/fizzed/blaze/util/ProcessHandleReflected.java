@@ -1,7 +1,10 @@
 package com.fizzed.blaze.util;
 
 import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -15,12 +18,15 @@ public class ProcessHandleReflected {
     static private final Object lock = new Object();
     static private Class<?> processHandleClass = null;
     static private Method processClassToHandleMethod;
+    static private Method processClassOnExitMethod;
     static private Method processHandleClassCurrentMethod;
     static private Method processHandleClassPidMethod;
     static private Method processHandleClassIsAliveMethod;
     static private Method processHandleClassDestroyMethod;
     static private Method processHandleClassDestroyForciblyMethod;
     static private Method processHandleClassDescendantsMethod;
+    static private Method processHandleClassInfoMethod;
+    static private Method processHandleInfoClassTotalCpuDurationMethod;
 
     static public boolean isAvailable() {
         if (!attempted) {
@@ -29,12 +35,15 @@ public class ProcessHandleReflected {
                     try {
                         processHandleClass = Class.forName("java.lang.ProcessHandle");
                         processClassToHandleMethod = Process.class.getMethod("toHandle");
+                        processClassOnExitMethod = Process.class.getMethod("onExit");
                         processHandleClassCurrentMethod = processHandleClass.getMethod("current");
                         processHandleClassPidMethod = processHandleClass.getMethod("pid");
                         processHandleClassIsAliveMethod = processHandleClass.getMethod("isAlive");
                         processHandleClassDestroyMethod = processHandleClass.getMethod("destroy");
                         processHandleClassDestroyForciblyMethod = processHandleClass.getMethod("destroyForcibly");
                         processHandleClassDescendantsMethod = processHandleClass.getMethod("descendants");
+                        processHandleClassInfoMethod = processHandleClass.getMethod("info");
+                        processHandleInfoClassTotalCpuDurationMethod = Class.forName("java.lang.ProcessHandle$Info").getMethod("totalCpuDuration");
                     } catch (Exception e) {
                         processHandleClass = null;
                     }
@@ -61,6 +70,24 @@ public class ProcessHandleReflected {
         }
     }
 
+    /**
+     * Gets a future completed when the process exits (by the JVM's process reaper rather than a thread of ours).
+     *
+     * @param process the process
+     * @return the future completed with the process once it exits
+     */
+    static public CompletableFuture<Process> onExit(Process process) {
+        if (!isAvailable()) {
+            throw new UnsupportedOperationException("Process API is not available on this JVM (are you running Java 9+ ?)");
+        }
+
+        try {
+            return (CompletableFuture<Process>)processClassOnExitMethod.invoke(process);
+        } catch (ReflectiveOperationException | SecurityException e) {
+            throw new UnsupportedOperationException(e);
+        }
+    }
+
     static public ProcessHandleReflected current() {
         if (!isAvailable()) {
             throw new UnsupportedOperationException("Process API is not available on this JVM (are you running Java 9+ ?)");
@@ -128,4 +155,21 @@ public class ProcessHandleReflected {
             throw new RuntimeException(e);
         }
     }
+
+    /**
+     * Gets the total (user + system) cpu time of the process, if the OS makes it available.
+     *
+     * @return the total cpu time in millis or null if not available (e.g. the process exited)
+     */
+    public Long totalCpuMillis() {
+        try {
+            final Object info = processHandleClassInfoMethod.invoke(this.instance);
+            final Optional<?> value = (Optional<?>)processHandleInfoClassTotalCpuDurationMethod.invoke(info);
+
+            return value.map(v -> ((Duration)v).toMillis()).orElse(null);
+        } catch (ReflectiveOperationException | SecurityException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
 }
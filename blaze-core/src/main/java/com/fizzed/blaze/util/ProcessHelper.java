@@ -1,11 +1,15 @@
 package com.fizzed.blaze.util;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface ProcessHelper {
 
     void destroy(Process process, long normalTerminationTimeoutMillis) throws InterruptedException;
 
     void destroyWithDescendants(Process process, long normalTerminationTimeoutMillis) throws InterruptedException;
 
+    CompletableFuture<Process> onExit(Process process);
+
     static ProcessHelper get() {
         if (ProcessHelper9.isAvailable()) {
             return new ProcessHelper9();
@@ -14,4 +18,4 @@ public interface ProcessHelper {
         }
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -3,6 +3,9 @@ package com.fizzed.blaze.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 public class ProcessHelper8 implements ProcessHelper {
     static private final Logger log = LoggerFactory.getLogger(ProcessHelper8.class);
 
@@ -27,4 +30,18 @@ public class ProcessHelper8 implements ProcessHelper {
         this.destroy(process, normalTerminationTimeoutMillis);
     }
 
-}
\ No newline at end of file
+    @Override
+    public CompletableFuture<Process> onExit(Process process) {
+        // java 8 has no async exit notification, so a (shared) thread must block waiting for it
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                process.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            return process;
+        }, SharedExecutors.executor());
+    }
+
+}
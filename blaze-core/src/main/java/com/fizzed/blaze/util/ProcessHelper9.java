@@ -4,6 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class ProcessHelper9 implements ProcessHelper {
     static private final Logger log = LoggerFactory.getLogger(ProcessHelper9.class);
@@ -49,4 +50,9 @@ public class ProcessHelper9 implements ProcessHelper {
         this.destroy(handle, normalTerminationTimeoutMillis);
     }
 
-}
\ No newline at end of file
+    @Override
+    public CompletableFuture<Process> onExit(Process process) {
+        return ProcessHandleReflected.onExit(process);
+    }
+
+}
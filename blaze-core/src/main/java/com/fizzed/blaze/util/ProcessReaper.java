@@ -3,48 +3,37 @@ package com.fizzed.blaze.util;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ProcessReaper {
     static private final Logger log = LoggerFactory.getLogger(ProcessReaper.class);
 
-    private boolean shutdownHookAdded;
+    private final AtomicBoolean shutdownHookAdded;
     private final Set<Process> processes;
-    private final ReentrantLock lock;
     private volatile boolean shuttingDown;
 
     static public final ProcessReaper INSTANCE = new ProcessReaper();
 
     public ProcessReaper() {
-        this.processes = new HashSet<>();
-        this.lock = new ReentrantLock();
+        // concurrent so that many processes starting/exiting (e.g. async execs) never contend on a lock
+        this.processes = ConcurrentHashMap.newKeySet();
+        this.shutdownHookAdded = new AtomicBoolean();
         this.shuttingDown = false;
     }
 
     public void register(Process process) {
-        this.lock.lock();
-        try {
-            this.processes.add(process);
+        this.processes.add(process);
 
-            // we will also register ourselves as a shutdown hook upon the first registration
-            if (!shutdownHookAdded) {
-                Runtime.getRuntime().addShutdownHook(this.newShutdownThread());
-                shutdownHookAdded = true;
-            }
-        } finally {
-            this.lock.unlock();
+        // we will also register ourselves as a shutdown hook upon the first registration
+        if (!this.shutdownHookAdded.get() && this.shutdownHookAdded.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(this.newShutdownThread());
         }
     }
 
     public void unregister(Process process) {
-        this.lock.lock();
-        try {
-            this.processes.remove(process);
-        } finally {
-            this.lock.unlock();
-        }
+        this.processes.remove(process);
     }
 
     public boolean isShuttingDown() {
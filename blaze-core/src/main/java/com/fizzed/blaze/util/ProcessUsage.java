@@ -0,0 +1,78 @@
+package com.fizzed.blaze.util;
+
+/**
+ * Resources used by a child process: wall time, user/system cpu time, and peak resident memory. Anything the OS did not
+ * make available is null.  Cpu times and peak memory are sampled while the process runs, so they are a lower bound
+ * for processes that do most of their work in the final moments before exiting.
+ */
+public class ProcessUsage {
+
+    private final long wallMillis;
+    private final Long userCpuMillis;
+    private final Long systemCpuMillis;
+    private final Long totalCpuMillis;
+    private final Long peakRssBytes;
+
+    public ProcessUsage(long wallMillis, Long userCpuMillis, Long systemCpuMillis, Long totalCpuMillis, Long peakRssBytes) {
+        this.wallMillis = wallMillis;
+        this.userCpuMillis = userCpuMillis;
+        this.systemCpuMillis = systemCpuMillis;
+        this.totalCpuMillis = totalCpuMillis;
+        this.peakRssBytes = peakRssBytes;
+    }
+
+    public long getWallMillis() {
+        return wallMillis;
+    }
+
+    public Long getUserCpuMillis() {
+        return userCpuMillis;
+    }
+
+    public Long getSystemCpuMillis() {
+        return systemCpuMillis;
+    }
+
+    /**
+     * Gets the total (user + system) cpu time. Some platforms only provide the total and not its breakdown.
+     *
+     * @return the total cpu time in millis or null if not available
+     */
+    public Long getTotalCpuMillis() {
+        return totalCpuMillis;
+    }
+
+    public Long getPeakRssBytes() {
+        return peakRssBytes;
+    }
+
+    /**
+     * Gets the ratio of cpu time to wall time (e.g. near 1.0 is cpu-bound on one core, near 0.0 is mostly waiting on
+     * i/o, greater than 1.0 used multiple cores).
+     *
+     * @return the ratio or null if the cpu time is not available
+     */
+    public Double getCpuUtilization() {
+        if (this.totalCpuMillis == null || this.wallMillis <= 0) {
+            return null;
+        }
+        return (double)this.totalCpuMillis / (double)this.wallMillis;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("wall ").append(this.wallMillis).append(" ms");
+        if (this.userCpuMillis != null && this.systemCpuMillis != null) {
+            sb.append(", user ").append(this.userCpuMillis).append(" ms");
+            sb.append(", sys ").append(this.systemCpuMillis).append(" ms");
+        } else if (this.totalCpuMillis != null) {
+            sb.append(", cpu ").append(this.totalCpuMillis).append(" ms");
+        }
+        if (this.peakRssBytes != null) {
+            sb.append(", peak rss ").append(this.peakRssBytes / 1024L).append(" KB");
+        }
+        return sb.toString();
+    }
+
+}
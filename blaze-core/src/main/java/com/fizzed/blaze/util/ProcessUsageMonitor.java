@@ -0,0 +1,126 @@
+package com.fizzed.blaze.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the resources used by a running child process.  On Linux the cpu times (including any children it waited on)
+ * and peak resident memory are read from /proc/[pid], otherwise the total cpu time is read from the Java 9+ process
+ * API.  On Java 8 only the wall time is recorded.  All monitors sample on the shared scheduler.
+ */
+public class ProcessUsageMonitor {
+    static private final Logger log = LoggerFactory.getLogger(ProcessUsageMonitor.class);
+
+    static private final long SAMPLE_INTERVAL_MILLIS = 50L;
+    // USER_HZ is 100 on effectively every linux kernel (and is not something we can query w/o native code)
+    static private final long CLOCK_TICKS_PER_SECOND = 100L;
+    static private final Path PROC_DIR = Paths.get("/proc");
+
+    private final long startNanos;
+    private final ProcessHandleReflected handle;
+    private final Path procDir;
+    private final ScheduledFuture<?> future;
+    private volatile Long userCpuMillis;
+    private volatile Long systemCpuMillis;
+    private volatile Long totalCpuMillis;
+    private volatile Long peakRssBytes;
+    private volatile boolean sampleable;
+
+    private ProcessUsageMonitor(Process process) {
+        this.startNanos = System.nanoTime();
+        this.handle = ProcessHandleReflected.isAvailable() ? ProcessHandleReflected.from(process) : null;
+        this.procDir = resolveProcDir(this.handle);
+        this.sampleable = this.handle != null;
+        // sample right away (even short-lived processes will then have something)
+        this.future = this.sampleable
+            ? SharedExecutors.scheduler().scheduleWithFixedDelay(this::sample, 0L, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)
+            : null;
+    }
+
+    static public ProcessUsageMonitor start(Process process) {
+        return new ProcessUsageMonitor(process);
+    }
+
+    static private Path resolveProcDir(ProcessHandleReflected handle) {
+        if (handle == null) {
+            return null;
+        }
+        final Path dir = PROC_DIR.resolve(Long.toString(handle.pid()));
+        return Files.isReadable(dir.resolve("stat")) ? dir : null;
+    }
+
+    private void sample() {
+        if (!this.sampleable) {
+            return;
+        }
+        try {
+            if (this.procDir != null) {
+                this.sampleProc();
+            } else {
+                final Long cpuMillis = this.handle.totalCpuMillis();
+                if (cpuMillis != null) {
+                    this.totalCpuMillis = cpuMillis;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // the process most likely exited (and its /proc dir is gone), the previous sample is the best we have
+            log.trace("Unable to sample process usage (will stop sampling)", e);
+            this.sampleable = false;
+        }
+    }
+
+    private void sampleProc() throws IOException {
+        // format is "pid (comm) state ppid ..." where comm could include spaces or parentheses
+        final String stat = new String(Files.readAllBytes(this.procDir.resolve("stat")), StandardCharsets.US_ASCII);
+        final String[] fields = stat.substring(stat.lastIndexOf(')') + 2).trim().split(" ");
+
+        // fields after comm start at "state" (field 3), so utime (14), stime (15), cutime (16), cstime (17)
+        final long userTicks = Long.parseLong(fields[11]) + Long.parseLong(fields[13]);
+        final long systemTicks = Long.parseLong(fields[12]) + Long.parseLong(fields[14]);
+
+        final Long peakRss = parsePeakRssBytes(Files.readAllLines(this.procDir.resolve("status"), StandardCharsets.US_ASCII));
+
+        this.userCpuMillis = userTicks * 1000L / CLOCK_TICKS_PER_SECOND;
+        this.systemCpuMillis = systemTicks * 1000L / CLOCK_TICKS_PER_SECOND;
+        this.totalCpuMillis = this.userCpuMillis + this.systemCpuMillis;
+        if (peakRss != null) {
+            this.peakRssBytes = peakRss;
+        }
+    }
+
+    static Long parsePeakRssBytes(List<String> statusLines) {
+        for (String line : statusLines) {
+            if (line.startsWith("VmHWM:")) {
+                // e.g. "VmHWM:	    1234 kB"
+                final String value = line.substring(6).trim();
+                final int space = value.indexOf(' ');
+                return Long.parseLong(space > 0 ? value.substring(0, space) : value) * 1024L;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stops sampling and returns the usage of the process.
+     *
+     * @return the usage of the process
+     */
+    public ProcessUsage stop() {
+        final long wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - this.startNanos);
+        if (this.future != null) {
+            this.future.cancel(false);
+        }
+        this.sampleable = false;
+        return new ProcessUsage(wallMillis, this.userCpuMillis, this.systemCpuMillis, this.totalCpuMillis, this.peakRssBytes);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.fizzed.blaze.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors shared across all of blaze (e.g. for timeouts, sampling, and completing async work), so that features
+ * such as per-process timeouts do not need a dedicated thread each. All threads are daemons so they will never prevent
+ * the JVM from exiting.
+ */
+public class SharedExecutors {
+
+    static private class SchedulerHolder {
+        static private final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("blaze-scheduler"));
+    }
+
+    static private class ExecutorHolder {
+        static private final ExecutorService INSTANCE = Executors.newCachedThreadPool(daemonThreadFactory("blaze-async"));
+    }
+
+    /**
+     * Gets the shared scheduler. Scheduled tasks MUST be quick and never block (hand off anything else to
+     * {@link #executor()}), since all of them run on a single thread.
+     *
+     * @return the shared scheduler
+     */
+    static public ScheduledExecutorService scheduler() {
+        return SchedulerHolder.INSTANCE;
+    }
+
+    /**
+     * Gets the shared executor for tasks that may briefly block (e.g. waiting for a process's streams to drain).
+     *
+     * @return the shared executor
+     */
+    static public ExecutorService executor() {
+        return ExecutorHolder.INSTANCE;
+    }
+
+    static private ThreadFactory daemonThreadFactory(String name) {
+        final AtomicInteger counter = new AtomicInteger();
+        return r -> {
+            final Thread thread = new Thread(r, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+}
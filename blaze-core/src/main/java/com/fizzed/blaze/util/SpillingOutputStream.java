@@ -0,0 +1,212 @@
+package com.fizzed.blaze.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An OutputStream that keeps up to a threshold of bytes in memory and then spills the rest of what is written to a
+ * temporary file.  The bytes written can be re-read as many times as needed with {@link #toInputStream()}, and the
+ * temporary file is deleted once this stream is {@link #delete()}'d (or on exit if never deleted).
+ */
+public class SpillingOutputStream extends OutputStream {
+
+    static public final int UNLIMITED = Integer.MAX_VALUE;
+
+    // spill files not yet deleted, which a single shutdown hook deletes (unlike File.deleteOnExit, whose registrations
+    // are never removed and would grow forever in a long-running jvm)
+    static private final Set<Path> SPILL_FILES = ConcurrentHashMap.newKeySet();
+    static private final AtomicBoolean SHUTDOWN_HOOK_ADDED = new AtomicBoolean();
+
+    private final int memoryThreshold;
+    private final MemoryOutputStream memory;
+    private Path spillFile;
+    private OutputStream spillOutput;
+    private long size;
+    private boolean closed;
+
+    public SpillingOutputStream() {
+        this(UNLIMITED);
+    }
+
+    public SpillingOutputStream(int memoryThreshold) {
+        if (memoryThreshold < 0) {
+            throw new IllegalArgumentException("memoryThreshold must be >= 0");
+        }
+        this.memoryThreshold = memoryThreshold;
+        this.memory = new MemoryOutputStream(Math.min(memoryThreshold, 1024));
+    }
+
+    public int getMemoryThreshold() {
+        return memoryThreshold;
+    }
+
+    /**
+     * Gets the temporary file the bytes over the memory threshold were spilled to.
+     *
+     * @return the spill file or null if nothing was spilled
+     */
+    public synchronized Path getSpillFile() {
+        return spillFile;
+    }
+
+    public synchronized boolean isSpilled() {
+        return this.spillFile != null;
+    }
+
+    public synchronized long size() {
+        return this.size;
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        this.write(new byte[] { (byte)b }, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        final int toMemory = (int)Math.min(len, (long)this.memoryThreshold - this.memory.size());
+        if (toMemory > 0) {
+            this.memory.write(b, off, toMemory);
+        }
+        if (toMemory < len) {
+            this.spillOutput().write(b, off + toMemory, len - toMemory);
+        }
+        this.size += len;
+    }
+
+    private OutputStream spillOutput() throws IOException {
+        if (this.closed) {
+            throw new IOException("Stream closed");
+        }
+        if (this.spillOutput == null) {
+            this.spillFile = Files.createTempFile("blaze-capture-", ".tmp");
+            deleteOnExit(this.spillFile);
+            this.spillOutput = new BufferedOutputStream(Files.newOutputStream(this.spillFile), 65536);
+        }
+        return this.spillOutput;
+    }
+
+    @Override
+    public synchronized void flush() throws IOException {
+        if (this.spillOutput != null) {
+            this.spillOutput.flush();
+        }
+    }
+
+    /**
+     * Closes the spill file for writing (if one exists).  The bytes written remain readable until {@link #delete()}.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        this.closed = true;
+        if (this.spillOutput != null) {
+            try {
+                this.spillOutput.close();
+            } finally {
+                this.spillOutput = null;
+            }
+        }
+    }
+
+    /**
+     * Closes and deletes the spill file (if one exists) and discards everything written.
+     */
+    public synchronized void delete() throws IOException {
+        try {
+            this.close();
+            if (this.spillFile != null) {
+                Files.deleteIfExists(this.spillFile);
+                SPILL_FILES.remove(this.spillFile);
+            }
+        } finally {
+            this.spillFile = null;
+            this.memory.reset();
+            this.size = 0;
+        }
+    }
+
+    /**
+     * Creates a new stream to read everything written so far, starting with what is in memory and then continuing
+     * with the spill file.  The memory buffer is not copied.
+     *
+     * @return a new input stream of the bytes written
+     * @throws IOException if the spill file could not be opened
+     */
+    public synchronized InputStream toInputStream() throws IOException {
+        final InputStream memoryInput = this.memory.toInputStream();
+        if (this.spillFile == null) {
+            return memoryInput;
+        }
+        this.flush();
+        return new SequenceInputStream(memoryInput, Files.newInputStream(this.spillFile));
+    }
+
+    public synchronized byte[] toByteArray() throws IOException {
+        if (this.spillFile == null) {
+            return this.memory.toByteArray();
+        }
+        if (this.size > Integer.MAX_VALUE - 8) {
+            throw new IOException("Too many bytes (" + this.size + ") to fit into a byte array");
+        }
+        final byte[] bytes = new byte[(int)this.size];
+        try (InputStream input = this.toInputStream()) {
+            int offset = 0;
+            int read;
+            while (offset < bytes.length && (read = input.read(bytes, offset, bytes.length - offset)) > -1) {
+                offset += read;
+            }
+        }
+        return bytes;
+    }
+
+    public synchronized String toString(Charset charset) throws IOException {
+        if (this.spillFile == null) {
+            // decodes directly from the memory buffer (no intermediate copy)
+            return this.memory.toString(charset.name());
+        }
+        return new String(this.toByteArray(), charset);
+    }
+
+    static private void deleteOnExit(Path file) {
+        SPILL_FILES.add(file);
+        if (!SHUTDOWN_HOOK_ADDED.get() && SHUTDOWN_HOOK_ADDED.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                for (Path spillFile : SPILL_FILES) {
+                    try {
+                        Files.deleteIfExists(spillFile);
+                    } catch (IOException e) {
+                        // best effort
+                    }
+                }
+            }, "blaze-spill-cleanup"));
+        }
+    }
+
+    static boolean isDeletedOnExit(Path file) {
+        return SPILL_FILES.contains(file);
+    }
+
+    static private class MemoryOutputStream extends ByteArrayOutputStream {
+
+        public MemoryOutputStream(int size) {
+            super(size);
+        }
+
+        public synchronized InputStream toInputStream() {
+            return new ByteArrayInputStream(this.buf, 0, this.count);
+        }
+
+    }
+
+}
@@ -0,0 +1,277 @@
+package com.fizzed.blaze.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A pipe for a single producer and a single consumer (e.g. one action's output to the next action's input in a
+ * pipeline). Unlike {@link BytePipe}, neither side takes a lock: the ring buffer's head and tail are volatile indices
+ * owned by the reader and writer respectively, and a side only parks (and is only unparked) when the buffer is empty
+ * or full. Writes are serialized, so a process's stdout and stderr can both safely write to it, though the common case
+ * of a single writer is uncontended.
+ */
+public class SpscBytePipe {
+
+    static public final int DEFAULT_CAPACITY = 65536;
+    // how many times to re-check before parking (the other side is often just about to catch up)
+    static private final int SPINS = 64;
+    // a safety net in case an unpark is ever missed
+    static private final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+
+    private final byte[] buffer;
+    private final int mask;
+    // next position to read (only written by the reader)
+    private volatile long head;
+    // next position to write (only written by the writer)
+    private volatile long tail;
+    private volatile Thread waitingReader;
+    private volatile Thread waitingWriter;
+    private volatile boolean outputClosed;
+    private volatile boolean inputClosed;
+    private final SpscOutputStream output;
+    private final SpscInputStream input;
+
+    public SpscBytePipe() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new pipe.
+     *
+     * @param capacity the capacity of the buffer, which is rounded up to the nearest power of 2
+     */
+    public SpscBytePipe(int capacity) {
+        if (capacity <= 0 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("capacity must be > 0 and <= 2^30");
+        }
+        final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.buffer = new byte[size];
+        this.mask = size - 1;
+        this.output = new SpscOutputStream();
+        this.input = new SpscInputStream();
+    }
+
+    public int getCapacity() {
+        return this.buffer.length;
+    }
+
+    public OutputStream getOutputStream() {
+        return this.output;
+    }
+
+    public InputStream getInputStream() {
+        return this.input;
+    }
+
+    static private void unpark(Thread thread) {
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    public class SpscOutputStream extends OutputStream {
+
+        // the writer's cached copy of head (so the volatile is only read when it looks too full for a write)
+        private long headCache;
+
+        @Override
+        public void close() throws IOException {
+            // closing is like writing (since anyone reading needs to get an EOF)
+            outputClosed = true;
+            unpark(waitingReader);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // nothing is buffered on this side of the pipe
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+            if (outputClosed) {
+                throw new IOException("Pipe output is closed");
+            }
+            if (inputClosed) {
+                throw new BrokenPipeException("Pipe input is closed");
+            }
+
+            final int capacity = buffer.length;
+            long t = tail;
+
+            while (length > 0) {
+                int free = capacity - (int)(t - this.headCache);
+                if (free < length) {
+                    // more may have been read since we last looked
+                    this.headCache = head;
+                    free = capacity - (int)(t - this.headCache);
+                }
+                if (free <= 0) {
+                    free = this.awaitFree(t);
+                }
+
+                final int n = Math.min(free, length);
+                final int index = (int)(t & mask);
+                final int first = Math.min(n, capacity - index);
+                System.arraycopy(bytes, offset, buffer, index, first);
+                if (first < n) {
+                    System.arraycopy(bytes, offset + first, buffer, 0, n - first);
+                }
+
+                offset += n;
+                length -= n;
+                t += n;
+                // publish the bytes written (volatile write orders the copies above before it)
+                tail = t;
+                unpark(waitingReader);
+            }
+        }
+
+        private int awaitFree(long t) throws IOException {
+            final int capacity = buffer.length;
+            int spins = 0;
+            while (true) {
+                if (inputClosed) {
+                    throw new BrokenPipeException("Pipe input is closed");
+                }
+                this.headCache = head;
+                final int free = capacity - (int)(t - this.headCache);
+                if (free > 0) {
+                    return free;
+                }
+                if (spins < SPINS) {
+                    spins++;
+                    Thread.yield();
+                    continue;
+                }
+                waitingWriter = Thread.currentThread();
+                try {
+                    // re-check after announcing we are waiting, so a read in between is not missed
+                    if (capacity - (int)(t - head) <= 0 && !inputClosed) {
+                        LockSupport.parkNanos(this, PARK_NANOS);
+                    }
+                } finally {
+                    waitingWriter = null;
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedIOException("Interrupted while waiting for pipe to be read");
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes) throws IOException {
+            this.write(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.write(new byte[] { (byte)b }, 0, 1);
+        }
+
+    }
+
+    public class SpscInputStream extends InputStream {
+
+        // the reader's cached copy of tail (so the volatile is only read when it looks too empty for a read)
+        private long tailCache;
+
+        @Override
+        public int available() throws IOException {
+            return (int)(tail - head);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // closing is like reading (since anyone waiting to write needs to throw an exception)
+            inputClosed = true;
+            unpark(waitingWriter);
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+
+            final long h = head;
+            int used = (int)(this.tailCache - h);
+            if (used < length) {
+                // more may have been written since we last looked
+                this.tailCache = tail;
+                used = (int)(this.tailCache - h);
+            }
+            if (used <= 0) {
+                used = this.awaitUsed(h);
+                if (used < 0) {
+                    return -1;
+                }
+            }
+
+            final int capacity = buffer.length;
+            final int n = Math.min(used, length);
+            final int index = (int)(h & mask);
+            final int first = Math.min(n, capacity - index);
+            System.arraycopy(buffer, index, bytes, offset, first);
+            if (first < n) {
+                System.arraycopy(buffer, 0, bytes, offset + first, n - first);
+            }
+
+            // release the bytes read back to the writer
+            head = h + n;
+            unpark(waitingWriter);
+
+            return n;
+        }
+
+        private int awaitUsed(long h) throws IOException {
+            int spins = 0;
+            while (true) {
+                this.tailCache = tail;
+                final int used = (int)(this.tailCache - h);
+                if (used > 0) {
+                    return used;
+                }
+                if (outputClosed) {
+                    // anything written before the close must still be read
+                    this.tailCache = tail;
+                    return this.tailCache > h ? (int)(this.tailCache - h) : -1;
+                }
+                if (spins < SPINS) {
+                    spins++;
+                    Thread.yield();
+                    continue;
+                }
+                waitingReader = Thread.currentThread();
+                try {
+                    // re-check after announcing we are waiting, so a write in between is not missed
+                    if (tail == h && !outputClosed) {
+                        LockSupport.parkNanos(this, PARK_NANOS);
+                    }
+                } finally {
+                    waitingReader = null;
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedIOException("Interrupted while waiting for pipe to be written");
+                }
+            }
+        }
+
+        @Override
+        public int read(byte[] bytes) throws IOException {
+            return this.read(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final byte[] b = new byte[1];
+            final int n = this.read(b, 0, 1);
+            return n < 0 ? -1 : (b[0] & 0xFF);
+        }
+
+    }
+
+}
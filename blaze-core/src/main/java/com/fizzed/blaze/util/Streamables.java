@@ -218,6 +218,19 @@ public class Streamables {
             return new CaptureOutput(nullOutput());
         }
     }
+
+    /**
+     * Captures output, but only keeps up to memoryThreshold bytes in memory and spills the rest to a temp file. The
+     * temp file survives closing the capture (so it can still be read), call {@link CaptureOutput#delete()} once done
+     * w/ it to delete it (otherwise it is only deleted on exit).
+     *
+     * @param includeStdOut whether stdout also receives a copy of the captured output
+     * @param memoryThreshold the max number of bytes to keep in memory
+     * @return the capture output
+     */
+    static public CaptureOutput captureOutput(boolean includeStdOut, int memoryThreshold) {
+        return new CaptureOutput(includeStdOut ? standardOutput() : nullOutput(), memoryThreshold);
+    }
     
     static public StreamableOutput lineOutput(LineOutputStream.Processor processor) {
         return lineOutput(processor, null);
@@ -246,25 +259,41 @@ public class Streamables {
         }
     }
 
-    static public void copy(StreamableInput input, StreamableOutput output) throws IOException {
-        copy(input, output, 16384);
+    /**
+     * Closes the underlying stream of a streamable (e.g. to signal EOF), but not the streamable itself, so that it
+     * remains usable (e.g. a capture output can still be read).
+     *
+     * @param streamable the streamable or null
+     * @throws BlazeException if the stream could not be closed
+     */
+    static public void closeStream(Streamable<? extends Closeable> streamable) throws BlazeException {
+        if (streamable != null) {
+            close(streamable.stream());
+        }
     }
-    
-    static public void copy(StreamableInput input, StreamableOutput output, int bufferSize) throws IOException {
-        copy(input.stream(), output.stream(), bufferSize);
+
+    static public void closeStreamQuietly(Streamable<? extends Closeable> streamable) {
+        if (streamable != null) {
+            closeQuietly(streamable.stream());
+        }
     }
-    
-    static private void copy(InputStream input, OutputStream output) throws IOException {
-        copy(input, output, 16384);
+
+    static public void copy(StreamableInput input, StreamableOutput output) throws IOException {
+        copy(input, output, IoHelper.DEFAULT_BUFFER_SIZE);
     }
     
-    static private void copy(InputStream input, OutputStream output, int bufferSize) throws IOException {
-        int read;
-        byte[] buffer = new byte[bufferSize];
-        while ((read = input.read(buffer)) > -1) {
-            output.write(buffer, 0, read);
-        }
-        output.flush();
+    /**
+     * Copies the input to the output. If both are files, the data is transferred by the kernel w/o being copied thru
+     * the JVM (see {@link IoHelper}), otherwise it's copied thru a buffer of the size specified.
+     *
+     * @param input the input
+     * @param output the output
+     * @param bufferSize the size of the buffer if the data is copied thru the JVM
+     * @throws IOException if an exception occurs while reading or writing
+     */
+    static public void copy(StreamableInput input, StreamableOutput output, int bufferSize) throws IOException {
+        IoHelper.copy(input.stream(), output.stream(), bufferSize);
+        output.stream().flush();
     }
     
 }
@@ -0,0 +1,142 @@
+package com.fizzed.blaze.util;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Streaming XXH64, a very fast non-cryptographic 64-bit hash (several GB/s per core, so hashing a file is typically
+ * bound by I/O rather than cpu). Useful to detect if content changed, but not to protect against anyone deliberately
+ * producing a collision (use SHA-256 for that).
+ */
+public class Xxh64 {
+
+    static private final long PRIME1 = 0x9E3779B185EBCA87L;
+    static private final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    static private final long PRIME3 = 0x165667B19E3779F9L;
+    static private final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    static private final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    private final long seed;
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+    private long length;
+    // a partial stripe not yet processed
+    private final ByteBuffer pending;
+
+    public Xxh64() {
+        this(0L);
+    }
+
+    public Xxh64(long seed) {
+        this.seed = seed;
+        this.pending = ByteBuffer.allocate(32).order(ByteOrder.LITTLE_ENDIAN);
+        this.reset();
+    }
+
+    public void reset() {
+        this.v1 = this.seed + PRIME1 + PRIME2;
+        this.v2 = this.seed + PRIME2;
+        this.v3 = this.seed;
+        this.v4 = this.seed - PRIME1;
+        this.length = 0L;
+        ((Buffer)this.pending).clear();
+    }
+
+    public void update(byte[] bytes, int offset, int length) {
+        this.update(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * Hashes the remaining bytes of the buffer (e.g. a memory-mapped file), leaving its position at its limit.
+     *
+     * @param buffer the buffer
+     */
+    public void update(ByteBuffer buffer) {
+        this.length += buffer.remaining();
+
+        final ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            // finish a partial stripe first
+            if (this.pending.position() > 0) {
+                while (this.pending.hasRemaining() && buffer.hasRemaining()) {
+                    this.pending.put(buffer.get());
+                }
+                if (this.pending.hasRemaining()) {
+                    return;
+                }
+                ((Buffer)this.pending).flip();
+                this.stripe(this.pending);
+                ((Buffer)this.pending).clear();
+            }
+
+            while (buffer.remaining() >= 32) {
+                this.stripe(buffer);
+            }
+
+            this.pending.put(buffer);
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    private void stripe(ByteBuffer buffer) {
+        this.v1 = round(this.v1, buffer.getLong());
+        this.v2 = round(this.v2, buffer.getLong());
+        this.v3 = round(this.v3, buffer.getLong());
+        this.v4 = round(this.v4, buffer.getLong());
+    }
+
+    public long digest() {
+        long h;
+        if (this.length >= 32) {
+            h = Long.rotateLeft(this.v1, 1) + Long.rotateLeft(this.v2, 7)
+                + Long.rotateLeft(this.v3, 12) + Long.rotateLeft(this.v4, 18);
+            h = mergeRound(h, this.v1);
+            h = mergeRound(h, this.v2);
+            h = mergeRound(h, this.v3);
+            h = mergeRound(h, this.v4);
+        } else {
+            h = this.seed + PRIME5;
+        }
+
+        h += this.length;
+
+        final ByteBuffer tail = this.pending.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        ((Buffer)tail).flip();
+        while (tail.remaining() >= 8) {
+            h ^= round(0L, tail.getLong());
+            h = Long.rotateLeft(h, 27) * PRIME1 + PRIME4;
+        }
+        if (tail.remaining() >= 4) {
+            h ^= (tail.getInt() & 0xFFFFFFFFL) * PRIME1;
+            h = Long.rotateLeft(h, 23) * PRIME2 + PRIME3;
+        }
+        while (tail.hasRemaining()) {
+            h ^= (tail.get() & 0xFFL) * PRIME5;
+            h = Long.rotateLeft(h, 11) * PRIME1;
+        }
+
+        h ^= h >>> 33;
+        h *= PRIME2;
+        h ^= h >>> 29;
+        h *= PRIME3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    static private long round(long acc, long input) {
+        acc += input * PRIME2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME1;
+    }
+
+    static private long mergeRound(long acc, long value) {
+        acc ^= round(0L, value);
+        return acc * PRIME1 + PRIME4;
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.fizzed.blaze.system;
+
+import com.fizzed.blaze.core.BlazeException;
+import com.fizzed.blaze.util.FileFingerprints;
+import com.fizzed.blaze.util.FileFingerprints.Algorithm;
+import com.fizzed.blaze.util.Globber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Map;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ChecksumTest extends TestAbstractBase {
+
+    private Path testChecksumDir;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        this.testChecksumDir = this.createDir(this.targetDir.resolve("checksum-test"));
+    }
+
+    static private String hex(String algorithm, String text) throws Exception {
+        return FileFingerprints.toHex(MessageDigest.getInstance(algorithm).digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void manifestAndVerify() throws Exception {
+        final Path release = this.createDir(this.testChecksumDir.resolve("release"));
+        this.createDir(release.resolve("lib"));
+        final Path a = this.createFile(release.resolve("a.tar.gz"), "a");
+        final Path b = this.createFile(release.resolve("lib/b.jar"), "b");
+        final Path manifest = this.testChecksumDir.resolve("SHA256SUMS");
+
+        final Map<Path,String> digests = new Checksum(this.context)
+            .paths(a, b)
+            .relativeTo(release)
+            .manifest(manifest)
+            .run();
+
+        assertThat(digests.get(a), is(hex("SHA-256", "a")));
+        assertThat(digests.get(b), is(hex("SHA-256", "b")));
+        assertThat(Files.readAllLines(manifest), is(asList(
+            hex("SHA-256", "a") + "  a.tar.gz", hex("SHA-256", "b") + "  lib/b.jar")));
+
+        // the files are relative to the release dir (not the dir of the manifest)
+        final Map<Path,String> verified = new Checksum(this.context)
+            .verify(manifest)
+            .relativeTo(release)
+            .run();
+
+        assertThat(verified.size(), is(2));
+
+        this.createFile(b, "changed");
+
+        BlazeException e = assertThrows(BlazeException.class, () -> {
+            new Checksum(this.context).verify(manifest).relativeTo(release).run();
+        });
+        assertThat(e.getMessage(), containsString("1 of 2"));
+        assertThat(e.getMessage(), containsString("b.jar"));
+        assertThat(e.getMessage(), not(containsString("a.tar.gz")));
+
+        Files.delete(a);
+
+        e = assertThrows(BlazeException.class, () -> {
+            new Checksum(this.context).verify(manifest).relativeTo(release).run();
+        });
+        assertThat(e.getMessage(), containsString("2 of 2"));
+        assertThat(e.getMessage(), containsString("a.tar.gz (missing)"));
+    }
+
+    @Test
+    public void manifestEscapesNames() throws Exception {
+        // names w/ a backslash or newline are only valid on some filesystems
+        assumeTrue("/".equals(this.testChecksumDir.getFileSystem().getSeparator()));
+
+        final Path a = this.createFile(this.testChecksumDir.resolve("a\\b.txt"), "a");
+        final Path b = this.createFile(this.testChecksumDir.resolve("c\nd.txt"), "b");
+        final Path c = this.createFile(this.testChecksumDir.resolve("e.txt"), "c");
+        final Path manifest = this.testChecksumDir.resolve("SHA256SUMS");
+
+        new Checksum(this.context)
+            .paths(a, b, c)
+            .relativeTo(this.testChecksumDir)
+            .manifest(manifest)
+            .run();
+
+        // the same as sha256sum
+        assertThat(Files.readAllLines(manifest), is(asList(
+            "\\" + hex("SHA-256", "a") + "  a\\\\b.txt",
+            "\\" + hex("SHA-256", "b") + "  c\\nd.txt",
+            hex("SHA-256", "c") + "  e.txt")));
+
+        final Map<Path,String> verified = new Checksum(this.context)
+            .verify(manifest)
+            .run();
+
+        assertThat(verified.get(this.testChecksumDir.toAbsolutePath().resolve("a\\b.txt")), is(hex("SHA-256", "a")));
+        assertThat(verified.get(this.testChecksumDir.toAbsolutePath().resolve("c\nd.txt")), is(hex("SHA-256", "b")));
+        assertThat(verified.size(), is(3));
+    }
+
+    @Test
+    public void verifyRelativeToManifest() throws Exception {
+        this.createFile(this.testChecksumDir.resolve("a.txt"), "a");
+        final Path manifest = this.createFile(this.testChecksumDir.resolve("MD5SUMS"),
+            "# comment\n" + hex("MD5", "a").toUpperCase() + " *a.txt\n");
+
+        final Map<Path,String> verified = new Checksum(this.context)
+            .algorithm(Algorithm.MD5)
+            .verify(manifest)
+            .run();
+
+        assertThat(verified.get(this.testChecksumDir.toAbsolutePath().resolve("a.txt")), is(hex("MD5", "a")));
+    }
+
+    @Test
+    public void parallelSameAsSequential() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            this.createFile(this.testChecksumDir.resolve("f" + i + ".txt"), "file " + i);
+        }
+        // larger than what is read rather than memory-mapped
+        final StringBuilder sb = new StringBuilder();
+        while (sb.length() < 3 * 1024 * 1024) {
+            sb.append("some more content\n");
+        }
+        this.createFile(this.testChecksumDir.resolve("large.bin"), sb.toString());
+
+        final Map<Path,String> sequential = new Checksum(this.context)
+            .algorithm(Algorithm.SHA512)
+            .paths(this.testChecksumDir)
+            .parallel(1)
+            .run();
+
+        final Map<Path,String> parallel = new Checksum(this.context)
+            .algorithm(Algorithm.SHA512)
+            .paths(Globber.globber(this.testChecksumDir, "*"))
+            .parallel(4)
+            .run();
+
+        assertThat(sequential.size(), is(51));
+        assertThat(parallel, is(sequential));
+        assertThat(sequential.get(this.testChecksumDir.resolve("f7.txt")), is(hex("SHA-512", "file 7")));
+        assertThat(sequential.get(this.testChecksumDir.resolve("large.bin")), is(hex("SHA-512", sb.toString())));
+    }
+
+}
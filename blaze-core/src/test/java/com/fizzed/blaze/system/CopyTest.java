@@ -10,6 +10,10 @@ import org.junit.jupiter.api.Test;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Random;
 
 import static com.fizzed.blaze.util.Globber.globber;
 import static org.hamcrest.CoreMatchers.is;
@@ -301,4 +305,279 @@ public class CopyTest extends TestAbstractBase {
         assertThat(Files.isRegularFile(targetDir.resolve("subdir/test.kt")), is(true));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void dirToDirParallelMatchesSequential() throws Exception {
+        // a tree w/ several levels of dirs and files
+        final Path sourceDir = createDir(this.testCopyDir.resolve("dirToDirParallel"));
+        for (int i = 0; i < 5; i++) {
+            final Path subDir = createDir(sourceDir.resolve("sub" + i));
+            createFile(sourceDir.resolve("file" + i + ".txt"), "file" + i);
+            for (int j = 0; j < 4; j++) {
+                final Path subSubDir = createDir(subDir.resolve("subsub" + j));
+                createFile(subDir.resolve("file" + j + ".txt"), "sub" + i + "file" + j);
+                createFile(subSubDir.resolve("leaf.txt"), "leaf" + i + j);
+            }
+        }
+
+        final Path sequentialDir = this.testCopyDir.resolve("dirToDirParallelSequentialTo");
+        final Path parallelDir = createDir(this.testCopyDir.resolve("dirToDirParallelTo"));
+        FileUtils.deleteDirectory(sequentialDir.toFile());
+
+        final Copy.Result sequential = new Copy(this.context)
+            .sources(sourceDir)
+            .target(sequentialDir)
+            .recursive()
+            .runResult();
+
+        final Copy.Result parallel = new Copy(this.context)
+            .sources(sourceDir)
+            .target(parallelDir)
+            .recursive()
+            .parallel(4)
+            .runResult();
+
+        assertThat(sequential.getDirsCreated(), is(26));
+        assertThat(sequential.getFilesCopied(), is(45));
+        assertThat(parallel.getDirsCreated(), is(sequential.getDirsCreated()));
+        assertThat(parallel.getFilesCopied(), is(sequential.getFilesCopied()));
+        assertThat(parallel.getFilesOverwritten(), is(0));
+        assertThat(FileUtils.readFileToString(parallelDir.resolve("dirToDirParallel/sub3/subsub2/leaf.txt").toFile(), StandardCharsets.UTF_8), is("leaf32"));
+        assertThat(FileUtils.readFileToString(parallelDir.resolve("dirToDirParallel/sub1/file2.txt").toFile(), StandardCharsets.UTF_8), is("sub1file2"));
+
+        // again, but now everything exists
+        assertThrows(BlazeException.class, () -> {
+            new Copy(this.context)
+                .sources(sourceDir)
+                .target(parallelDir)
+                .recursive()
+                .parallel(4)
+                .run();
+        });
+
+        final Copy.Result forced = new Copy(this.context)
+            .sources(sourceDir)
+            .target(parallelDir)
+            .recursive()
+            .force()
+            .parallel(4)
+            .runResult();
+
+        assertThat(forced.getDirsCreated(), is(0));
+        assertThat(forced.getFilesCopied(), is(0));
+        assertThat(forced.getFilesOverwritten(), is(45));
+    }
+
+    @Test
+    public void dirToDirUpdate() throws Exception {
+        final Path sourceDir = createDir(this.testCopyDir.resolve("dirToDirUpdate"));
+        final Path sourceFile1 = createFile(sourceDir.resolve("test1.txt"), "hello");
+        final Path sourceSubDir = createDir(sourceDir.resolve("subdir"));
+        final Path sourceFile2 = createFile(sourceSubDir.resolve("test2.txt"), "world");
+        final Path sourceFile3 = createFile(sourceSubDir.resolve("test3.txt"), "unchanged");
+        final Path targetDir = createDir(this.testCopyDir.resolve("dirToDirUpdateTo"));
+
+        final Copy.Result first = new Copy(this.context)
+            .sources(sourceDir)
+            .target(targetDir)
+            .recursive()
+            .update()
+            .runResult();
+
+        assertThat(first.getDirsCreated(), is(2));
+        assertThat(first.getFilesCopied(), is(3));
+        // source mtimes are preserved
+        assertThat(Files.getLastModifiedTime(targetDir.resolve("dirToDirUpdate/subdir/test3.txt")),
+            is(Files.getLastModifiedTime(sourceFile3)));
+
+        // change the size of one, and only the mtime of another
+        createFile(sourceFile1, "hello there");
+        Files.setLastModifiedTime(sourceFile2, FileTime.fromMillis(Files.getLastModifiedTime(sourceFile2).toMillis() + 5000L));
+
+        // force is not required w/ update
+        final Copy.Result second = new Copy(this.context)
+            .sources(sourceDir)
+            .target(targetDir)
+            .recursive()
+            .update()
+            .runResult();
+
+        assertThat(second.getDirsCreated(), is(0));
+        assertThat(second.getFilesCopied(), is(0));
+        assertThat(second.getFilesOverwritten(), is(2));
+        assertThat(second.getFilesSkipped(), is(1));
+        assertThat(FileUtils.readFileToString(targetDir.resolve("dirToDirUpdate/test1.txt").toFile(), StandardCharsets.UTF_8), is("hello there"));
+
+        // and in parallel nothing has changed
+        final Copy.Result third = new Copy(this.context)
+            .sources(sourceDir)
+            .target(targetDir)
+            .recursive()
+            .update()
+            .parallel(2)
+            .runResult();
+
+        assertThat(third.getFilesOverwritten(), is(0));
+        assertThat(third.getFilesSkipped(), is(3));
+    }
+
+    @Test
+    public void fileToFileUpdateChecksum() throws Exception {
+        final Path sourceFile = createFile(this.testCopyDir.resolve("fileToFileUpdateChecksum.txt"), "hello");
+        final Path targetDir = createDir(this.testCopyDir.resolve("fileToFileUpdateChecksum"));
+        // same size and mtime, but different content
+        final Path targetFile = createFile(targetDir.resolve("target.txt"), "jello");
+        Files.setLastModifiedTime(targetFile, Files.getLastModifiedTime(sourceFile));
+
+        final Copy.Result quick = new Copy(this.context)
+            .sources(sourceFile)
+            .target(targetFile)
+            .update()
+            .runResult();
+
+        assertThat(quick.getFilesSkipped(), is(1));
+        assertThat(FileUtils.readFileToString(targetFile.toFile(), StandardCharsets.UTF_8), is("jello"));
+
+        final Copy.Result checksum = new Copy(this.context)
+            .sources(sourceFile)
+            .target(targetFile)
+            .update()
+            .checksum()
+            .runResult();
+
+        assertThat(checksum.getFilesSkipped(), is(0));
+        assertThat(checksum.getFilesOverwritten(), is(1));
+        assertThat(FileUtils.readFileToString(targetFile.toFile(), StandardCharsets.UTF_8), is("hello"));
+    }
+
+    @Test
+    public void fileToFileUpdateChecksumAfterContentChanged() throws Exception {
+        final Path sourceDir = createDir(this.testCopyDir.resolve("fileToFileUpdateChecksumChanged"));
+        final Path sourceFile = createFile(sourceDir.resolve("source.txt"), "hello");
+        final FileTime lastModified = FileTime.fromMillis(System.currentTimeMillis() - 60000L);
+        Files.setLastModifiedTime(sourceFile, lastModified);
+        final Path targetDir = createDir(this.testCopyDir.resolve("fileToFileUpdateChecksumChangedTo"));
+        final Path targetFile = createFile(targetDir.resolve("target.txt"), "hello");
+        Files.setLastModifiedTime(targetFile, lastModified);
+
+        final Copy.Result first = new Copy(this.context)
+            .sources(sourceFile)
+            .target(targetFile)
+            .update()
+            .checksum()
+            .runResult();
+
+        assertThat(first.getFilesSkipped(), is(1));
+
+        // same size, mtime and inode, but different content (which is what checksum mode is for)
+        Files.write(targetFile, "jello".getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+        Files.setLastModifiedTime(targetFile, lastModified);
+
+        final Copy.Result second = new Copy(this.context)
+            .sources(sourceFile)
+            .target(targetFile)
+            .update()
+            .checksum()
+            .runResult();
+
+        assertThat(second.getFilesOverwritten(), is(1));
+        assertThat(FileUtils.readFileToString(targetFile.toFile(), StandardCharsets.UTF_8), is("hello"));
+    }
+
+    @Test
+    public void dirToDirLinkStrategy() throws Exception {
+        final Path sourceDir = createDir(this.testCopyDir.resolve("dirToDirLink"));
+        final Path sourceFile1 = createFile(sourceDir.resolve("test1.txt"), "hello");
+        final Path sourceSubDir = createDir(sourceDir.resolve("subdir"));
+        final Path sourceFile2 = createFile(sourceSubDir.resolve("test2.txt"), "world");
+        final Path targetDir = this.testCopyDir.resolve("dirToDirLinkTo");
+        FileUtils.deleteDirectory(targetDir.toFile());
+
+        final Copy.Result result = new Copy(this.context)
+            .sources(sourceDir)
+            .target(targetDir)
+            .recursive()
+            .strategy(Copy.Strategy.LINK)
+            .parallel(2)
+            .runResult();
+
+        assertThat(result.getDirsCreated(), is(2));
+        assertThat(result.getFilesCopied(), is(2));
+        // same filesystem, so these are hardlinks
+        assertThat(Files.isSameFile(sourceFile1, targetDir.resolve("test1.txt")), is(true));
+        assertThat(Files.isSameFile(sourceFile2, targetDir.resolve("subdir/test2.txt")), is(true));
+
+        // linking a file again into the same dir is not the "same file" as far as copying is concerned
+        final Copy.Result again = new Copy(this.context)
+            .sources(sourceFile1)
+            .target(targetDir)
+            .strategy(Copy.Strategy.LINK)
+            .update()
+            .runResult();
+
+        assertThat(again.getFilesSkipped(), is(1));
+    }
+
+    @Test
+    public void fileToFileReflinkStrategy() throws Exception {
+        // large enough to attempt a clone (which falls back to a copy if the filesystem can't)
+        final byte[] data = new byte[2 * 1024 * 1024];
+        new Random(1).nextBytes(data);
+        final Path sourceFile = this.testCopyDir.resolve("fileToFileReflink.bin");
+        Files.write(sourceFile, data);
+        final Path targetDir = createDir(this.testCopyDir.resolve("fileToFileReflink"));
+        final Path targetFile = targetDir.resolve("target.bin");
+        final Path smallSourceFile = createFile(this.testCopyDir.resolve("fileToFileReflink.txt"), "small");
+
+        new Copy(this.context)
+            .sources(sourceFile)
+            .target(targetFile)
+            .strategy(Copy.Strategy.REFLINK)
+            .run();
+
+        new Copy(this.context)
+            .sources(smallSourceFile)
+            .target(targetDir)
+            .strategy(Copy.Strategy.REFLINK)
+            .run();
+
+        assertThat(Files.isSameFile(sourceFile, targetFile), is(false));
+        assertThat(Arrays.equals(Files.readAllBytes(targetFile), data), is(true));
+        assertThat(FileUtils.readFileToString(targetDir.resolve("fileToFileReflink.txt").toFile(), StandardCharsets.UTF_8), is("small"));
+    }
+
+    @Test
+    public void dirToDirRespectGitignore() throws Exception {
+        final Path sourceDir = createDir(this.testCopyDir.resolve("dirToDirGitignore"));
+        createDir(sourceDir.resolve(".git"));
+        createFile(sourceDir.resolve(".git/config"), "x");
+        createFile(sourceDir.resolve(".gitignore"), "build/\n*.log\n");
+        createFile(sourceDir.resolve("a.txt"), "a");
+        createFile(sourceDir.resolve("a.log"), "a");
+        createDir(sourceDir.resolve("build"));
+        createFile(sourceDir.resolve("build/out.bin"), "b");
+        createDir(sourceDir.resolve("sub"));
+        createFile(sourceDir.resolve("sub/b.txt"), "b");
+
+        for (int parallelism : new int[] { 1, 2 }) {
+            final Path targetDir = this.testCopyDir.resolve("dirToDirGitignoreTo" + parallelism);
+            FileUtils.deleteDirectory(targetDir.toFile());
+
+            final Copy.Result result = new Copy(this.context)
+                .sources(sourceDir)
+                .target(targetDir)
+                .recursive()
+                .respectGitignore()
+                .parallel(parallelism)
+                .runResult();
+
+            assertThat(result.getFilesCopied(), is(3));
+            assertThat(Files.exists(targetDir.resolve("a.txt")), is(true));
+            assertThat(Files.exists(targetDir.resolve("sub/b.txt")), is(true));
+            assertThat(Files.exists(targetDir.resolve(".gitignore")), is(true));
+            assertThat(Files.exists(targetDir.resolve("a.log")), is(false));
+            assertThat(Files.exists(targetDir.resolve("build")), is(false));
+            assertThat(Files.exists(targetDir.resolve(".git")), is(false));
+        }
+    }
+
+}
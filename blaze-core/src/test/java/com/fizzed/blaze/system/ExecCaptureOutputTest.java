@@ -60,4 +60,19 @@ public class ExecCaptureOutputTest {
         assertThat(output.toString().trim(), is("Hello World 7586930100"));
     }
     
+    @Test
+    public void runCaptureOutputWithMemoryThreshold() throws Exception {
+        try (CaptureOutput output =
+            new LocalExec(new DefaultContext())
+                .command("hello-world-test")
+                .path(getBinDirAsResource())
+                .disablePipeInput()
+                .disablePipeError()
+                .runCaptureOutput(false, 5)) {
+
+            assertThat(output.isSpilled(), is(true));
+            assertThat(output.asString().trim(), is("Hello World 7586930100"));
+        }
+    }
+
 }
@@ -15,7 +15,9 @@
  */
 package com.fizzed.blaze.system;
 
+import com.fizzed.blaze.core.ExecTimeoutException;
 import com.fizzed.blaze.core.ExecutableNotFoundException;
+import com.fizzed.blaze.core.UnexpectedExitValueException;
 import com.fizzed.blaze.Config;
 import com.fizzed.blaze.internal.ContextImpl;
 import static com.fizzed.blaze.system.ShellTestHelper.getBinDirAsResource;
@@ -30,6 +32,13 @@ import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,6 +46,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.spy;
@@ -158,4 +174,144 @@ public class ExecTest {
         assertThat(output.trim(), is("hello dude"));
     }
 
+    @Test
+    public void runLines() throws Exception {
+        final List<String> lines;
+        try (Stream<String> stream = new LocalExec(context)
+                .command("hello-world-test")
+                .path(getBinDirAsResource())
+                .runLines()) {
+            lines = stream.collect(Collectors.toList());
+        }
+
+        assertThat(lines, hasSize(1));
+        assertThat(lines.get(0).trim(), is("Hello World 7586930100"));
+    }
+
+    @Test
+    public void runLinesUnexpectedExitValue() throws Exception {
+        assertThrows(UnexpectedExitValueException.class, () -> {
+            try (Stream<String> stream = new LocalExec(context)
+                    .command("hello-world-test")
+                    .path(getBinDirAsResource())
+                    .exitValues(1)
+                    .runLines()) {
+                stream.forEach(line -> {});
+            }
+        });
+    }
+
+    @Test
+    public void runLinesClosedEarlyTerminatesProcess() throws Exception {
+        final long started = System.currentTimeMillis();
+
+        // this script would otherwise run for a very long time
+        try (Stream<String> stream = new LocalExec(context)
+                .command("echo-sleep-test")
+                .path(getBinDirAsResource())
+                .runLines()) {
+            String firstLine = stream.findFirst().orElse(null);
+            assertThat(firstLine, startsWith("Iteration 1"));
+        }
+
+        assertThat(System.currentTimeMillis() - started, lessThan(15000L));
+    }
+
+    @Test
+    public void runRecordUsage() throws Exception {
+        final Exec.Result result = new LocalExec(context)
+            .command("hello-world-test")
+            .path(getBinDirAsResource())
+            .pipeOutput(Streamables.nullOutput())
+            .recordUsage()
+            .runResult();
+
+        assertThat(result.get(), is(0));
+        assertThat(result.getUsage(), is(notNullValue()));
+        assertThat(result.getUsage().getWallMillis(), greaterThanOrEqualTo(0L));
+    }
+
+    @Test
+    public void runWithoutRecordUsage() throws Exception {
+        final Exec.Result result = new LocalExec(context)
+            .command("hello-world-test")
+            .path(getBinDirAsResource())
+            .pipeOutput(Streamables.nullOutput())
+            .runResult();
+
+        assertThat(result.getUsage(), is(nullValue()));
+    }
+
+    @Test
+    public void runAsync() throws Exception {
+        final List<CompletableFuture<Exec.Result>> futures = new ArrayList<>();
+        final List<CaptureOutput> captures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final CaptureOutput capture = Streamables.captureOutput(false);
+            captures.add(capture);
+            futures.add(new LocalExec(context)
+                .command("hello-world-test")
+                .path(getBinDirAsResource())
+                .pipeOutput(capture)
+                .runAsync());
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(futures.get(i).get().get(), is(0));
+            assertThat(captures.get(i).toString().trim(), is("Hello World 7586930100"));
+        }
+    }
+
+    @Test
+    public void runAsyncUnexpectedExitValue() throws Exception {
+        final CompletableFuture<Exec.Result> future = new LocalExec(context)
+            .command("hello-world-test")
+            .path(getBinDirAsResource())
+            .pipeOutput(Streamables.nullOutput())
+            .exitValues(1)
+            .runAsync();
+
+        final ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(30, TimeUnit.SECONDS));
+
+        assertThat(e.getCause(), instanceOf(UnexpectedExitValueException.class));
+    }
+
+    @Test
+    public void runTimeout() throws Exception {
+        final long started = System.currentTimeMillis();
+
+        // this script would otherwise run for a very long time
+        assertThrows(ExecTimeoutException.class, () -> {
+            new LocalExec(context)
+                .command("echo-sleep-test")
+                .path(getBinDirAsResource())
+                .pipeOutput(Streamables.nullOutput())
+                .timeout(1000L)
+                .run();
+        });
+
+        assertThat(System.currentTimeMillis() - started, lessThan(15000L));
+    }
+
+    @Test
+    public void pipelineHeadStopsUpstream() throws Exception {
+        final long started = System.currentTimeMillis();
+        final CaptureOutput capture = Streamables.captureOutput();
+
+        // this script would otherwise run for a very long time, but once head has its lines, its output is closed
+        new Pipeline(context)
+            .add(new LocalExec(context)
+                .command("echo-sleep-test")
+                .path(getBinDirAsResource()))
+            .add(new Head(context)
+                .count(2))
+            .pipeOutput(capture)
+            .run();
+
+        assertThat(capture.asString(), is("Iteration 1 (will now sleep for 1 sec)\r\nIteration 2 (will now sleep for 1 sec)\r\n"));
+        assertThat(System.currentTimeMillis() - started, lessThan(15000L));
+    }
+
 }
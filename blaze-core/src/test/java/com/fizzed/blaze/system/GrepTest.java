@@ -0,0 +1,151 @@
+package com.fizzed.blaze.system;
+
+import com.fizzed.blaze.util.Globber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class GrepTest extends TestAbstractBase {
+
+    private Path testGrepDir;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        this.testGrepDir = this.createDir(this.targetDir.resolve("grep-test"));
+    }
+
+    static private List<String> format(List<Grep.Match> matches, Path dir) {
+        return matches.stream()
+            .map(m -> dir.relativize(m.getFile()) + ":" + m.getLineNumber() + ":" + m.getLine())
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void grep() throws Exception {
+        final Path a = this.createFile(this.testGrepDir.resolve("a.txt"), "hello\n// TODO: first\nworld\r\n  TODO: second\r\nTODO:\n");
+        final Path b = this.createFile(this.testGrepDir.resolve("b.txt"), "nothing\nTODO: last");
+
+        // the literal "TODO:" is searched for first
+        List<Grep.Match> matches = new Grep(this.context)
+            .pattern("TODO:\\s+\\w+")
+            .paths(a, b)
+            .run();
+
+        assertThat(format(matches, this.testGrepDir), is(asList(
+            "a.txt:2:// TODO: first", "a.txt:4:  TODO: second", "b.txt:2:TODO: last")));
+
+        // w/o a literal every line is matched
+        matches = new Grep(this.context)
+            .pattern("^\\w+$")
+            .paths(a, b)
+            .run();
+
+        assertThat(format(matches, this.testGrepDir), is(asList(
+            "a.txt:1:hello", "a.txt:3:world", "b.txt:1:nothing")));
+    }
+
+    @Test
+    public void directoriesAndGlobber() throws Exception {
+        this.createDir(this.testGrepDir.resolve("src"));
+        this.createFile(this.testGrepDir.resolve("src/a.java"), "class A { /* TODO */ }\n");
+        this.createFile(this.testGrepDir.resolve("src/b.txt"), "TODO\n");
+        this.createFile(this.testGrepDir.resolve("c.java"), "TODO\n");
+        // binary files are skipped
+        Files.write(this.testGrepDir.resolve("src/d.bin"), new byte[] { 'T', 'O', 'D', 'O', 0, '\n' });
+
+        List<Grep.Match> matches = new Grep(this.context)
+            .pattern("TODO")
+            .paths(this.testGrepDir)
+            .run();
+
+        assertThat(format(matches, this.testGrepDir), is(asList(
+            "c.java:1:TODO", "src/a.java:1:class A { /* TODO */ }", "src/b.txt:1:TODO")));
+
+        matches = new Grep(this.context)
+            .pattern("TODO")
+            .paths(Globber.globber(this.testGrepDir, "src/*.java"))
+            .run();
+
+        assertThat(format(matches, this.testGrepDir), is(asList("src/a.java:1:class A { /* TODO */ }")));
+    }
+
+    @Test
+    public void largeFileParallelSameAsSequential() throws Exception {
+        // larger than what is read rather than memory-mapped
+        final Path large = this.testGrepDir.resolve("large.txt");
+        try (BufferedWriter writer = Files.newBufferedWriter(large, StandardCharsets.UTF_8)) {
+            for (int i = 1; i <= 100000; i++) {
+                writer.write("line " + i + " of some text" + (i % 997 == 0 ? " needle " + i : "") + "\n");
+            }
+        }
+        for (int i = 0; i < 10; i++) {
+            this.createFile(this.testGrepDir.resolve("small" + i + ".txt"), "a needle 1\nb\nneedle 2\n");
+        }
+
+        final List<Grep.Match> sequential = new Grep(this.context)
+            .pattern("needle \\d+")
+            .paths(this.testGrepDir)
+            .parallel(1)
+            .run();
+
+        final List<Grep.Match> parallel = new Grep(this.context)
+            .pattern("needle \\d+")
+            .paths(this.testGrepDir)
+            .parallel(4)
+            .run();
+
+        // w/o a literal to search for first
+        final List<Grep.Match> unfiltered = new Grep(this.context)
+            .pattern("n[e]edle \\d+")
+            .paths(this.testGrepDir)
+            .run();
+
+        assertThat(sequential, hasSize(100 + 20));
+        assertThat(format(sequential, this.testGrepDir).get(0), is("large.txt:997:line 997 of some text needle 997"));
+        assertThat(format(sequential, this.testGrepDir).get(99), is("large.txt:99700:line 99700 of some text needle 99700"));
+        assertThat(format(parallel, this.testGrepDir), is(format(sequential, this.testGrepDir)));
+        assertThat(format(unfiltered, this.testGrepDir), is(format(sequential, this.testGrepDir)));
+    }
+
+    @Test
+    public void streamIsLazy() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            this.createFile(this.testGrepDir.resolve("f" + String.format("%02d", i) + ".txt"), "x\n");
+        }
+
+        try (Stream<Grep.Match> matches = new Grep(this.context).pattern("x").paths(this.testGrepDir).parallel(2).stream()) {
+            assertThat(matches.findFirst().get().getFile().getFileName().toString(), is("f00.txt"));
+        }
+    }
+
+    @Test
+    public void requiredLiteral() {
+        assertThat(Grep.requiredLiteral(Pattern.compile("TODO:\\s+\\w+")), is("TODO:"));
+        assertThat(Grep.requiredLiteral(Pattern.compile("ab?cdef")), is("cdef"));
+        assertThat(Grep.requiredLiteral(Pattern.compile("abcd+ef")), is("abcd"));
+        assertThat(Grep.requiredLiteral(Pattern.compile("a\\.b[xyz]{2,3}c")), is("a.b"));
+        assertThat(Grep.requiredLiteral(Pattern.compile("(abcdef)?x")), is("x"));
+        assertThat(Grep.requiredLiteral(Pattern.compile("[]abc]x")), is("x"));
+        assertThat(Grep.requiredLiteral(Pattern.compile("a.b", Pattern.LITERAL)), is("a.b"));
+        assertThat(Grep.requiredLiteral(Pattern.compile("foo|bar")), is(nullValue()));
+        assertThat(Grep.requiredLiteral(Pattern.compile("(?i)foo")), is(nullValue()));
+        assertThat(Grep.requiredLiteral(Pattern.compile("foo", Pattern.CASE_INSENSITIVE)), is(nullValue()));
+        assertThat(Grep.requiredLiteral(Pattern.compile("\\x41BC")), is(nullValue()));
+        assertThat(Grep.requiredLiteral(Pattern.compile("\\d+")), is(nullValue()));
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.fizzed.blaze.system;
+
+import com.fizzed.blaze.local.LocalExec;
+import com.fizzed.blaze.util.CaptureOutput;
+import com.fizzed.blaze.util.Streamables;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Stream;
+
+import static com.fizzed.blaze.system.ShellTestHelper.getBinDirAsResource;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+public class LineTransformTest extends TestAbstractBase {
+
+    @Test
+    public void stagesInOrder() throws Exception {
+        final CaptureOutput capture = Streamables.captureOutput();
+
+        final long written = new LineTransform(context)
+            .filter(line -> !line.startsWith("#"))
+            .map(String::toUpperCase)
+            .flatMap(line -> Stream.of(line.split(",")))
+            .map(line -> line.isEmpty() ? null : line)
+            .pipeInput("# comment\na,b\r\n\nc\r# another\nd")
+            .pipeOutput(capture)
+            .run();
+
+        assertThat(capture.asString(), is("A\nB\nC\nD\n"));
+        assertThat(written, is(4L));
+    }
+
+    @Test
+    public void pipelineBetweenExecs() throws Exception {
+        final CaptureOutput capture = Streamables.captureOutput();
+
+        new Pipeline(context)
+            .add(new LocalExec(context)
+                .command("hello-world-test")
+                .path(getBinDirAsResource()))
+            .add(new LineTransform(context)
+                .map(line -> line.replace("World", "Blaze")))
+            .add(new LineTransform(context)
+                .lineSeparator("\r\n")
+                .flatMap(line -> Stream.of(line.split(" "))))
+            .pipeOutput(capture)
+            .run();
+
+        assertThat(capture.asString(), is("Hello\r\nBlaze\r\n7586930100\r\n"));
+    }
+
+    @Test
+    public void streamsAndStopsWithHead() throws Exception {
+        final long started = System.currentTimeMillis();
+        final CaptureOutput capture = Streamables.captureOutput();
+
+        // the script would otherwise run for a very long time, so the transform must pass on each line as it arrives
+        // and stop (stopping the script too) once head has its lines
+        new Pipeline(context)
+            .add(new LocalExec(context)
+                .command("echo-sleep-test")
+                .path(getBinDirAsResource()))
+            .add(new LineTransform(context)
+                .map(line -> line.substring(0, line.indexOf(" ("))))
+            .add(new Head(context)
+                .count(2))
+            .pipeOutput(capture)
+            .run();
+
+        assertThat(capture.asString(), is("Iteration 1\r\nIteration 2\r\n"));
+        assertThat(System.currentTimeMillis() - started, lessThan(15000L));
+    }
+
+}
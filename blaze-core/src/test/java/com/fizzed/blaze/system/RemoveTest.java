@@ -7,6 +7,8 @@ import org.junit.jupiter.api.Test;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -115,4 +117,50 @@ public class RemoveTest extends TestAbstractBase {
         assertThat(Files.exists(dir), is(false));
     }
 
-}
\ No newline at end of file
+    private Path createTree(Path dir) throws Exception {
+        this.createDir(dir);
+        for (int i = 0; i < 5; i++) {
+            final Path sub = Files.createDirectories(dir.resolve("sub" + i).resolve("nested"));
+            for (int j = 0; j < 300; j++) {
+                Files.write(sub.resolve("file" + j + ".txt"), ("hello " + j).getBytes());
+            }
+        }
+        this.createFile(dir.resolve("top.txt"));
+        return dir;
+    }
+
+    @Test
+    public void removeDirRecursiveParallel() throws Exception {
+        final Path dir = this.createTree(this.testRemoveDir.resolve("removeDirRecursiveParallel"));
+
+        new Remove(this.context)
+            .path(dir)
+            .recursive()
+            .parallel(4)
+            .run();
+
+        assertThat(Files.exists(dir), is(false));
+    }
+
+    @Test
+    public void removeDirRecursiveBackground() throws Exception {
+        final Path dir = this.createTree(this.testRemoveDir.resolve("removeDirRecursiveBackground"));
+
+        final Remove.Result result = new Remove(this.context)
+            .path(dir)
+            .recursive()
+            .background()
+            .runResult();
+
+        // path is free immediately
+        assertThat(Files.exists(dir), is(false));
+
+        result.getBackgroundFuture().get(30, TimeUnit.SECONDS);
+
+        // and the tombstone is gone too
+        try (Stream<Path> files = Files.list(this.testRemoveDir)) {
+            assertThat(files.anyMatch(p -> p.getFileName().toString().contains("removeDirRecursiveBackground")), is(false));
+        }
+    }
+
+}
@@ -15,9 +15,18 @@
  */
 package com.fizzed.blaze.system;
 
+import java.io.ByteArrayInputStream;
 import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.Iterator;
+import java.util.stream.Stream;
 import org.apache.commons.io.input.ReaderInputStream;
+import static java.util.Arrays.asList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 
@@ -27,7 +36,7 @@ import org.junit.jupiter.api.Test;
  *
  * @author Joe Lauer
  */
-public class TailTest {
+public class TailTest extends TestAbstractBase {
     
     @Test
     public void works() throws Exception {
@@ -46,5 +55,64 @@ public class TailTest {
         assertThat(output.remove(), is("b"));
         assertThat(output.remove(), is("c"));
     }
+
+    @Test
+    public void fileSameAsStream() throws Exception {
+        final Path file = this.createDir(this.targetDir.resolve("tail-test")).resolve("lines.txt");
+        
+        for (String s : asList("", "a", "a\nb\nc", "a\nb\nc\n", "a\r\nb\r\n", "\n\n\n", "a\rb\r\nc\n\nd", "\r\n", "a\r")) {
+            final byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            Files.write(file, bytes);
+            for (int count = 1; count < 7; count++) {
+                final Deque<String> expected = new Tail(null).count(count).pipeInput(new ByteArrayInputStream(bytes)).run();
+                final Deque<String> actual = new Tail(null).count(count).pipeInput(file).run();
+                assertThat("tail " + count + " of " + s.replace("\r", "\\r").replace("\n", "\\n"),
+                    new ArrayList<>(actual), is(new ArrayList<>(expected)));
+            }
+        }
+    }
+    
+    @Test
+    public void fileLargerThanBlock() throws Exception {
+        final Path file = this.createDir(this.targetDir.resolve("tail-test")).resolve("large.txt");
+        
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 50000; i++) {
+            sb.append("line ").append(i).append(i % 2 == 0 ? "\n" : "\r\n");
+        }
+        Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+        
+        final Deque<String> output = new Tail(null).count(3).pipeInput(file).run();
+        
+        assertThat(new ArrayList<>(output), is(asList("line 49997", "line 49998", "line 49999")));
+    }
+    
+    @Test
+    public void follow() throws Exception {
+        final Path dir = this.createDir(this.targetDir.resolve("tail-test"));
+        final Path file = dir.resolve("app.log");
+        Files.write(file, "a\nb\nc\n".getBytes(StandardCharsets.UTF_8));
+        
+        try (Stream<String> lines = new Tail(null).count(2).pipeInput(file).follow()) {
+            final Iterator<String> it = lines.iterator();
+            assertThat(it.next(), is("b"));
+            assertThat(it.next(), is("c"));
+            
+            // appended (a partial line is only yielded once complete)
+            Files.write(file, "d\ne".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            assertThat(it.next(), is("d"));
+            Files.write(file, "f\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            assertThat(it.next(), is("ef"));
+            
+            // rotated
+            Files.move(file, dir.resolve("app.log.1"));
+            Files.write(file, "gg\n".getBytes(StandardCharsets.UTF_8));
+            assertThat(it.next(), is("gg"));
+            
+            // truncated (to less than what was read)
+            Files.write(file, "h\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+            assertThat(it.next(), is("h"));
+        }
+    }
     
-}
\ No newline at end of file
+}
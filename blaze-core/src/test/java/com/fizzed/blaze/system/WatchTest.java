@@ -0,0 +1,117 @@
+package com.fizzed.blaze.system;
+
+import com.fizzed.blaze.util.Globber;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class WatchTest extends TestAbstractBase {
+
+    private Path testWatchDir;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        this.testWatchDir = this.createDir(this.targetDir.resolve("watch-test"));
+    }
+
+    // collects batches until the expected number of changes arrived (or gives up)
+    static private List<FileChange> await(FileWatcher watcher, int count) throws InterruptedException {
+        final List<FileChange> changes = new ArrayList<>();
+        final long giveUpAt = System.currentTimeMillis() + 15000L;
+        while (changes.size() < count && System.currentTimeMillis() < giveUpAt) {
+            final List<FileChange> batch = watcher.poll(100, TimeUnit.MILLISECONDS);
+            if (batch != null) {
+                changes.addAll(batch);
+            }
+        }
+        return changes;
+    }
+
+    @Test
+    public void watch() throws Exception {
+        final Path src = this.createDir(this.testWatchDir.resolve("src"));
+        final Path a = this.createFile(src.resolve("a.java"));
+        this.createDir(this.testWatchDir.resolve("build"));
+
+        final Globber globber = Globber.globber(this.testWatchDir, "**/*.java")
+            .exclude("build/**");
+
+        try (FileWatcher watcher = new Watch(this.context).globber(globber).debounce(50).run()) {
+            final Path b = this.createFile(src.resolve("b.java"));
+            // a new dir is watched too (w/ anything already created in it)
+            final Path sub = this.createDir(src.resolve("sub"));
+            final Path c = this.createFile(sub.resolve("c.java"));
+            // not matched
+            this.createFile(src.resolve("a.txt"));
+            this.createFile(this.testWatchDir.resolve("build/x.java"));
+
+            assertThat(await(watcher, 2), containsInAnyOrder(
+                new FileChange(FileChange.Type.CREATED, b), new FileChange(FileChange.Type.CREATED, c)));
+
+            this.createFile(b, "changed");
+            Files.delete(a);
+
+            assertThat(await(watcher, 2), containsInAnyOrder(
+                new FileChange(FileChange.Type.MODIFIED, b), new FileChange(FileChange.Type.DELETED, a)));
+
+            // everything beneath a deleted dir is deleted too
+            Files.delete(c);
+            Files.delete(sub);
+
+            assertThat(await(watcher, 1), containsInAnyOrder(new FileChange(FileChange.Type.DELETED, c)));
+
+            // nothing else (e.g. from the excluded dir)
+            assertThat(watcher.poll(300, TimeUnit.MILLISECONDS), is(nullValue()));
+        }
+    }
+
+    @Test
+    public void watchWithListener() throws Exception {
+        final BlockingQueue<List<FileChange>> batches = new LinkedBlockingQueue<>();
+
+        final FileWatcher watcher = new Watch(this.context)
+            .globber(Globber.globber(this.testWatchDir, "*.txt"))
+            .debounce(200)
+            .onChange(batches::add)
+            .run();
+
+        try {
+            // created then modified many times is a single change
+            final Path file = this.createFile(this.testWatchDir.resolve("a.txt"));
+            for (int i = 0; i < 5; i++) {
+                this.createFile(file, "test" + i);
+            }
+
+            final List<FileChange> batch = batches.poll(15, TimeUnit.SECONDS);
+            assertThat(batch, containsInAnyOrder(new FileChange(FileChange.Type.CREATED, file)));
+        } finally {
+            watcher.close();
+        }
+
+        assertThat(watcher.isClosed(), is(true));
+        assertThat(watcher.take().isEmpty(), is(true));
+    }
+
+    @Test
+    public void coalesce() {
+        assertThat(FileWatcher.coalesce(null, FileChange.Type.MODIFIED), is(FileChange.Type.MODIFIED));
+        assertThat(FileWatcher.coalesce(FileChange.Type.CREATED, FileChange.Type.MODIFIED), is(FileChange.Type.CREATED));
+        assertThat(FileWatcher.coalesce(FileChange.Type.CREATED, FileChange.Type.DELETED), is(nullValue()));
+        assertThat(FileWatcher.coalesce(FileChange.Type.DELETED, FileChange.Type.CREATED), is(FileChange.Type.MODIFIED));
+        assertThat(FileWatcher.coalesce(FileChange.Type.MODIFIED, FileChange.Type.DELETED), is(FileChange.Type.DELETED));
+        assertThat(FileWatcher.coalesce(FileChange.Type.MODIFIED, FileChange.Type.MODIFIED), is(FileChange.Type.MODIFIED));
+    }
+
+}
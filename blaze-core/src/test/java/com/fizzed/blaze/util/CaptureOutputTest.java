@@ -0,0 +1,114 @@
+package com.fizzed.blaze.util;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class CaptureOutputTest {
+
+    @Test
+    public void inMemory() throws Exception {
+        final CaptureOutput captureOutput = new CaptureOutput(Streamables.nullOutput(), 1024);
+
+        try (OutputStream output = captureOutput.stream()) {
+            output.write("hello\nworld\n".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(captureOutput.isSpilled(), is(false));
+        assertThat(captureOutput.getSpillFile(), is(nullValue()));
+        assertThat(captureOutput.size(), is(12L));
+        assertThat(captureOutput.asString(), is("hello\nworld\n"));
+        try (Stream<String> lines = captureOutput.lines()) {
+            assertThat(lines.collect(Collectors.toList()), contains("hello", "world"));
+        }
+    }
+
+    @Test
+    public void spillsToDiskOverThreshold() throws Exception {
+        final CaptureOutput captureOutput = new CaptureOutput(Streamables.nullOutput(), 16);
+
+        final StringBuilder expected = new StringBuilder();
+        try (OutputStream output = captureOutput.stream()) {
+            for (int i = 0; i < 1000; i++) {
+                final String line = "line " + i + "\n";
+                expected.append(line);
+                output.write(line.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        assertThat(captureOutput.isSpilled(), is(true));
+        final Path spillFile = captureOutput.getSpillFile();
+        assertThat(spillFile, is(notNullValue()));
+        assertThat(Files.size(spillFile), is(captureOutput.size() - 16));
+        assertThat(captureOutput.size(), is((long)expected.length()));
+
+        // all accessors stitch memory and disk back together
+        assertThat(captureOutput.asString(), is(expected.toString()));
+        assertThat(new String(captureOutput.asBytes(), StandardCharsets.UTF_8), is(expected.toString()));
+        try (InputStream input = captureOutput.asInputStream()) {
+            assertThat(new String(IOUtils.toByteArray(input), StandardCharsets.UTF_8), is(expected.toString()));
+        }
+        try (Stream<String> lines = captureOutput.lines()) {
+            final List<String> list = lines.collect(Collectors.toList());
+            assertThat(list.size(), is(1000));
+            assertThat(list.get(0), is("line 0"));
+            assertThat(list.get(999), is("line 999"));
+        }
+
+        // closing the capture keeps it readable
+        captureOutput.close();
+
+        assertThat(Files.exists(spillFile), is(true));
+        assertThat(SpillingOutputStream.isDeletedOnExit(spillFile), is(true));
+        assertThat(captureOutput.asString(), is(expected.toString()));
+
+        // deleting it discards it (and its spill file, which no longer needs deleted on exit)
+        captureOutput.delete();
+
+        assertThat(Files.exists(spillFile), is(false));
+        assertThat(SpillingOutputStream.isDeletedOnExit(spillFile), is(false));
+        assertThat(captureOutput.isSpilled(), is(false));
+        assertThat(captureOutput.size(), is(0L));
+    }
+
+    @Test
+    public void closingStreamKeepsCapture() throws Exception {
+        final CaptureOutput captureOutput = new CaptureOutput(Streamables.nullOutput(), 0);
+
+        captureOutput.stream().write("spilled".getBytes(StandardCharsets.UTF_8));
+
+        // e.g. what a pipeline does when an action is done
+        Streamables.closeStream(captureOutput);
+
+        assertThat(captureOutput.isSpilled(), is(true));
+        assertThat(captureOutput.asString(), is("spilled"));
+
+        captureOutput.delete();
+    }
+
+    @Test
+    public void closedCaptureInMemoryIsReadable() throws Exception {
+        try (CaptureOutput captureOutput = new CaptureOutput(Streamables.nullOutput())) {
+            captureOutput.stream().write("hello".getBytes(StandardCharsets.UTF_8));
+            captureOutput.close();
+
+            assertThat(captureOutput.asString(), is("hello"));
+            assertThat(captureOutput.size(), is(5L));
+        }
+    }
+
+}
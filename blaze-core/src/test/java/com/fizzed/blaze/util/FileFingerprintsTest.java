@@ -0,0 +1,150 @@
+package com.fizzed.blaze.util;
+
+import com.fizzed.blaze.internal.FileHelper;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FileFingerprintsTest {
+
+    private Path dir;
+
+    @BeforeEach
+    public void before() throws Exception {
+        this.dir = FileHelper.resourceAsPath("/fixtures/resource-locator.txt")
+            .resolve("../../..").normalize().resolve("target/file-fingerprints-test");
+        FileUtils.deleteDirectory(this.dir.toFile());
+        Files.createDirectories(this.dir);
+    }
+
+    private Path createFile(String name, byte[] content) throws Exception {
+        final Path file = this.dir.resolve(name);
+        Files.write(file, content);
+        // old enough to be remembered
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 60000L));
+        return file;
+    }
+
+    @Test
+    public void sha256() throws Exception {
+        final byte[] small = "hello world".getBytes(StandardCharsets.UTF_8);
+        // large enough to be memory-mapped
+        final byte[] large = new byte[3 * 1024 * 1024 + 17];
+        new Random(1L).nextBytes(large);
+
+        final FileFingerprints fingerprints = new FileFingerprints(FileFingerprints.Algorithm.SHA256);
+
+        for (byte[] content : new byte[][] { small, large }) {
+            final Path file = this.createFile("file.bin", content);
+            final String expected = FileFingerprints.toHex(MessageDigest.getInstance("SHA-256").digest(content));
+            assertThat(fingerprints.fingerprint(file), is(expected));
+        }
+    }
+
+    @Test
+    public void xxh64() throws Exception {
+        final byte[] large = new byte[2 * 1024 * 1024 + 5];
+        new Random(2L).nextBytes(large);
+        final Path file = this.createFile("large.bin", large);
+
+        final Xxh64 xxh64 = new Xxh64();
+        xxh64.update(large, 0, large.length);
+
+        assertThat(FileFingerprints.toHex(FileFingerprints.digest(file, FileFingerprints.Algorithm.XXH64)),
+            is(String.format("%016x", xxh64.digest())));
+    }
+
+    @Test
+    public void persisted() throws Exception {
+        final Path storeFile = this.dir.resolve("fingerprints.tsv");
+        final Path a = this.createFile("a.txt", "a".getBytes(StandardCharsets.UTF_8));
+        final Path b = this.createFile("b.txt", "b".getBytes(StandardCharsets.UTF_8));
+
+        final String fingerprintA;
+        try (FileFingerprints fingerprints = new FileFingerprints(FileFingerprints.Algorithm.XXH64, storeFile)) {
+            fingerprintA = fingerprints.fingerprint(a);
+            assertThat(fingerprints.fingerprint(b), is(not(fingerprintA)));
+        }
+
+        assertThat(Files.exists(storeFile), is(true));
+
+        // remembered by size and last modified time, so the same content is not re-read (proven by rewriting the
+        // file w/ different content but the same size and last modified time)
+        final FileTime lastModified = Files.getLastModifiedTime(a);
+        Files.write(a, "z".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(a, lastModified);
+
+        final FileFingerprints reloaded = new FileFingerprints(FileFingerprints.Algorithm.XXH64, storeFile);
+        assertThat(reloaded.fingerprint(a), is(fingerprintA));
+
+        // a changed file is re-read
+        Files.write(a, "zz".getBytes(StandardCharsets.UTF_8));
+        assertThat(reloaded.fingerprint(a), is(not(fingerprintA)));
+
+        // different algorithm does not use them
+        final FileFingerprints sha256 = new FileFingerprints(FileFingerprints.Algorithm.SHA256, storeFile);
+        assertThat(sha256.fingerprint(b).length(), is(64));
+    }
+
+    @Test
+    public void savePrunesMissingAndLeastRecentlyUsed() throws Exception {
+        final Path storeFile = this.dir.resolve("fingerprints.tsv");
+        final Path a = this.createFile("a.txt", "a".getBytes(StandardCharsets.UTF_8));
+        final Path b = this.createFile("b.txt", "b".getBytes(StandardCharsets.UTF_8));
+        final Path c = this.createFile("c.txt", "c".getBytes(StandardCharsets.UTF_8));
+        final Path d = this.createFile("d.txt", "d".getBytes(StandardCharsets.UTF_8));
+
+        try (FileFingerprints fingerprints = new FileFingerprints(FileFingerprints.Algorithm.XXH64, storeFile, 2)) {
+            for (Path file : asList(a, b, c, d)) {
+                fingerprints.fingerprint(file);
+                Thread.sleep(5L);
+            }
+        }
+
+        // a file that no longer exists is dropped
+        Files.delete(d);
+        try (FileFingerprints fingerprints = new FileFingerprints(FileFingerprints.Algorithm.XXH64, storeFile, 2)) {
+            fingerprints.fingerprint(this.createFile("e.txt", "e".getBytes(StandardCharsets.UTF_8)));
+        }
+
+        // only the 2 most recently used remain
+        final List<String> lines = Files.readAllLines(storeFile);
+        assertThat(lines.size(), is(1 + 2));
+        assertThat(lines.get(1).endsWith("c.txt") || lines.get(2).endsWith("c.txt"), is(true));
+        assertThat(lines.get(1).endsWith("e.txt") || lines.get(2).endsWith("e.txt"), is(true));
+    }
+
+    @Test
+    public void failedSaveIsRetried() throws Exception {
+        final Path storeDir = this.dir.resolve("store");
+        final Path storeFile = storeDir.resolve("fingerprints.tsv");
+        final Path a = this.createFile("a.txt", "a".getBytes(StandardCharsets.UTF_8));
+
+        final FileFingerprints fingerprints = new FileFingerprints(FileFingerprints.Algorithm.XXH64, storeFile);
+        fingerprints.fingerprint(a);
+
+        // its dir doesn't exist yet
+        assertThrows(IOException.class, fingerprints::save);
+
+        Files.createDirectories(storeDir);
+        fingerprints.save();
+
+        assertThat(Files.readAllLines(storeFile).size(), is(2));
+    }
+
+}
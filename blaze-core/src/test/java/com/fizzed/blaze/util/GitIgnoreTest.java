@@ -0,0 +1,60 @@
+package com.fizzed.blaze.util;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class GitIgnoreTest {
+
+    @Test
+    public void nameRules() {
+        final GitIgnore ignore = GitIgnore.parse(asList("# comment", "", "*.log", "build/", "!keep.log", "\\#hash", "a[0-9]?"));
+
+        assertThat(ignore.isIgnored("debug.log", false), is(true));
+        assertThat(ignore.isIgnored("keep.log", false), is(false));
+        assertThat(ignore.isIgnored("build", true), is(true));
+        // only dirs
+        assertThat(ignore.isIgnored("build", false), is(false));
+        assertThat(ignore.isIgnored("#hash", false), is(true));
+        assertThat(ignore.isIgnored("# comment", false), is(false));
+        assertThat(ignore.isIgnored("a1x", false), is(true));
+        assertThat(ignore.isIgnored("ab", false), is(false));
+        assertThat(ignore.isIgnored(".git", true), is(true));
+
+        // applies at any depth
+        final GitIgnore child = ignore.child("src", asList()).child("main", asList());
+        assertThat(child.isIgnored("debug.log", false), is(true));
+        assertThat(child.isIgnored("build", true), is(true));
+    }
+
+    @Test
+    public void anchoredRules() {
+        final GitIgnore ignore = GitIgnore.parse(asList("/target", "docs/*.html", "**/gen", "a/**/z", "out/**"));
+
+        assertThat(ignore.isIgnored("target", true), is(true));
+        assertThat(ignore.child("sub", asList()).isIgnored("target", true), is(false));
+        assertThat(ignore.child("docs", asList()).isIgnored("index.html", false), is(true));
+        assertThat(ignore.child("docs", asList()).child("api", asList()).isIgnored("index.html", false), is(false));
+        assertThat(ignore.isIgnored("gen", true), is(true));
+        assertThat(ignore.child("x", asList()).child("y", asList()).isIgnored("gen", true), is(true));
+        assertThat(ignore.child("a", asList()).isIgnored("z", false), is(true));
+        assertThat(ignore.child("a", asList()).child("b", asList()).child("c", asList()).isIgnored("z", false), is(true));
+        assertThat(ignore.isIgnored("out", true), is(false));
+        assertThat(ignore.child("out", asList()).isIgnored("x", false), is(true));
+    }
+
+    @Test
+    public void deeperRulesOverride() {
+        final GitIgnore ignore = GitIgnore.parse(asList("*.txt"));
+        final GitIgnore child = ignore.child("docs", asList("!*.txt", "secret.txt"));
+
+        assertThat(ignore.isIgnored("a.txt", false), is(true));
+        assertThat(child.isIgnored("a.txt", false), is(false));
+        assertThat(child.isIgnored("secret.txt", false), is(true));
+        // rules of a .gitignore are relative to its own directory
+        assertThat(child.child("sub", asList()).isIgnored("a.txt", false), is(false));
+    }
+
+}
@@ -16,9 +16,15 @@
 package com.fizzed.blaze.util;
 
 import com.fizzed.blaze.internal.FileHelper;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +33,10 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  *
@@ -182,5 +192,167 @@ public class GlobberTest {
                             globberDir.resolve("globber.txt"),
                             globberDir.resolve("src")));
     }
-   
+
+    @Test
+    public void scanOne() throws Exception {
+        Path globberDir = FileHelper.resourceAsFile("/globber/globber.txt").getParentFile().toPath();
+
+        assertThat(Globber.globber(globberDir, "*.txt").scanOne(), is(globberDir.resolve("globber.txt")));
+        assertThat(Globber.globber(globberDir, "*.none").scanOne(), is(nullValue()));
+        assertThrows(IOException.class, () -> Globber.globber(globberDir, "*.none").scanOne(true));
+        assertThrows(IOException.class, () -> Globber.globber(globberDir, "*.{txt,html}").scanOne());
+    }
+
+    @Test
+    public void iteratorAndStreamAreLazyButSameAsScan() throws Exception {
+        Path globberDir = FileHelper.resourceAsFile("/globber/globber.txt").getParentFile().toPath();
+
+        final List<Path> scanned = Globber.globber(globberDir, "**").scan();
+
+        final List<Path> iterated = new ArrayList<>();
+        for (Path path : Globber.globber(globberDir, "**")) {
+            iterated.add(path);
+        }
+        assertThat(iterated, is(scanned));
+
+        try (Stream<Path> paths = Globber.globber(globberDir, "**").stream()) {
+            assertThat(paths.collect(toList()), is(scanned));
+        }
+
+        // short-circuits w/o walking the rest
+        try (Stream<Path> paths = Globber.globber(globberDir, "**").filesOnly().stream()) {
+            assertThat(paths.limit(1).count(), is(1L));
+        }
+    }
+
+    @Test
+    public void subtreePruner() throws Exception {
+        Globber.SubtreePruner pruner = new Globber.SubtreePruner(
+            asList("src/main/**/*.java", "*.txt", "docs/*.md"), asList("**/node_modules/**", "src/main/gen/**"));
+
+        assertThat(pruner.descend(Paths.get("src")), is(true));
+        assertThat(pruner.descend(Paths.get("src/main")), is(true));
+        assertThat(pruner.descend(Paths.get("src/main/java/com")), is(true));
+        assertThat(pruner.descend(Paths.get("src/test")), is(false));
+        assertThat(pruner.descend(Paths.get("docs")), is(true));
+        assertThat(pruner.descend(Paths.get("docs/images")), is(false));
+        assertThat(pruner.descend(Paths.get("target")), is(false));
+        assertThat(pruner.descend(Paths.get("src/main/gen")), is(false));
+        assertThat(pruner.descend(Paths.get("src/main/web/node_modules")), is(false));
+
+        // an include that is a matcher can't be analyzed, so only excludes prune
+        pruner = new Globber.SubtreePruner(asList("*.txt", null), asList("target/**", null));
+        assertThat(pruner.descend(Paths.get("src")), is(true));
+        assertThat(pruner.descend(Paths.get("target")), is(false));
+
+        // a separator w/in a group can't be analyzed either
+        pruner = new Globber.SubtreePruner(asList("{src/main,docs}/*.java"), asList());
+        assertThat(pruner.descend(Paths.get("target")), is(true));
+    }
+
+    @Test
+    public void prunedScanSameAsUnpruned() throws Exception {
+        final Path targetDir = FileHelper.resourceAsPath("/fixtures/resource-locator.txt").resolve("../../..").normalize();
+        final Path dir = targetDir.resolve("globber-prune-test");
+        FileUtils.deleteDirectory(dir.toFile());
+        for (String file : asList("src/main/java/a/A.java", "src/main/java/B.java", "src/test/java/T.java",
+                "src/main/web/node_modules/x/X.java", "node_modules/y/Y.java", "target/classes/C.java", "README.txt")) {
+            Files.createDirectories(dir.resolve(file).getParent());
+            Files.createFile(dir.resolve(file));
+        }
+
+        List<Path> paths = Globber.globber(dir, "src/main/**/*.java").exclude("**/node_modules/**").scan();
+        assertThat(paths, containsInAnyOrder(
+                            dir.resolve("src/main/java/a/A.java"),
+                            dir.resolve("src/main/java/B.java")));
+
+        // a matcher include disables include pruning (but the result is the same)
+        final PathMatcher javaMatcher = dir.getFileSystem().getPathMatcher("glob:src/main/**/*.java");
+        paths = new Globber(dir).include(javaMatcher).exclude("**/node_modules/**").scan();
+        assertThat(paths, containsInAnyOrder(
+                            dir.resolve("src/main/java/a/A.java"),
+                            dir.resolve("src/main/java/B.java")));
+
+        // dirs themselves are still matched even if not descended into
+        paths = Globber.globber(dir, "*").scan();
+        assertThat(paths, containsInAnyOrder(
+                            dir.resolve("src"),
+                            dir.resolve("node_modules"),
+                            dir.resolve("target"),
+                            dir.resolve("README.txt")));
+    }
+
+    @Test
+    public void parallelScanSameAsSequential() throws Exception {
+        final Path targetDir = FileHelper.resourceAsPath("/fixtures/resource-locator.txt").resolve("../../..").normalize();
+        final Path dir = targetDir.resolve("globber-parallel-test");
+        FileUtils.deleteDirectory(dir.toFile());
+        for (int i = 0; i < 200; i++) {
+            final Path sub = dir.resolve("d" + (i % 7)).resolve("e" + (i % 3)).resolve(i % 2 == 0 ? "f" : ".hidden");
+            Files.createDirectories(sub);
+            Files.createFile(sub.resolve("file" + i + (i % 4 == 0 ? ".txt" : ".java")));
+        }
+
+        for (String glob : asList("**", "**/*.java", "d1/**", "*")) {
+            final List<Path> sequential = Globber.globber(dir, glob).scan();
+            assertThat(Globber.globber(dir, glob).parallel(4).scan(), is(sequential));
+            assertThat(Globber.globber(dir, glob).parallel(4).unordered().scan(), containsInAnyOrder(sequential.toArray()));
+
+            assertThat(Globber.globber(dir, glob).parallel(4).filesOnly().scan(), is(Globber.globber(dir, glob).filesOnly().scan()));
+            assertThat(Globber.globber(dir, glob).parallel(4).dirsOnly().scan(), is(Globber.globber(dir, glob).dirsOnly().scan()));
+            assertThat(Globber.globber(dir, glob).parallel(4).visibleOnly().scan(), is(Globber.globber(dir, glob).visibleOnly().scan()));
+            assertThat(Globber.globber(dir, glob).parallel(4).recursive(false).scan(), is(Globber.globber(dir, glob).recursive(false).scan()));
+        }
+    }
+
+    @Test
+    public void respectGitignore() throws Exception {
+        final Path targetDir = FileHelper.resourceAsPath("/fixtures/resource-locator.txt").resolve("../../..").normalize();
+        final Path dir = targetDir.resolve("globber-gitignore-test");
+        FileUtils.deleteDirectory(dir.toFile());
+        for (String file : asList(".git/config", "src/A.java", "src/debug.log", "target/B.class", "docs/a.md",
+                "docs/gen/b.md", "docs/keep.log")) {
+            Files.createDirectories(dir.resolve(file).getParent());
+            Files.createFile(dir.resolve(file));
+        }
+        Files.write(dir.resolve(".gitignore"), asList("target/", "*.log"));
+        Files.write(dir.resolve("docs/.gitignore"), asList("gen/", "!keep.log"));
+
+        final List<Path> expected = asList(
+            dir.resolve(".gitignore"),
+            dir.resolve("src/A.java"),
+            dir.resolve("docs/.gitignore"),
+            dir.resolve("docs/a.md"),
+            dir.resolve("docs/keep.log"));
+
+        assertThat(Globber.globber(dir, "**").filesOnly().respectGitignore().scan(), containsInAnyOrder(expected.toArray()));
+        assertThat(Globber.globber(dir, "**").filesOnly().respectGitignore().parallel(4).scan(), containsInAnyOrder(expected.toArray()));
+
+        // scanning from within the tree still applies the rules of its parents
+        assertThat(Globber.globber(dir.resolve("src"), "*").respectGitignore().scan(), containsInAnyOrder(dir.resolve("src/A.java")));
+    }
+
+    @Test
+    public void matchesAndDescendsInto() {
+        final Path root = Paths.get("root");
+        final Globber globber = Globber.globber(root, "src/**/*.java")
+            .exclude("**/gen/**");
+
+        assertThat(globber.matches(root.resolve("src/main/A.java"), false), is(true));
+        assertThat(globber.matches(root.resolve("src/main/A.txt"), false), is(false));
+        assertThat(globber.matches(root.resolve("src/gen/A.java"), false), is(false));
+        assertThat(globber.descendsInto(root), is(true));
+        assertThat(globber.descendsInto(root.resolve("src/main")), is(true));
+        assertThat(globber.descendsInto(root.resolve("docs")), is(false));
+        assertThat(globber.descendsInto(root.resolve("src/gen")), is(false));
+
+        // filtered the same as a scan
+        assertThat(globber.filesOnly().matches(root.resolve("src/main/A.java"), true), is(false));
+        assertThat(globber.visibleOnly().matches(root.resolve("src/main/.A.java"), false), is(false));
+
+        // a change to the includes is seen
+        globber.include("*.md");
+        assertThat(globber.matches(root.resolve("README.md"), false), is(true));
+    }
+
 }
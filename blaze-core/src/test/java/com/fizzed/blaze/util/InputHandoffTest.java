@@ -0,0 +1,162 @@
+package com.fizzed.blaze.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+public class InputHandoffTest {
+
+    @Test
+    public void readWakesOnData() throws Exception {
+        final BytePipe pipe = new BytePipe(1024);
+        final InputHandoff handoff = InputHandoff.of(pipe.getInputStream());
+
+        final CompletableFuture<String> future = CompletableFuture.supplyAsync(() -> readString(handoff));
+
+        pipe.getOutputStream().write("hello".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(future.get(5, TimeUnit.SECONDS), is("hello"));
+
+        pipe.getOutputStream().close();
+
+        assertThat(handoff.read(new byte[10], 0, 10), is(-1));
+    }
+
+    @Test
+    public void interruptedReaderDoesNotLoseData() throws Exception {
+        final BytePipe pipe = new BytePipe(1024);
+        final InputHandoff handoff = InputHandoff.of(pipe.getInputStream());
+
+        // a reader that gives up while the handoff is waiting on the source
+        final Thread reader = new Thread(() -> readString(handoff));
+        final CompletableFuture<Throwable> failure = new CompletableFuture<>();
+        reader.setUncaughtExceptionHandler((t, e) -> failure.complete(e));
+        reader.start();
+        Thread.sleep(100L);
+        reader.interrupt();
+        reader.join(5000L);
+
+        assertThat(failure.get(5, TimeUnit.SECONDS).getCause(), instanceOf(InterruptedIOException.class));
+
+        // data read after it gave up is held for the next reader
+        pipe.getOutputStream().write("world".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(CompletableFuture.supplyAsync(() -> readString(handoff)).get(5, TimeUnit.SECONDS), is("world"));
+    }
+
+    @Test
+    public void closeUnblocksInterruptibleRead() throws Exception {
+        final BytePipe pipe = new BytePipe(1024);
+        final InterruptibleInputStream input = new InterruptibleInputStream(pipe.getInputStream());
+
+        final CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> {
+            try {
+                return input.read(new byte[10]);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        Thread.sleep(100L);
+        input.close();
+
+        assertThat(future.get(5, TimeUnit.SECONDS), is(-1));
+    }
+
+    @Test
+    public void closeReleasesHandoffThread() throws Exception {
+        final Set<Thread> before = handoffThreads();
+        final BytePipe pipe = new BytePipe(1024);
+        final InterruptibleInputStream input = new InterruptibleInputStream(pipe.getInputStream());
+
+        // a reader that got what it wanted and stopped before EOF
+        pipe.getOutputStream().write("hello".getBytes(StandardCharsets.UTF_8));
+        assertThat(input.read(new byte[10]), is(5));
+
+        final Set<Thread> started = handoffThreads();
+        started.removeAll(before);
+        assertThat(started.size(), is(1));
+
+        input.close();
+
+        final Thread thread = started.iterator().next();
+        thread.join(5000L);
+        assertThat(thread.isAlive(), is(false));
+    }
+
+    @Test
+    public void onlySystemInIsShared() throws Exception {
+        final BytePipe pipe = new BytePipe(1024);
+
+        assertThat(InputHandoff.of(pipe.getInputStream()) == InputHandoff.of(pipe.getInputStream()), is(false));
+        assertThat(InputHandoff.of(System.in) == InputHandoff.of(System.in), is(true));
+    }
+
+    @Test
+    public void pumperStopsAndClosesOnEof() throws Exception {
+        final BytePipe pipe = new BytePipe(1024);
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final CompletableFuture<Void> closed = new CompletableFuture<>();
+        final OutputStream output = new WrappedOutputStream(baos) {
+            @Override
+            public void close() {
+                closed.complete(null);
+            }
+        };
+
+        final Thread thread = new Thread(new InputStreamPumper(pipe.getInputStream(), output));
+        thread.start();
+
+        pipe.getOutputStream().write("pumped".getBytes(StandardCharsets.UTF_8));
+        pipe.getOutputStream().close();
+
+        closed.get(5, TimeUnit.SECONDS);
+        thread.join(5000L);
+
+        assertThat(thread.isAlive(), is(false));
+        assertThat(baos.toString("UTF-8"), is("pumped"));
+    }
+
+    @Test
+    public void pumperStopProcessing() throws Exception {
+        final BytePipe pipe = new BytePipe(1024);
+        final InputStreamPumper pumper = new InputStreamPumper(pipe.getInputStream(), new ByteArrayOutputStream());
+
+        final Thread thread = new Thread(pumper);
+        thread.start();
+        Thread.sleep(100L);
+
+        pumper.stopProcessing();
+        thread.join(5000L);
+
+        assertThat(thread.isAlive(), is(false));
+    }
+
+    static private Set<Thread> handoffThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+            .filter(t -> t.getName().equals("blaze-input-handoff"))
+            .collect(Collectors.toSet());
+    }
+
+    static private String readString(InputHandoff handoff) {
+        final byte[] b = new byte[100];
+        try {
+            final int n = handoff.read(b, 0, b.length);
+            return new String(b, 0, n, StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
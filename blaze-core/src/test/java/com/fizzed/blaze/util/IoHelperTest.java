@@ -0,0 +1,160 @@
+package com.fizzed.blaze.util;
+
+import com.fizzed.blaze.internal.FileHelper;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class IoHelperTest {
+
+    Path tempDir;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        final Path targetDir = FileHelper.resourceAsPath("/fixtures/resource-locator.txt").resolve("../../..").normalize();
+        this.tempDir = targetDir.resolve("io-helper-test");
+        FileUtils.deleteDirectory(this.tempDir.toFile());
+        Files.createDirectories(this.tempDir);
+    }
+
+    static private byte[] randomBytes(int size) {
+        final byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    @Test
+    public void channelsOfFileBackedStreams() throws Exception {
+        final Path file = this.tempDir.resolve("a.bin");
+        Files.write(file, randomBytes(10));
+
+        try (InputStream input = Streamables.input(file).stream()) {
+            assertThat(IoHelper.fileChannel(input), is(notNullValue()));
+        }
+        assertThat(IoHelper.fileChannel(new ByteArrayInputStream(new byte[0])), is(nullValue()));
+        assertThat(IoHelper.writableChannel(new ByteArrayOutputStream()), is(nullValue()));
+    }
+
+    @Test
+    public void streamablesCopyFileToFile() throws Exception {
+        final byte[] data = randomBytes(3 * 1024 * 1024 + 17);
+        final Path source = this.tempDir.resolve("source.bin");
+        final Path target = this.tempDir.resolve("target.bin");
+        Files.write(source, data);
+
+        final StreamableInput input = Streamables.input(source);
+        final StreamableOutput output = Streamables.output(target);
+        try {
+            Streamables.copy(input, output);
+        } finally {
+            input.close();
+            output.close();
+        }
+
+        assertThat(Arrays.equals(Files.readAllBytes(target), data), is(true));
+    }
+
+    @Test
+    public void copyFileStreamsContinuesFromPosition() throws Exception {
+        final byte[] data = randomBytes(100000);
+        final Path source = this.tempDir.resolve("source.bin");
+        final Path target = this.tempDir.resolve("target.bin");
+        Files.write(source, data);
+        Files.write(target, new byte[] { 1, 2, 3 });
+
+        try (FileInputStream input = new FileInputStream(source.toFile());
+             FileOutputStream output = new FileOutputStream(target.toFile(), true)) {
+            // already partially read
+            assertThat(input.skip(1000), is(1000L));
+
+            assertThat(IoHelper.copy(input, output, 8192), is(99000L));
+
+            // left at the end, just like a read loop would have
+            assertThat(input.read(), is(-1));
+        }
+
+        final byte[] expected = new byte[3 + 99000];
+        expected[0] = 1;
+        expected[1] = 2;
+        expected[2] = 3;
+        System.arraycopy(data, 1000, expected, 3, 99000);
+        assertThat(Arrays.equals(Files.readAllBytes(target), expected), is(true));
+    }
+
+    @Test
+    public void copyFilesThatReportNoSize() throws Exception {
+        // e.g. /proc files (and fifos or devices) have a size of 0 even tho they have data
+        final Path proc = Paths.get("/proc/self/status");
+        assumeTrue(Files.isReadable(proc));
+
+        final Path target = this.tempDir.resolve("status.txt");
+        try (FileOutputStream output = new FileOutputStream(target.toFile())) {
+            IoHelper.copy(proc, output, false, false);
+        }
+        assertThat(new String(Files.readAllBytes(target), StandardCharsets.UTF_8), containsString("Name:"));
+
+        final Path target2 = this.tempDir.resolve("status2.txt");
+        final StreamableInput input = Streamables.input(proc);
+        final StreamableOutput output = Streamables.output(target2);
+        try {
+            Streamables.copy(input, output);
+        } finally {
+            input.close();
+            output.close();
+        }
+        assertThat(new String(Files.readAllBytes(target2), StandardCharsets.UTF_8), containsString("Name:"));
+    }
+
+    @Test
+    public void copyFileStreamToPath() throws Exception {
+        final byte[] data = randomBytes(100000);
+        final Path source = this.tempDir.resolve("source.bin");
+        final Path target = this.tempDir.resolve("target.bin");
+        Files.write(source, data);
+
+        try (FileInputStream input = new FileInputStream(source.toFile())) {
+            assertThat(input.skip(1000), is(1000L));
+
+            IoHelper.copy(input, target, false, false);
+
+            assertThat(input.read(), is(-1));
+        }
+
+        assertThat(Arrays.equals(Files.readAllBytes(target), Arrays.copyOfRange(data, 1000, data.length)), is(true));
+    }
+
+    @Test
+    public void copyPathToStreamAndStreamToPathWithProgress() throws Exception {
+        final byte[] data = randomBytes(200000);
+        final Path source = this.tempDir.resolve("source.bin");
+        final Path target = this.tempDir.resolve("target.bin");
+        Files.write(source, data);
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        IoHelper.copy(source, baos, true, true);
+        assertThat(Arrays.equals(baos.toByteArray(), data), is(true));
+
+        IoHelper.copy(new ByteArrayInputStream(data), target, true, true, data.length);
+        assertThat(Arrays.equals(Files.readAllBytes(target), data), is(true));
+    }
+
+}
@@ -19,10 +19,14 @@ import com.fizzed.blaze.util.LineOutputStream.BufferingProcessor;
 import com.fizzed.blaze.util.LineOutputStream.LastLineProcessor;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -98,4 +102,73 @@ public class LineOutputStreamTest {
         assertThat(lpos.processor().lastLine(), is("world"));
     }
     
+    @Test
+    public void carriageReturnNewlineSplitAcrossWrites() throws IOException {
+        LineOutputStream<BufferingProcessor> lpos = LineOutputStream.buffering();
+
+        lpos.write("hello\r".getBytes(StandardCharsets.UTF_8));
+        lpos.write("\nworld\r\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(lpos.processor().lines(), contains("hello", "world"));
+    }
+
+    @Test
+    public void writeWithOffset() throws IOException {
+        LineOutputStream<BufferingProcessor> lpos = LineOutputStream.buffering();
+
+        byte[] bytes = "xxhello\nwor".getBytes(StandardCharsets.UTF_8);
+        lpos.write(bytes, 2, bytes.length - 2);
+        lpos.write("ld\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(lpos.processor().lines(), contains("hello", "world"));
+    }
+
+    @Test
+    public void boundedBuffering() throws IOException {
+        LineOutputStream<BufferingProcessor> lpos = new LineOutputStream<>(new BufferingProcessor(2));
+
+        lpos.write("a\nb\nc\nd\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(lpos.processor().lines(), contains("c", "d"));
+        assertThat(lpos.processor().dropped(), is(2L));
+    }
+
+    @Test
+    public void byteProcessor() throws IOException {
+        final List<String> lines = new ArrayList<>();
+        final AtomicInteger matches = new AtomicInteger();
+
+        LineOutputStream<LineOutputStream.ByteProcessor> lpos = new LineOutputStream<>((bytes, offset, length) -> {
+            // e.g. a grep-like consumer only decoding the lines it wants
+            if (length > 0 && bytes[offset] == 'e') {
+                matches.incrementAndGet();
+                lines.add(new String(bytes, offset, length, StandardCharsets.UTF_8));
+            }
+        });
+
+        lpos.write("error: 1\nok\nerr".getBytes(StandardCharsets.UTF_8));
+        lpos.write("or: 2\r\nok".getBytes(StandardCharsets.UTF_8));
+        lpos.close();
+
+        assertThat(matches.get(), is(2));
+        assertThat(lines, contains("error: 1", "error: 2"));
+
+        // lines are never encoded w/ a guessed charset
+        assertThrows(UnsupportedOperationException.class, () -> lpos.processor().process("error: 3"));
+    }
+
+    @Test
+    public void charSequenceProcessor() throws IOException {
+        final List<String> lines = new ArrayList<>();
+
+        LineOutputStream<LineOutputStream.CharSequenceProcessor> lpos = new LineOutputStream<>((line) -> {
+            lines.add(line.toString());
+        });
+
+        lpos.write("h\u00e9llo\nw".getBytes(StandardCharsets.UTF_8));
+        lpos.write("orld\n".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(lines, contains("h\u00e9llo", "world"));
+    }
+
 }
@@ -0,0 +1,68 @@
+package com.fizzed.blaze.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.FileSystems;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class MultiGlobMatcherTest {
+
+    static private final List<String> GLOBS = asList(
+        "*.java", "**/*.java", "**.java", "*Test.java", "**/*.tar.gz", "pom.xml", "src/main", "src/*/java",
+        "**/node_modules/**", "*.{java,kt}", "[a-c]*.txt", "[!a]?.md", "a\\*b", "**", "*", "", "docs/**/*.md",
+        "x.y.", "**/.hidden", "*.[ch]");
+
+    static private final List<String> PATHS = asList(
+        "", "A.java", ".java", "src/A.java", "src/main/java/A.java", "FooTest.java", "src/FooTest.java", "a.tar.gz",
+        "dist/a.tar.gz", "pom.xml", "sub/pom.xml", "src/main", "src/main/java", "src/test/java", "node_modules/x",
+        "web/node_modules/x/y.js", "A.kt", "b.txt", "d.txt", "ab.md", "bb.md", "a*b", "axb", "docs/x/y.md",
+        "docs/y.md", "x.y.", "z/.hidden", "main.c", "main.h", "main.cpp", "noext", "dir.d/noext");
+
+    @Test
+    public void sameAsDefaultMatchers() {
+        // each glob on its own
+        for (String glob : GLOBS) {
+            final PathMatcher expected = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+            final MultiGlobMatcher actual = new MultiGlobMatcher(singletonList(glob), singletonList(expected));
+            for (String path : PATHS) {
+                assertThat(glob + " vs " + path, actual.matches(Paths.get(path)), is(expected.matches(Paths.get(path))));
+            }
+        }
+
+        // and all combined (w/o the catch-alls)
+        final List<String> globs = new ArrayList<>();
+        final List<PathMatcher> matchers = new ArrayList<>();
+        for (String glob : GLOBS) {
+            if (!glob.equals("**") && !glob.equals("*")) {
+                globs.add(glob);
+                matchers.add(FileSystems.getDefault().getPathMatcher("glob:" + glob));
+            }
+        }
+        final MultiGlobMatcher actual = new MultiGlobMatcher(globs, matchers);
+        for (String path : PATHS) {
+            final boolean expected = matchers.stream().anyMatch(m -> m.matches(Paths.get(path)));
+            assertThat(path, actual.matches(Paths.get(path)), is(expected));
+        }
+    }
+
+    @Test
+    public void matchersThatAreNotGlobs() {
+        final PathMatcher matcher = p -> p.toString().startsWith("build");
+        final MultiGlobMatcher actual = new MultiGlobMatcher(asList("*.java", null),
+            asList(FileSystems.getDefault().getPathMatcher("glob:*.java"), matcher));
+
+        assertThat(actual.matches(Paths.get("A.java")), is(true));
+        assertThat(actual.matches(Paths.get("build/x")), is(true));
+        assertThat(actual.matches(Paths.get("src/x")), is(false));
+        assertThat(new MultiGlobMatcher(new ArrayList<>(), new ArrayList<>()).matches(Paths.get("A.java")), is(false));
+    }
+
+}
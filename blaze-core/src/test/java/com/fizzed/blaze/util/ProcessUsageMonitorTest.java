@@ -0,0 +1,52 @@
+package com.fizzed.blaze.util;
+
+import com.fizzed.jne.JavaVersion;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ProcessUsageMonitorTest {
+
+    static private final JavaVersion JAVA_VERSION = JavaVersion.current();
+
+    @Test
+    public void parsePeakRssBytes() {
+        assertThat(ProcessUsageMonitor.parsePeakRssBytes(Arrays.asList(
+            "Name:\tsleep",
+            "VmPeak:\t    8356 kB",
+            "VmHWM:\t     952 kB",
+            "VmRSS:\t     952 kB")), is(952L * 1024L));
+
+        assertThat(ProcessUsageMonitor.parsePeakRssBytes(Arrays.asList("Name:\tkthreadd")), is(nullValue()));
+    }
+
+    @Test
+    public void monitor() throws Exception {
+        // only linux has a "sleep" we can rely on as well as /proc to sample
+        if (!Files.isDirectory(Paths.get("/proc/self"))) {
+            return;
+        }
+
+        final Process process = new ProcessBuilder("sleep", "1").start();
+        final ProcessUsageMonitor monitor = ProcessUsageMonitor.start(process);
+        process.waitFor();
+        final ProcessUsage usage = monitor.stop();
+
+        assertThat(usage.getWallMillis(), greaterThanOrEqualTo(900L));
+
+        // on java 9+, /proc was sampled while the process was running
+        if (JAVA_VERSION.getMajor() >= 9) {
+            assertThat(usage.getUserCpuMillis(), is(notNullValue()));
+            assertThat(usage.getSystemCpuMillis(), is(notNullValue()));
+            assertThat(usage.getTotalCpuMillis(), lessThan(usage.getWallMillis()));
+            assertThat(usage.getPeakRssBytes(), greaterThan(0L));
+            assertThat(usage.toString(), containsString("peak rss"));
+        }
+    }
+
+}
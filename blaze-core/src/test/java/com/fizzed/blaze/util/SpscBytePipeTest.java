@@ -0,0 +1,118 @@
+package com.fizzed.blaze.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SpscBytePipeTest {
+
+    @Test
+    public void capacityRoundedToPowerOf2() {
+        assertThat(new SpscBytePipe(1).getCapacity(), is(1));
+        assertThat(new SpscBytePipe(3).getCapacity(), is(4));
+        assertThat(new SpscBytePipe(4096).getCapacity(), is(4096));
+    }
+
+    @Test
+    public void wrapsAround() throws Exception {
+        SpscBytePipe pipe = new SpscBytePipe(4);
+        final OutputStream os = pipe.getOutputStream();
+        final InputStream is = pipe.getInputStream();
+        final byte[] bytes = new byte[100];
+
+        os.write("hel".getBytes(StandardCharsets.UTF_8));
+        assertThat(is.read(bytes, 0, 2), is(2));
+        assertThat(new String(bytes, 0, 2, StandardCharsets.UTF_8), is("he"));
+
+        // wraps around the end of the buffer
+        os.write("lo!".getBytes(StandardCharsets.UTF_8));
+        final int read = is.read(bytes);
+        assertThat(new String(bytes, 0, read, StandardCharsets.UTF_8), is("llo!"));
+    }
+
+    @Test
+    public void eofAfterDrainingClosedOutput() throws Exception {
+        SpscBytePipe pipe = new SpscBytePipe(16);
+        final byte[] bytes = new byte[100];
+
+        pipe.getOutputStream().write("bye".getBytes(StandardCharsets.UTF_8));
+        pipe.getOutputStream().close();
+
+        assertThat(pipe.getInputStream().read(bytes), is(3));
+        assertThat(pipe.getInputStream().read(bytes), is(-1));
+    }
+
+    @Test
+    public void writeFailsOnceInputClosed() throws Exception {
+        SpscBytePipe pipe = new SpscBytePipe(4);
+
+        pipe.getOutputStream().write("full".getBytes(StandardCharsets.UTF_8));
+
+        // a blocked writer must be released by the reader closing
+        final CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> {
+            try {
+                pipe.getOutputStream().write("more".getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        Thread.sleep(100L);
+        pipe.getInputStream().close();
+
+        assertThrows(Exception.class, () -> writer.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void concurrentTransferIsIntact() throws Exception {
+        final SpscBytePipe pipe = new SpscBytePipe(1024);
+        final Random random = new Random(1L);
+        final MessageDigest written = MessageDigest.getInstance("SHA-256");
+
+        final CompletableFuture<byte[]> reader = CompletableFuture.supplyAsync(() -> {
+            try {
+                final MessageDigest read = MessageDigest.getInstance("SHA-256");
+                final byte[] buf = new byte[777];
+                int n;
+                while ((n = pipe.getInputStream().read(buf)) >= 0) {
+                    read.update(buf, 0, n);
+                }
+                return read.digest();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        for (int i = 0; i < 2000; i++) {
+            final byte[] chunk = new byte[1 + random.nextInt(3000)];
+            random.nextBytes(chunk);
+            written.update(chunk);
+            pipe.getOutputStream().write(chunk);
+        }
+        pipe.getOutputStream().close();
+
+        assertThat(reader.get(30, TimeUnit.SECONDS), is(written.digest()));
+    }
+
+    @Test
+    public void writeAfterInputClosedIsBrokenPipe() throws Exception {
+        final SpscBytePipe pipe = new SpscBytePipe(1024);
+
+        pipe.getInputStream().close();
+
+        // even w/ room in the buffer, the writer learns right away that nothing will read it
+        assertThrows(BrokenPipeException.class, () -> pipe.getOutputStream().write("more".getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
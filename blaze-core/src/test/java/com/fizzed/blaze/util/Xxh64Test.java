@@ -0,0 +1,50 @@
+package com.fizzed.blaze.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class Xxh64Test {
+
+    static private long hash(String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        final Xxh64 xxh64 = new Xxh64();
+        xxh64.update(bytes, 0, bytes.length);
+        return xxh64.digest();
+    }
+
+    @Test
+    public void knownValues() {
+        assertThat(hash(""), is(0xEF46DB3751D8E999L));
+        assertThat(hash("abc"), is(0x44BC2CF5AD770999L));
+        assertThat(hash("Nobody inspects the spammish repetition"), is(0xFBCEA83C8A378BF1L));
+    }
+
+    @Test
+    public void streamingSameAsOneShot() {
+        final byte[] bytes = new byte[1000];
+        new Random(1L).nextBytes(bytes);
+
+        final Xxh64 oneShot = new Xxh64();
+        oneShot.update(bytes, 0, bytes.length);
+        final long expected = oneShot.digest();
+
+        for (int chunk : new int[] { 1, 7, 31, 32, 33, 100 }) {
+            final Xxh64 streaming = new Xxh64();
+            for (int i = 0; i < bytes.length; i += chunk) {
+                streaming.update(bytes, i, Math.min(chunk, bytes.length - i));
+            }
+            assertThat("chunk " + chunk, streaming.digest(), is(expected));
+        }
+
+        // reset starts over
+        oneShot.reset();
+        oneShot.update(bytes, 0, bytes.length);
+        assertThat(oneShot.digest(), is(expected));
+    }
+
+}
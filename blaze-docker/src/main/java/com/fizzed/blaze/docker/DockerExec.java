@@ -20,6 +20,8 @@ import com.fizzed.blaze.core.BlazeException;
 import com.fizzed.blaze.local.LocalExec;
 import com.fizzed.blaze.system.Exec;
 
+import java.util.concurrent.CompletableFuture;
+
 public class DockerExec extends LocalExec {
 
     private final DockerSession session;
@@ -31,6 +33,15 @@ public class DockerExec extends LocalExec {
 
     @Override
     protected Exec.Result doRun() throws BlazeException {
+        return this.toLocalExec().runResult();
+    }
+
+    @Override
+    protected CompletableFuture<Exec.Result> doRunAsync() throws BlazeException {
+        return this.toLocalExec().runAsync();
+    }
+
+    private LocalExec toLocalExec() throws BlazeException {
         
         final String containerName = this.session.uri().getHost();
         
@@ -61,7 +72,7 @@ public class DockerExec extends LocalExec {
         localExec.pipeError(this.pipeError);
         localExec.pipeErrorToOutput(this.pipeErrorToOutput);
         
-        return localExec.runResult();
+        return localExec;
     }
 
 }
\ No newline at end of file